@@ -0,0 +1,59 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+
+import java.time.LocalDate;
+
+/**
+ * Drugs with every field filled in, shaped like catalog rows, for the benchmarks.
+ */
+final class BenchmarkDrugs {
+
+    private BenchmarkDrugs() {
+    }
+
+    /**
+     * Creates a drug.
+     * @param id The ID of the drug.
+     * @return The DrugEntity.
+     */
+    static DrugEntity drug(long id) {
+        var drug = new DrugEntity();
+        drug.setId(id);
+        drug.setMa("MA" + (100000 + id));
+        drug.setPrice(12.49 + id % 100);
+        drug.setBrandName("Ibuprofen Forte " + id);
+        drug.setManufacturer("Polpharma S.A.");
+        drug.setActiveIngredient("Ibuprofen");
+        drug.setNdc("0" + (1000000000L + id));
+        drug.setAtcCode("M01AE01");
+        drug.setDrugForm(DrugForm.TABLET);
+        drug.setRouteOfAdministration(RouteOfAdministration.ORAL);
+        drug.setPrescriptionStatus(PrescriptionStatus.RX_ONLY);
+        drug.setControlledSubstanceStatus(id % 10 == 0 ? ControlledSubstanceStatus.C_III : null);
+        drug.setBatchNumber("B" + id + "-2026");
+        drug.setExpirationDate(LocalDate.of(2030, 6, 30));
+        drug.setAvailableCopies((int) (id % 50));
+        drug.setGraphicLink("https://images.example.org/drugs/" + id + ".png");
+        return drug;
+    }
+
+    /**
+     * Creates the monograph of a drug.
+     * @param drug The drug.
+     * @return The DrugMonographEntity.
+     */
+    static DrugMonographEntity monograph(DrugEntity drug) {
+        var monograph = new DrugMonographEntity(drug);
+        monograph.setContraindications("Hypersensitivity to ibuprofen or to any of the excipients. History of gastrointestinal bleeding or perforation related to previous NSAID therapy. Severe hepatic, renal or cardiac failure. Last trimester of pregnancy.");
+        monograph.setSideEffects("Dyspepsia, nausea, abdominal pain, headache, dizziness, rash.");
+        monograph.setDosage("Adults and adolescents over 12 years: 200-400 mg every 4 to 6 hours, not exceeding 1200 mg in 24 hours.");
+        monograph.setStorageConditions("Store below 25°C in the original package to protect from moisture.");
+        return monograph;
+    }
+}
\ No newline at end of file
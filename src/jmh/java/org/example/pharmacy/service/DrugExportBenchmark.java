@@ -0,0 +1,104 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of writing the catalog export: mapping each row to a GetDrugDto that
+ * Jackson serializes, and writing the entities straight to the generator with DrugJsonWriter.
+ * Both produce the same bytes; the rows are framed as DrugService.exportAll frames them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DrugExportBenchmark {
+
+    /**
+     * Number of drugs exported.
+     */
+    @Param({"100", "1000"})
+    public int rows;
+
+    private ObjectWriter writer;
+    private ObjectWriter dtoWriter;
+    private List<DrugEntity> drugs;
+    private List<DrugMonographEntity> monographs;
+    private ByteArrayOutputStream out;
+
+    /**
+     * Builds the writer, the rows and an output buffer large enough for the export.
+     */
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer().withRootValueSeparator("\n");
+        dtoWriter = writer.forType(GetDrugDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        drugs = new ArrayList<>(rows);
+        monographs = new ArrayList<>(rows);
+        for (var id = 1L; id <= rows; id++) {
+            var drug = BenchmarkDrugs.drug(id);
+            drugs.add(drug);
+            monographs.add(BenchmarkDrugs.monograph(drug));
+        }
+        out = new ByteArrayOutputStream(rows * 1024);
+    }
+
+    /**
+     * Exports the rows through a GetDrugDto per row.
+     * @return The number of bytes written.
+     * @throws IOException if writing fails.
+     */
+    @Benchmark
+    public int exportThroughDto() throws IOException {
+        out.reset();
+        try (var generator = dtoWriter.createGenerator(out)) {
+            for (var i = 0; i < drugs.size(); i++) {
+                dtoWriter.writeValue(generator, DrugMapper.toDto(drugs.get(i), monographs.get(i)));
+            }
+            generator.writeRaw('\n');
+        }
+        return out.size();
+    }
+
+    /**
+     * Exports the rows straight from the entities.
+     * @return The number of bytes written.
+     * @throws IOException if writing fails.
+     */
+    @Benchmark
+    public int exportStreaming() throws IOException {
+        out.reset();
+        try (var generator = writer.createGenerator(out)) {
+            for (var i = 0; i < drugs.size(); i++) {
+                DrugJsonWriter.write(generator, drugs.get(i), monographs.get(i));
+            }
+            generator.writeRaw('\n');
+        }
+        return out.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures the Jackson serialization of single drug and drug list responses.
+ * The object mapper is built with Spring's defaults, as the one serving the controllers is.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DrugJsonBenchmark {
+
+    /**
+     * Number of drugs in the list response.
+     */
+    @Param({"20", "100"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private GetDrugDto drug;
+    private List<GetDrugDto> drugs;
+
+    /**
+     * Builds the object mapper and the responses that are serialized.
+     */
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        drug = toDto(1);
+        drugs = LongStream.rangeClosed(1, listSize).mapToObj(DrugJsonBenchmark::toDto).toList();
+    }
+
+    /**
+     * Serializes one drug.
+     * @return The JSON bytes.
+     * @throws JsonProcessingException if the drug cannot be serialized.
+     */
+    @Benchmark
+    public byte[] writeDrug() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(drug);
+    }
+
+    /**
+     * Serializes a list of drugs.
+     * @return The JSON bytes.
+     * @throws JsonProcessingException if the drugs cannot be serialized.
+     */
+    @Benchmark
+    public byte[] writeDrugList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(drugs);
+    }
+
+    /**
+     * Creates the response for one drug.
+     * @param id The ID of the drug.
+     * @return The GetDrugDto.
+     */
+    private static GetDrugDto toDto(long id) {
+        var drug = BenchmarkDrugs.drug(id);
+        return DrugMapper.toDto(drug, BenchmarkDrugs.monograph(drug));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of a drug and its monograph to the GetDrugDto served by DrugService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DrugMappingBenchmark {
+    private DrugEntity drug;
+    private DrugMonographEntity monograph;
+
+    /**
+     * Creates the drug that is mapped.
+     */
+    @Setup
+    public void setUp() {
+        drug = BenchmarkDrugs.drug(42);
+        monograph = BenchmarkDrugs.monograph(drug);
+    }
+
+    /**
+     * Maps the drug with its monograph.
+     * @return The GetDrugDto.
+     */
+    @Benchmark
+    public GetDrugDto toDto() {
+        return DrugMapper.toDto(drug, monograph);
+    }
+
+    /**
+     * Maps the drug without a monograph.
+     * @return The GetDrugDto.
+     */
+    @Benchmark
+    public GetDrugDto toDtoWithoutMonograph() {
+        return DrugMapper.toDto(drug, null);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.infrastructure.entity.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures issuing and verifying tokens with JwtService.
+ * The service is created with the validity, secret and cache size of application.properties.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtServiceBenchmark {
+    private JwtService jwtService;
+    private UserEntity user;
+    private String token;
+
+    /**
+     * Creates the service and a token to verify.
+     * @throws IOException if application.properties cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        var properties = new Properties();
+        try (var in = JwtServiceBenchmark.class.getResourceAsStream("/application.properties")) {
+            properties.load(in);
+        }
+        jwtService = new JwtService(Long.parseLong(properties.getProperty("security.token.validity")),
+                properties.getProperty("security.token.secret"),
+                Long.parseLong(properties.getProperty("security.token.cache-size")),
+                new SimpleMeterRegistry());
+        user = new UserEntity();
+        user.setId(7L);
+        user.setUsername("pharmacist");
+        token = jwtService.createToken(user);
+    }
+
+    /**
+     * Signs a new token.
+     * @return The token.
+     */
+    @Benchmark
+    public String createToken() {
+        return jwtService.createToken(user);
+    }
+
+    /**
+     * Parses a token and checks its signature, as on the first request that carries it.
+     * @return The username in the token.
+     */
+    @Benchmark
+    public String parseToken() {
+        return jwtService.getUsername(token);
+    }
+
+    /**
+     * Verifies a token that was verified before, as on every later request that carries it.
+     * @return The username in the token.
+     */
+    @Benchmark
+    public Optional<String> verifyCachedToken() {
+        return jwtService.verify(token);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,98 @@
+package org.example.pharmacy.service.errors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.controller.DrugController;
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building error responses in GlobalExceptionHandler, alone and serialized to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GlobalExceptionHandlerBenchmark {
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private DrugNotFoundError notFound;
+    private MethodArgumentNotValidException invalid;
+    private RuntimeException unexpected;
+
+    /**
+     * Creates the handler and the exceptions it handles.
+     * @throws NoSuchMethodException if the validated controller method does not exist.
+     */
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        notFound = new DrugNotFoundError(42);
+
+        var bindingResult = new BeanPropertyBindingResult(new CreateDrugDto(), "createDrugDto");
+        bindingResult.rejectValue("ma", "NotBlank", "MA cannot be blank");
+        bindingResult.rejectValue("price", "DecimalMin", "Price must be at least 0.01");
+        var createDrug = DrugController.class.getMethod("createDrug", CreateDrugDto.class);
+        invalid = new MethodArgumentNotValidException(new MethodParameter(createDrug, 0), bindingResult);
+
+        unexpected = new IllegalStateException("Unexpected failure");
+    }
+
+    /**
+     * Builds the body of a 404 for a missing drug.
+     * @return The response.
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> drugNotFound() {
+        return handler.handleDrugNotFoundException(notFound);
+    }
+
+    /**
+     * Builds the body of a 400 for a request that failed validation on two fields.
+     * @return The response.
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> validationFailed() {
+        return handler.handleValidationExceptions(invalid);
+    }
+
+    /**
+     * Builds the body of a 500 for an unexpected exception.
+     * @return The response.
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> unexpectedError() {
+        return handler.handleAllOtherExceptions(unexpected);
+    }
+
+    /**
+     * Builds and serializes the body of a 404 for a missing drug, as written to the client.
+     * @return The JSON bytes.
+     * @throws JsonProcessingException if the body cannot be serialized.
+     */
+    @Benchmark
+    public byte[] drugNotFoundJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(handler.handleDrugNotFoundException(notFound).getBody());
+    }
+}
\ No newline at end of file
@@ -44,9 +44,12 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/drugs/expiring").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/drugs/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/drugs").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/drugs/by-ma/**", "/api/drugs/by-ndc/**", "/api/drugs/atc-tree/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,14 +1,33 @@
 package org.example.pharmacy.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.pharmacy.controller.dto.AtcTreeNodeDto;
 import org.example.pharmacy.controller.dto.CreateDrugDto;
 import org.example.pharmacy.controller.dto.CreateDrugResponseDto;
+import org.example.pharmacy.controller.dto.DrugBatchResponseDto;
+import org.example.pharmacy.controller.dto.DrugPageDto;
+import org.example.pharmacy.controller.dto.DrugSearchPageDto;
+import org.example.pharmacy.controller.dto.DrugSuggestionDto;
+import org.example.pharmacy.controller.dto.DrugSummaryDto;
 import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.controller.dto.StockAdjustmentDto;
+import org.example.pharmacy.controller.dto.StockLevelDto;
+import org.example.pharmacy.service.DrugAtcTreeService;
+import org.example.pharmacy.service.DrugBatchService;
+import org.example.pharmacy.service.DrugSearchService;
+import org.example.pharmacy.service.DrugSuggestService;
 import org.example.pharmacy.service.DrugService;
+import org.example.pharmacy.service.DrugSortKey;
+import org.example.pharmacy.service.DrugStockService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.List;
 
 /**
  * REST controller for managing drug-related operations.
@@ -17,14 +36,31 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/drugs")
 public class DrugController {
     private final DrugService drugService;
+    private final DrugBatchService drugBatchService;
+    private final DrugSearchService drugSearchService;
+    private final DrugSuggestService drugSuggestService;
+    private final DrugAtcTreeService drugAtcTreeService;
+    private final DrugStockService drugStockService;
 
     /**
-     * Constructs a DrugController with the given DrugService.
+     * Constructs a DrugController with the given services.
      * @param drugService The drug service.
+     * @param drugBatchService The service for batch drug creation.
+     * @param drugSearchService The service for catalog search.
+     * @param drugSuggestService The service for type-ahead suggestions.
+     * @param drugAtcTreeService The service for the ATC classification tree.
+     * @param drugStockService The service for stock adjustments.
      */
     @Autowired
-    public DrugController(DrugService drugService) {
+    public DrugController(DrugService drugService, DrugBatchService drugBatchService, DrugSearchService drugSearchService,
+                          DrugSuggestService drugSuggestService, DrugAtcTreeService drugAtcTreeService,
+                          DrugStockService drugStockService) {
         this.drugService = drugService;
+        this.drugBatchService = drugBatchService;
+        this.drugSearchService = drugSearchService;
+        this.drugSuggestService = drugSuggestService;
+        this.drugAtcTreeService = drugAtcTreeService;
+        this.drugStockService = drugStockService;
     }
 
     /**
@@ -39,13 +75,139 @@ public class DrugController {
     }
 
     /**
-     * Retrieves all drugs.
-     * @return A list of GetDrugDto objects representing all drugs.
+     * Retrieves one page of the drug catalog as summaries.
+     * The full detail of a drug is available from {@link #getDrug(Long)}.
+     * @param size The number of drugs per page.
+     * @param sort The property to sort by: id, price, brandName or expirationDate.
+     * @param atc An ATC code, or its leading levels, to filter by.
+     * @param ingredient An active ingredient to filter by.
+     * @param cursor The cursor returned with the previous page; omit for the first page.
+     * @param request The current request, used to answer conditional requests.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page,
+     *         or null with a 304 status when the client's If-None-Match matches the catalog version.
      */
     @GetMapping
     @PreAuthorize("permitAll()")
-    public java.util.List<GetDrugDto> getAllDrugs() {
-        return drugService.getAll();
+    public DrugPageDto<DrugSummaryDto> getAllDrugs(@RequestParam(defaultValue = "20") int size,
+                                                   @RequestParam(defaultValue = "id") String sort,
+                                                   @RequestParam(required = false) String atc,
+                                                   @RequestParam(required = false) String ingredient,
+                                                   @RequestParam(required = false) String cursor,
+                                                   WebRequest request) {
+        var sortKey = DrugSortKey.fromParameter(sort);
+        if (request.checkNotModified(drugService.getCatalogETag())) {
+            return null;
+        }
+        return drugService.getPage(sortKey, atc, ingredient, size, cursor);
+    }
+
+    /**
+     * Retrieves the drugs that expire between today and a number of days from now, soonest first.
+     * @param withinDays How many days ahead to look.
+     * @param size The number of drugs per page.
+     * @param cursor The cursor returned with the previous page; omit for the first page.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     */
+    @GetMapping("/expiring")
+    @PreAuthorize("isAuthenticated()")
+    public DrugPageDto<DrugSummaryDto> getExpiringDrugs(@RequestParam int withinDays,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        return drugService.getExpiring(withinDays, size, cursor);
+    }
+
+    /**
+     * Retrieves a drug by its MA number.
+     * @param ma The MA number.
+     * @return The GetDrugDto representing the drug.
+     */
+    @GetMapping("/by-ma/{ma}")
+    @PreAuthorize("permitAll()")
+    public GetDrugDto getDrugByMa(@PathVariable String ma) {
+        return drugService.getByMa(ma);
+    }
+
+    /**
+     * Retrieves a drug by its National Drug Code, as read by a barcode scanner.
+     * @param ndc The National Drug Code.
+     * @return The GetDrugDto representing the drug.
+     */
+    @GetMapping("/by-ndc/{ndc}")
+    @PreAuthorize("permitAll()")
+    public GetDrugDto getDrugByNdc(@PathVariable String ndc) {
+        return drugService.getByNdc(ndc);
+    }
+
+    /**
+     * Retrieves the drugs carrying any of several National Drug Codes in one request.
+     * @param ndc The codes, as repeated or comma-separated parameters.
+     * @return The GetDrugDtos of the matching drugs; unknown codes are left out.
+     */
+    @GetMapping("/by-ndc")
+    @PreAuthorize("permitAll()")
+    public List<GetDrugDto> getDrugsByNdc(@RequestParam List<String> ndc) {
+        return drugService.getByNdcs(ndc);
+    }
+
+    /**
+     * Searches the drug catalog by brand name, active ingredient, manufacturer and ATC code.
+     * @param q The search text; every word must match, the last one may be a prefix.
+     * @param page The zero-based page number.
+     * @param size The number of drugs per page.
+     * @return A DrugSearchPageDto with the matching drug summaries, most relevant first.
+     */
+    @GetMapping("/search")
+    @PreAuthorize("permitAll()")
+    public DrugSearchPageDto searchDrugs(@RequestParam String q,
+                                        @RequestParam(defaultValue = "0") int page,
+                                        @RequestParam(defaultValue = "20") int size) {
+        return drugSearchService.search(q, page, size);
+    }
+
+    /**
+     * Suggests brand names and active ingredients for type-ahead input.
+     * @param prefix The text typed so far.
+     * @param limit The largest number of suggestions to return.
+     * @return The suggestions, available ones first and then the most common.
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("permitAll()")
+    public List<DrugSuggestionDto> suggestDrugs(@RequestParam(defaultValue = "") String prefix,
+                                                @RequestParam(defaultValue = "10") int limit) {
+        return drugSuggestService.suggest(prefix, limit);
+    }
+
+    /**
+     * Retrieves the anatomical main groups of the ATC classification with their drug counts.
+     * @return The level 1 ATC nodes.
+     */
+    @GetMapping("/atc-tree")
+    @PreAuthorize("permitAll()")
+    public List<AtcTreeNodeDto> getAtcTree() {
+        return drugAtcTreeService.getMainGroups();
+    }
+
+    /**
+     * Retrieves one node of the ATC classification with its drug counts and its children.
+     * @param code The ATC code of the node, at any level.
+     * @return The AtcTreeNodeDto with its child nodes.
+     */
+    @GetMapping("/atc-tree/{code}")
+    @PreAuthorize("permitAll()")
+    public AtcTreeNodeDto getAtcTreeNode(@PathVariable String code) {
+        return drugAtcTreeService.getNode(code);
+    }
+
+    /**
+     * Streams the whole drug catalog as newline-delimited JSON.
+     * @param response The HTTP response the catalog is written to.
+     * @throws IOException if writing the response fails.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("permitAll()")
+    public void exportDrugs(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        drugService.exportAll(response.getOutputStream());
     }
 
     /**
@@ -59,4 +221,28 @@ public class DrugController {
     public CreateDrugResponseDto createDrug(@Validated @RequestBody CreateDrugDto drug) {
         return drugService.create(drug);
     }
+
+    /**
+     * Creates many drugs in one request.
+     * Each item is validated on its own; invalid items are reported and skipped, valid items are created.
+     * @param drugs The CreateDrugDto items to create.
+     * @return A DrugBatchResponseDto with the outcome of every item.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public DrugBatchResponseDto createDrugs(@RequestBody List<CreateDrugDto> drugs) {
+        return drugBatchService.createAll(drugs);
+    }
+
+    /**
+     * Adds copies to or removes copies from the stock of a drug, such as when a till sells it.
+     * @param id The ID of the drug.
+     * @param adjustment The StockAdjustmentDto with the number of copies to add or remove.
+     * @return A StockLevelDto with the stock after the adjustment.
+     */
+    @PostMapping("/{id}/stock")
+    @PreAuthorize("isAuthenticated()")
+    public StockLevelDto adjustStock(@PathVariable long id, @Validated @RequestBody StockAdjustmentDto adjustment) {
+        return drugStockService.adjust(id, adjustment.getDelta());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package org.example.pharmacy.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.pharmacy.controller.dto.DrugImportJobDto;
+import org.example.pharmacy.service.DrugImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * REST controller for bulk catalog imports.
+ */
+@RestController
+@RequestMapping("/api/drugs/imports")
+public class DrugImportController {
+    private final DrugImportService drugImportService;
+
+    /**
+     * Constructs a DrugImportController with the given service.
+     * @param drugImportService The drug import service.
+     */
+    @Autowired
+    public DrugImportController(DrugImportService drugImportService) {
+        this.drugImportService = drugImportService;
+    }
+
+    /**
+     * Uploads a catalog file and starts importing it in the background.
+     * The request body is the file itself, sent as text/csv with a header line or as application/x-ndjson.
+     * @param request The current request, whose body is streamed to disk.
+     * @return A DrugImportJobDto for the queued job.
+     * @throws IOException if the upload cannot be stored.
+     */
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("isAuthenticated()")
+    public DrugImportJobDto startImport(HttpServletRequest request) throws IOException {
+        return drugImportService.submit(request.getContentType(), request.getInputStream());
+    }
+
+    /**
+     * Retrieves the progress of an import job.
+     * @param id The ID of the job.
+     * @return A DrugImportJobDto with the row counts, the throughput and the first rejected rows.
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public DrugImportJobDto getImport(@PathVariable String id) {
+        return drugImportService.getById(id);
+    }
+
+    /**
+     * Resumes a failed import job from its last committed chunk.
+     * @param id The ID of the job.
+     * @return A DrugImportJobDto for the job.
+     */
+    @PostMapping("/{id}/resume")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("isAuthenticated()")
+    public DrugImportJobDto resumeImport(@PathVariable String id) {
+        return drugImportService.resume(id);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package org.example.pharmacy.controller.dto;
+
+import java.util.List;
+
+public class AtcTreeNodeDto {
+    /**
+     * ATC code of the node, such as N, N02, N02B, N02BE or N02BE01.
+     */
+    private String code;
+    /**
+     * Level of the node in the ATC hierarchy, from 1 (anatomical main group) to 5 (chemical substance).
+     */
+    private int level;
+    /**
+     * Number of drugs classified under this node.
+     */
+    private int drugCount;
+    /**
+     * Number of those drugs that are available.
+     */
+    private int availableCount;
+    /**
+     * Number of child nodes.
+     */
+    private int childCount;
+    /**
+     * Child nodes, or null when they were not requested.
+     */
+    private List<AtcTreeNodeDto> children;
+
+    /**
+     * Default constructor.
+     */
+    public AtcTreeNodeDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     */
+    public AtcTreeNodeDto(String code, int level, int drugCount, int availableCount, int childCount, List<AtcTreeNodeDto> children) {
+        this.code = code;
+        this.level = level;
+        this.drugCount = drugCount;
+        this.availableCount = availableCount;
+        this.childCount = childCount;
+        this.children = children;
+    }
+
+    /**
+     * Gets the ATC code of the node.
+     * @return The ATC code.
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Sets the ATC code of the node.
+     * @param code The ATC code to set.
+     */
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Gets the level of the node.
+     * @return The level, from 1 to 5.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the level of the node.
+     * @param level The level to set.
+     */
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Gets the number of drugs under the node.
+     * @return The number of drugs.
+     */
+    public int getDrugCount() {
+        return drugCount;
+    }
+
+    /**
+     * Sets the number of drugs under the node.
+     * @param drugCount The number of drugs to set.
+     */
+    public void setDrugCount(int drugCount) {
+        this.drugCount = drugCount;
+    }
+
+    /**
+     * Gets the number of available drugs under the node.
+     * @return The number of available drugs.
+     */
+    public int getAvailableCount() {
+        return availableCount;
+    }
+
+    /**
+     * Sets the number of available drugs under the node.
+     * @param availableCount The number of available drugs to set.
+     */
+    public void setAvailableCount(int availableCount) {
+        this.availableCount = availableCount;
+    }
+
+    /**
+     * Gets the number of child nodes.
+     * @return The number of child nodes.
+     */
+    public int getChildCount() {
+        return childCount;
+    }
+
+    /**
+     * Sets the number of child nodes.
+     * @param childCount The number of child nodes to set.
+     */
+    public void setChildCount(int childCount) {
+        this.childCount = childCount;
+    }
+
+    /**
+     * Gets the child nodes.
+     * @return The child nodes, or null.
+     */
+    public List<AtcTreeNodeDto> getChildren() {
+        return children;
+    }
+
+    /**
+     * Sets the child nodes.
+     * @param children The child nodes to set.
+     */
+    public void setChildren(List<AtcTreeNodeDto> children) {
+        this.children = children;
+    }
+}
\ No newline at end of file
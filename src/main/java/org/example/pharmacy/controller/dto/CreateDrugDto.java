@@ -1,6 +1,15 @@
 package org.example.pharmacy.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
+import org.example.pharmacy.controller.dto.validation.CodedLabel;
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 public class CreateDrugDto {
     /**
@@ -57,28 +66,28 @@ public class CreateDrugDto {
      * Drug form (e.g., tablet, capsule).
      */
     @NotBlank(message = "Drug form cannot be blank")
-    @Size(max = 30, message = "Drug form cannot exceed 30 characters")
+    @CodedLabel(value = DrugForm.class, message = "Drug form must be one of:")
     private String drugForm;
 
     /**
      * Route of administration (e.g., oral, topical).
      */
     @NotBlank(message = "Route of administration cannot be blank")
-    @Size(max = 30, message = "Route of administration cannot exceed 30 characters")
+    @CodedLabel(value = RouteOfAdministration.class, message = "Route of administration must be one of:")
     private String routeOfAdministration;
 
     /**
      * Prescription status (OTC or Rx-only).
      */
     @NotBlank(message = "Prescription status cannot be blank")
-    @Pattern(regexp = "OTC|Rx-only", message = "Prescription status must be either 'OTC' or 'Rx-only'")
+    @CodedLabel(value = PrescriptionStatus.class, message = "Prescription status must be one of:")
     private String prescriptionStatus;
 
     /**
-     * Controlled substance status (e.g., C-I, C-II).
+     * Controlled substance status (C-I to C-V).
      */
     @NotBlank(message = "Controlled substance status cannot be blank")
-    @Pattern(regexp = "C-[IV]{1,3}", message = "Controlled substance status must follow the format C-I, C-II, etc.")
+    @CodedLabel(value = ControlledSubstanceStatus.class, message = "Controlled substance status must be one of:")
     private String controlledSubstanceStatus;
 
     /**
@@ -423,6 +432,25 @@ public class CreateDrugDto {
         this.expirationDate = expirationDate;
     }
 
+    /**
+     * Checks that the expiration date, when it has the right format, is a real calendar date.
+     * @return True if the date is absent, malformed (reported by its own constraints) or valid.
+     */
+    @JsonIgnore
+    @AssertTrue(message = "Expiration date must be a valid date")
+    public boolean isExpirationDateValid() {
+        if (expirationDate == null || !expirationDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
+            return true;
+        }
+        try {
+            LocalDate.parse(expirationDate);
+            return true;
+        }
+        catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
     /**
      * Gets the storage conditions.
      * @return The storage conditions.
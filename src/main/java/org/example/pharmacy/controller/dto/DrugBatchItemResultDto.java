@@ -0,0 +1,113 @@
+package org.example.pharmacy.controller.dto;
+
+import java.util.Map;
+
+public class DrugBatchItemResultDto {
+    /**
+     * Status of an item that was inserted.
+     */
+    public static final String CREATED = "CREATED";
+    /**
+     * Status of an item that failed validation and was skipped.
+     */
+    public static final String REJECTED = "REJECTED";
+    /**
+     * Status of a valid item whose chunk could not be committed.
+     */
+    public static final String FAILED = "FAILED";
+
+    /**
+     * Position of the item in the request.
+     */
+    private int index;
+    /**
+     * Outcome of the item: CREATED, REJECTED or FAILED.
+     */
+    private String status;
+    /**
+     * Identifier of the created drug, or null if the item was not created.
+     */
+    private Long id;
+    /**
+     * Errors keyed by field name, empty if the item was created.
+     */
+    private Map<String, String> errors;
+
+    /**
+     * Constructs a new DrugBatchItemResultDto.
+     * @param index The position of the item in the request.
+     * @param status The outcome of the item.
+     * @param id The ID of the created drug, or null.
+     * @param errors The errors keyed by field name.
+     */
+    public DrugBatchItemResultDto(int index, String status, Long id, Map<String, String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    /**
+     * Gets the position of the item in the request.
+     * @return The item index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the position of the item in the request.
+     * @param index The item index to set.
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Gets the outcome of the item.
+     * @return The status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the outcome of the item.
+     * @param status The status to set.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the ID of the created drug.
+     * @return The drug ID, or null if the item was not created.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the created drug.
+     * @param id The drug ID to set.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the errors keyed by field name.
+     * @return The errors.
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the errors keyed by field name.
+     * @param errors The errors to set.
+     */
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
\ No newline at end of file
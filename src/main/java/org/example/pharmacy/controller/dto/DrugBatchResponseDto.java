@@ -0,0 +1,78 @@
+package org.example.pharmacy.controller.dto;
+
+import java.util.List;
+
+public class DrugBatchResponseDto {
+    /**
+     * Number of drugs created.
+     */
+    private int created;
+    /**
+     * Number of items that were not created.
+     */
+    private int notCreated;
+    /**
+     * Per-item results, in request order.
+     */
+    private List<DrugBatchItemResultDto> items;
+
+    /**
+     * Constructs a new DrugBatchResponseDto.
+     * @param created The number of drugs created.
+     * @param notCreated The number of items that were not created.
+     * @param items The per-item results.
+     */
+    public DrugBatchResponseDto(int created, int notCreated, List<DrugBatchItemResultDto> items) {
+        this.created = created;
+        this.notCreated = notCreated;
+        this.items = items;
+    }
+
+    /**
+     * Gets the number of drugs created.
+     * @return The number of drugs created.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * Sets the number of drugs created.
+     * @param created The number to set.
+     */
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    /**
+     * Gets the number of items that were not created.
+     * @return The number of items not created.
+     */
+    public int getNotCreated() {
+        return notCreated;
+    }
+
+    /**
+     * Sets the number of items that were not created.
+     * @param notCreated The number to set.
+     */
+    public void setNotCreated(int notCreated) {
+        this.notCreated = notCreated;
+    }
+
+    /**
+     * Gets the per-item results.
+     * @return The per-item results.
+     */
+    public List<DrugBatchItemResultDto> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the per-item results.
+     * @param items The per-item results to set.
+     */
+    public void setItems(List<DrugBatchItemResultDto> items) {
+        this.items = items;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package org.example.pharmacy.controller.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class DrugImportJobDto {
+    /**
+     * Unique identifier of the import job.
+     */
+    private String id;
+    /**
+     * Status of the job: QUEUED, RUNNING, COMPLETED or FAILED.
+     */
+    private String status;
+    /**
+     * Format of the uploaded file: csv or ndjson.
+     */
+    private String format;
+    /**
+     * Number of rows read and committed, including rejected rows.
+     */
+    private long committedRows;
+    /**
+     * Number of drugs inserted.
+     */
+    private long insertedRows;
+    /**
+     * Number of existing drugs updated.
+     */
+    private long updatedRows;
+    /**
+     * Number of rows rejected by validation.
+     */
+    private long rejectedRows;
+    /**
+     * Rows committed per second during the current or last run.
+     */
+    private double rowsPerSecond;
+    /**
+     * Time the job was created.
+     */
+    private Instant createdAt;
+    /**
+     * Time the current or last run started.
+     */
+    private Instant startedAt;
+    /**
+     * Time the job finished.
+     */
+    private Instant finishedAt;
+    /**
+     * Reason the job failed.
+     */
+    private String error;
+    /**
+     * The first rejected rows, in row order.
+     */
+    private List<DrugImportRejectionDto> rejections;
+
+    /**
+     * Default constructor.
+     */
+    public DrugImportJobDto() {
+    }
+
+    /**
+     * Gets the job ID.
+     * @return The job ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the job ID.
+     * @param id The job ID to set.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the status.
+     * @return The status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status.
+     * @param status The status to set.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the format.
+     * @return The format.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format.
+     * @param format The format to set.
+     */
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * Gets the committed row count.
+     * @return The committed row count.
+     */
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    /**
+     * Sets the committed row count.
+     * @param committedRows The committed row count to set.
+     */
+    public void setCommittedRows(long committedRows) {
+        this.committedRows = committedRows;
+    }
+
+    /**
+     * Gets the inserted row count.
+     * @return The inserted row count.
+     */
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    /**
+     * Sets the inserted row count.
+     * @param insertedRows The inserted row count to set.
+     */
+    public void setInsertedRows(long insertedRows) {
+        this.insertedRows = insertedRows;
+    }
+
+    /**
+     * Gets the updated row count.
+     * @return The updated row count.
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    /**
+     * Sets the updated row count.
+     * @param updatedRows The updated row count to set.
+     */
+    public void setUpdatedRows(long updatedRows) {
+        this.updatedRows = updatedRows;
+    }
+
+    /**
+     * Gets the rejected row count.
+     * @return The rejected row count.
+     */
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Sets the rejected row count.
+     * @param rejectedRows The rejected row count to set.
+     */
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    /**
+     * Gets the throughput in rows per second.
+     * @return The throughput in rows per second.
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * Sets the throughput in rows per second.
+     * @param rowsPerSecond The throughput in rows per second to set.
+     */
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * Gets the creation time.
+     * @return The creation time.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the creation time.
+     * @param createdAt The creation time to set.
+     */
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the start time.
+     * @return The start time.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the start time.
+     * @param startedAt The start time to set.
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the finish time.
+     * @return The finish time.
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Sets the finish time.
+     * @param finishedAt The finish time to set.
+     */
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Gets the error.
+     * @return The error.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the error.
+     * @param error The error to set.
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Gets the first rejected rows.
+     * @return The first rejected rows.
+     */
+    public List<DrugImportRejectionDto> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Sets the first rejected rows.
+     * @param rejections The first rejected rows to set.
+     */
+    public void setRejections(List<DrugImportRejectionDto> rejections) {
+        this.rejections = rejections;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.example.pharmacy.controller.dto;
+
+public class DrugImportRejectionDto {
+    /**
+     * One-based number of the rejected row, not counting a CSV header.
+     */
+    private long rowNumber;
+    /**
+     * Why the row was rejected.
+     */
+    private String errors;
+
+    /**
+     * Default constructor.
+     */
+    public DrugImportRejectionDto() {
+    }
+
+    /**
+     * Gets the row number.
+     * @return The row number.
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Sets the row number.
+     * @param rowNumber The row number to set.
+     */
+    public void setRowNumber(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * Gets the rejection reason.
+     * @return The rejection reason.
+     */
+    public String getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the rejection reason.
+     * @param errors The rejection reason to set.
+     */
+    public void setErrors(String errors) {
+        this.errors = errors;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package org.example.pharmacy.controller.dto;
+
+import java.util.List;
+
+public class DrugPageDto<T> {
+    /**
+     * Drugs on this page, in the requested sort order.
+     */
+    private List<T> items;
+    /**
+     * Opaque cursor pointing past the last item, or null when this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Constructs a new DrugPageDto with the specified items and next cursor.
+     * @param items The drugs on this page.
+     * @param nextCursor The cursor for the next page, or null if there is none.
+     */
+    public DrugPageDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the drugs on this page.
+     * @return The drugs on this page.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the drugs on this page.
+     * @param items The drugs to set.
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     * @return The next cursor, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the cursor for the next page.
+     * @param nextCursor The next cursor to set.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
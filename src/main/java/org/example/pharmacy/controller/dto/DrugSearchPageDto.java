@@ -0,0 +1,100 @@
+package org.example.pharmacy.controller.dto;
+
+import java.util.List;
+
+public class DrugSearchPageDto {
+    /**
+     * Matching drugs on this page, most relevant first.
+     */
+    private List<DrugSummaryDto> items;
+    /**
+     * Zero-based number of this page.
+     */
+    private int page;
+    /**
+     * Requested number of drugs per page.
+     */
+    private int size;
+    /**
+     * Number of matching drugs; exact up to the end of this page, a lower bound beyond that.
+     */
+    private long totalHits;
+
+    /**
+     * Constructs a new DrugSearchPageDto.
+     * @param items The matching drugs on this page.
+     * @param page The zero-based number of this page.
+     * @param size The requested number of drugs per page.
+     * @param totalHits The total number of matching drugs.
+     */
+    public DrugSearchPageDto(List<DrugSummaryDto> items, int page, int size, long totalHits) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+    }
+
+    /**
+     * Gets the matching drugs on this page.
+     * @return The matching drugs on this page.
+     */
+    public List<DrugSummaryDto> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the matching drugs on this page.
+     * @param items The matching drugs to set.
+     */
+    public void setItems(List<DrugSummaryDto> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the zero-based number of this page.
+     * @return The page number.
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Sets the zero-based number of this page.
+     * @param page The page number to set.
+     */
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    /**
+     * Gets the requested number of drugs per page.
+     * @return The page size.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the requested number of drugs per page.
+     * @param size The page size to set.
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Gets the total number of matching drugs.
+     * @return The total number of matching drugs.
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Sets the total number of matching drugs.
+     * @param totalHits The total number of matching drugs to set.
+     */
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+}
\ No newline at end of file
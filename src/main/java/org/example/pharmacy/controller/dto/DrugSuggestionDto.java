@@ -0,0 +1,100 @@
+package org.example.pharmacy.controller.dto;
+
+public class DrugSuggestionDto {
+    /**
+     * Suggested brand name or active ingredient.
+     */
+    private String text;
+    /**
+     * What the suggestion is: brandName or activeIngredient.
+     */
+    private String kind;
+    /**
+     * Number of drugs carrying this brand name or active ingredient.
+     */
+    private int drugCount;
+    /**
+     * Whether at least one of those drugs is available.
+     */
+    private boolean isAvailable;
+
+    /**
+     * Default constructor.
+     */
+    public DrugSuggestionDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     */
+    public DrugSuggestionDto(String text, String kind, int drugCount, boolean isAvailable) {
+        this.text = text;
+        this.kind = kind;
+        this.drugCount = drugCount;
+        this.isAvailable = isAvailable;
+    }
+
+    /**
+     * Gets the suggested text.
+     * @return The suggested text.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Sets the suggested text.
+     * @param text The suggested text to set.
+     */
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Gets what the suggestion is.
+     * @return brandName or activeIngredient.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Sets what the suggestion is.
+     * @param kind The kind to set.
+     */
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Gets the number of drugs carrying the suggested text.
+     * @return The number of drugs.
+     */
+    public int getDrugCount() {
+        return drugCount;
+    }
+
+    /**
+     * Sets the number of drugs carrying the suggested text.
+     * @param drugCount The number of drugs to set.
+     */
+    public void setDrugCount(int drugCount) {
+        this.drugCount = drugCount;
+    }
+
+    /**
+     * Checks if at least one drug with the suggested text is available.
+     * @return True if available, false otherwise.
+     */
+    public boolean isAvailable() {
+        return isAvailable;
+    }
+
+    /**
+     * Sets whether at least one drug with the suggested text is available.
+     * @param available The availability status to set.
+     */
+    public void setAvailable(boolean available) {
+        isAvailable = available;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package org.example.pharmacy.controller.dto;
+
+public class DrugSummaryDto {
+    /**
+     * Unique identifier for the drug.
+     */
+    private long id;
+    /**
+     * Brand name of the drug.
+     */
+    private String brandName;
+    /**
+     * Manufacturer of the drug.
+     */
+    private String manufacturer;
+    /**
+     * Active ingredient of the drug.
+     */
+    private String activeIngredient;
+    /**
+     * Price of the drug.
+     */
+    private double price;
+    /**
+     * Expiration date of the drug.
+     */
+    private String expirationDate;
+    /**
+     * Availability status of the drug.
+     */
+    private boolean isAvailable;
+    /**
+     * Link to a graphic representation of the drug.
+     */
+    private String graphicLink;
+
+    /**
+     * Default constructor.
+     */
+    public DrugSummaryDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     */
+    public DrugSummaryDto(long id, String brandName, String manufacturer, String activeIngredient, double price, String expirationDate, boolean isAvailable, String graphicLink) {
+        this.id = id;
+        this.brandName = brandName;
+        this.manufacturer = manufacturer;
+        this.activeIngredient = activeIngredient;
+        this.price = price;
+        this.expirationDate = expirationDate;
+        this.isAvailable = isAvailable;
+        this.graphicLink = graphicLink;
+    }
+
+    /**
+     * Gets the unique identifier of the drug.
+     * @return The drug ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the drug.
+     * @param id The drug ID to set.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the brand name.
+     * @return The brand name.
+     */
+    public String getBrandName() {
+        return brandName;
+    }
+
+    /**
+     * Sets the brand name.
+     * @param brandName The brand name to set.
+     */
+    public void setBrandName(String brandName) {
+        this.brandName = brandName;
+    }
+
+    /**
+     * Gets the manufacturer.
+     * @return The manufacturer.
+     */
+    public String getManufacturer() {
+        return manufacturer;
+    }
+
+    /**
+     * Sets the manufacturer.
+     * @param manufacturer The manufacturer to set.
+     */
+    public void setManufacturer(String manufacturer) {
+        this.manufacturer = manufacturer;
+    }
+
+    /**
+     * Gets the active ingredient.
+     * @return The active ingredient.
+     */
+    public String getActiveIngredient() {
+        return activeIngredient;
+    }
+
+    /**
+     * Sets the active ingredient.
+     * @param activeIngredient The active ingredient to set.
+     */
+    public void setActiveIngredient(String activeIngredient) {
+        this.activeIngredient = activeIngredient;
+    }
+
+    /**
+     * Gets the price.
+     * @return The price.
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * Sets the price.
+     * @param price The price to set.
+     */
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    /**
+     * Gets the expiration date.
+     * @return The expiration date.
+     */
+    public String getExpirationDate() {
+        return expirationDate;
+    }
+
+    /**
+     * Sets the expiration date.
+     * @param expirationDate The expiration date to set.
+     */
+    public void setExpirationDate(String expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    /**
+     * Checks if the drug is available.
+     * @return True if available, false otherwise.
+     */
+    public boolean isAvailable() {
+        return isAvailable;
+    }
+
+    /**
+     * Sets the availability status of the drug.
+     * @param available The availability status to set.
+     */
+    public void setAvailable(boolean available) {
+        isAvailable = available;
+    }
+
+    /**
+     * Gets the graphic link.
+     * @return The graphic link.
+     */
+    public String getGraphicLink() {
+        return graphicLink;
+    }
+
+    /**
+     * Sets the graphic link.
+     * @param graphicLink The graphic link to set.
+     */
+    public void setGraphicLink(String graphicLink) {
+        this.graphicLink = graphicLink;
+    }
+}
\ No newline at end of file
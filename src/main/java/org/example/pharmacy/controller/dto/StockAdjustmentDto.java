@@ -0,0 +1,44 @@
+package org.example.pharmacy.controller.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class StockAdjustmentDto {
+    /**
+     * Number of copies to add to the stock; negative to remove copies, such as when selling.
+     */
+    @NotNull(message = "Delta cannot be null")
+    @Min(value = -10000, message = "Delta cannot be below -10000")
+    @Max(value = 10000, message = "Delta cannot exceed 10000")
+    private Integer delta;
+
+    /**
+     * Default constructor.
+     */
+    public StockAdjustmentDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     */
+    public StockAdjustmentDto(Integer delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Gets the number of copies to add.
+     * @return The delta; negative to remove copies.
+     */
+    public Integer getDelta() {
+        return delta;
+    }
+
+    /**
+     * Sets the number of copies to add.
+     * @param delta The delta to set; negative to remove copies.
+     */
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.example.pharmacy.controller.dto;
+
+public class StockLevelDto {
+    /**
+     * Unique identifier for the drug.
+     */
+    private long id;
+    /**
+     * Number of copies in stock after the adjustment.
+     */
+    private int availableCopies;
+    /**
+     * Whether the drug is available after the adjustment.
+     */
+    private boolean isAvailable;
+
+    /**
+     * Default constructor.
+     */
+    public StockLevelDto() {
+    }
+
+    /**
+     * Constructor with all fields.
+     */
+    public StockLevelDto(long id, int availableCopies, boolean isAvailable) {
+        this.id = id;
+        this.availableCopies = availableCopies;
+        this.isAvailable = isAvailable;
+    }
+
+    /**
+     * Gets the ID of the drug.
+     * @return The drug ID.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the drug.
+     * @param id The drug ID to set.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the number of copies in stock.
+     * @return The number of copies.
+     */
+    public int getAvailableCopies() {
+        return availableCopies;
+    }
+
+    /**
+     * Sets the number of copies in stock.
+     * @param availableCopies The number of copies to set.
+     */
+    public void setAvailableCopies(int availableCopies) {
+        this.availableCopies = availableCopies;
+    }
+
+    /**
+     * Gets whether the drug is available.
+     * @return True if the drug is available, false otherwise.
+     */
+    public boolean isAvailable() {
+        return isAvailable;
+    }
+
+    /**
+     * Sets whether the drug is available.
+     * @param available Whether the drug is available.
+     */
+    public void setAvailable(boolean available) {
+        isAvailable = available;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package org.example.pharmacy.controller.dto.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must be the label of a constant of a coded enum, ignoring case.
+ * Null values are valid; combine with NotBlank to require a value. The allowed labels are
+ * appended to the message.
+ */
+@Documented
+@Constraint(validatedBy = CodedLabelValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CodedLabel {
+
+    /**
+     * The coded enum whose labels are allowed.
+     * @return The enum type.
+     */
+    Class<? extends CodedEnum> value();
+
+    /**
+     * The message of the violation, followed by the allowed labels.
+     * @return The message.
+     */
+    String message() default "Value must be one of:";
+
+    /**
+     * The validation groups.
+     * @return The groups.
+     */
+    Class<?>[] groups() default {};
+
+    /**
+     * The payload of the constraint.
+     * @return The payload.
+     */
+    Class<? extends Payload>[] payload() default {};
+}
\ No newline at end of file
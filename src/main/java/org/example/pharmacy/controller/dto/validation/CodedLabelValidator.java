@@ -0,0 +1,49 @@
+package org.example.pharmacy.controller.dto.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates {@link CodedLabel} constraints.
+ */
+public class CodedLabelValidator implements ConstraintValidator<CodedLabel, String> {
+    private Set<String> labels;
+    private String message;
+
+    /**
+     * Reads the allowed labels of the constraint's enum.
+     * @param constraint The constraint.
+     */
+    @Override
+    public void initialize(CodedLabel constraint) {
+        var constants = constraint.value().getEnumConstants();
+        labels = Arrays.stream(constants)
+                .map(constant -> constant.getLabel().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        message = constraint.message() + " " + Arrays.stream(constants)
+                .map(CodedEnum::getLabel)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Checks that a value is one of the allowed labels.
+     * @param value The value, or null.
+     * @param context The validation context.
+     * @return True if the value is null or an allowed label, false otherwise.
+     */
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        if (value == null || labels.contains(value.strip().toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+        return false;
+    }
+}
\ No newline at end of file
@@ -35,37 +35,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     /**
      * Performs the filter logic for JWT authentication.
-     * Processes the JWT from the Authorization header, validates it, and sets the security context.
+     * Processes the JWT from the Authorization header, validates it once, and sets the security context.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        try {
-            final var authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-            final String token;
-
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            token = authHeader.substring(7);
-
-            final String username = jwtService.getUsername(token);
-
-            if(username != null && !username.isEmpty() && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if(jwtService.verifyToken(token)) {
-                    SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, null);
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    securityContext.setAuthentication(authenticationToken);
-                    SecurityContextHolder.setContext(securityContext);
-                }
-            }
-
-            filterChain.doFilter(request, response);
-        }
-        catch(Exception e) {
-            filterChain.doFilter(request, response);
+        final var authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader != null && authHeader.startsWith("Bearer ") && SecurityContextHolder.getContext().getAuthentication() == null) {
+            final String token = authHeader.substring(7);
+
+            jwtService.verify(token).ifPresent(username -> {
+                SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(username, null, null);
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                securityContext.setAuthentication(authenticationToken);
+                SecurityContextHolder.setContext(securityContext);
+            });
         }
+
+        filterChain.doFilter(request, response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package org.example.pharmacy.controller.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.pharmacy.infrastructure.statistics.QueryCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reports the number of SQL statements a request issued in the X-Query-Count response header.
+ * The header is written just before the response is committed, so statements issued while a
+ * streamed body is being written are not included. Meant for non-production profiles; enabled
+ * with diagnostics.query-count.enabled.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "diagnostics.query-count.enabled", havingValue = "true")
+public class QueryCountFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Query-Count";
+
+    private final QueryCounter queryCounter;
+
+    /**
+     * Constructs a QueryCountFilter.
+     * @param queryCounter The counter of the statements Hibernate prepares.
+     */
+    @Autowired
+    public QueryCountFilter(QueryCounter queryCounter) {
+        this.queryCounter = queryCounter;
+    }
+
+    /**
+     * Counts the statements of the request and adds their number to the response.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try (var scope = queryCounter.open()) {
+            var countingResponse = new CountingResponse(response, scope);
+            filterChain.doFilter(request, countingResponse);
+            countingResponse.writeCount();
+        }
+    }
+
+    /**
+     * A response that writes the statement count into its headers when it is committed.
+     */
+    private static final class CountingResponse extends OnCommittedResponseWrapper {
+        private final QueryCounter.Scope scope;
+        private boolean written;
+
+        /**
+         * Wraps a response.
+         * @param response The response.
+         * @param scope The scope counting the statements of the request.
+         */
+        private CountingResponse(HttpServletResponse response, QueryCounter.Scope scope) {
+            super(response);
+            this.scope = scope;
+        }
+
+        /**
+         * Writes the count before the response is committed.
+         */
+        @Override
+        protected void onResponseCommitted() {
+            writeCount();
+        }
+
+        /**
+         * Writes the count, unless it was written already or the response is committed.
+         */
+        private void writeCount() {
+            if (!written && !getResponse().isCommitted()) {
+                ((HttpServletResponse) getResponse()).setHeader(HEADER, Integer.toString(scope.count()));
+            }
+            written = true;
+        }
+    }
+}
\ No newline at end of file
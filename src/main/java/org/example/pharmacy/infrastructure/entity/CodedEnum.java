@@ -0,0 +1,105 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * An enumerated drug attribute stored as a one-byte code and shown by its label.
+ * Codes are fixed per constant and never reused, so constants can be added or reordered
+ * without rewriting stored rows.
+ */
+public interface CodedEnum {
+
+    /**
+     * Gets the code stored in the database.
+     * @return The code.
+     */
+    byte getCode();
+
+    /**
+     * Gets the human-readable label used by the API.
+     * @return The label.
+     */
+    String getLabel();
+
+    /**
+     * Finds the constant with a label, ignoring case and surrounding whitespace.
+     * @param type The enum type.
+     * @param label The label, or null.
+     * @param <E> The enum type.
+     * @return The constant, or null if no constant has the label.
+     */
+    static <E extends Enum<E> & CodedEnum> E fromLabel(Class<E> type, String label) {
+        if (label == null) {
+            return null;
+        }
+        var stripped = label.strip();
+        for (var constant : type.getEnumConstants()) {
+            if (constant.getLabel().equalsIgnoreCase(stripped)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the constant with a code.
+     * @param type The enum type.
+     * @param code The code.
+     * @param <E> The enum type.
+     * @return The constant.
+     * @throws IllegalArgumentException if no constant has the code.
+     */
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, byte code) {
+        for (var constant : type.getEnumConstants()) {
+            if (constant.getCode() == code) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code " + code);
+    }
+
+    /**
+     * Gets the label of a constant.
+     * @param constant The constant, or null.
+     * @return The label, or null.
+     */
+    static String labelOf(CodedEnum constant) {
+        return constant != null ? constant.getLabel() : null;
+    }
+
+    /**
+     * Converts a coded enum to its code for a TINYINT column and back.
+     * @param <E> The enum type.
+     */
+    abstract class ColumnConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Byte> {
+        private final Class<E> type;
+
+        /**
+         * Constructs a converter for an enum type.
+         * @param type The enum type.
+         */
+        protected ColumnConverter(Class<E> type) {
+            this.type = type;
+        }
+
+        /**
+         * Converts a constant to its code.
+         * @param attribute The constant, or null.
+         * @return The code, or null.
+         */
+        @Override
+        public Byte convertToDatabaseColumn(E attribute) {
+            return attribute != null ? attribute.getCode() : null;
+        }
+
+        /**
+         * Converts a code to its constant.
+         * @param dbData The code, or null.
+         * @return The constant, or null.
+         */
+        @Override
+        public E convertToEntityAttribute(Byte dbData) {
+            return dbData != null ? fromCode(type, dbData) : null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Converter;
+
+/**
+ * The controlled substance schedule of a drug, from C-I to C-V.
+ */
+public enum ControlledSubstanceStatus implements CodedEnum {
+    C_I(1, "C-I"),
+    C_II(2, "C-II"),
+    C_III(3, "C-III"),
+    C_IV(4, "C-IV"),
+    C_V(5, "C-V");
+
+    private final byte code;
+    private final String label;
+
+    ControlledSubstanceStatus(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    /**
+     * Gets the code stored in the database.
+     * @return The code.
+     */
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the human-readable label used by the API.
+     * @return The label.
+     */
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores ControlledSubstanceStatus values as TINYINT codes.
+     */
+    @Converter
+    public static class ColumnConverter extends CodedEnum.ColumnConverter<ControlledSubstanceStatus> {
+
+        /**
+         * Constructs the converter.
+         */
+        public ColumnConverter() {
+            super(ControlledSubstanceStatus.class);
+        }
+    }
+}
\ No newline at end of file
@@ -2,16 +2,37 @@ package org.example.pharmacy.infrastructure.entity;
 
 import jakarta.persistence.*;
 
+import java.time.LocalDate;
+
 /**
  * Represents a drug entity in the pharmacy system.
+ * The long descriptive texts of a drug are kept in its {@link DrugMonographEntity}.
  */
 @Entity
-@Table(name = "drugs", schema = "pharmacy")
+@Table(name = "drugs", schema = "pharmacy", indexes = {
+        @Index(name = "idx_drugs_price_id", columnList = "price, id"),
+        @Index(name = "idx_drugs_brand_name_id", columnList = "brandName, id"),
+        @Index(name = "idx_drugs_expiration_date_id", columnList = "expirationDate, id"),
+        @Index(name = "idx_drugs_ndc", columnList = "ndc"),
+        @Index(name = "idx_drugs_atc_code_id", columnList = "atcCode, id"),
+        @Index(name = "idx_drugs_active_ingredient_id", columnList = "activeIngredient, id")
+})
 public class DrugEntity {
+    /**
+     * Allocation size of the drug ID generator.
+     * IDs are reserved in blocks of this size so inserts can be batched.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Unique identifier for the drug.
+     * Drawn from a pooled table generator rather than an identity column, because Hibernate
+     * cannot batch inserts whose IDs are only known after each row is written.
      */
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "drugIdGenerator")
+    @TableGenerator(name = "drugIdGenerator", schema = "pharmacy", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val", pkColumnValue = "drugs",
+            allocationSize = ID_ALLOCATION_SIZE)
     @Id
     @Column(name = "id")
     private long id;
@@ -69,50 +90,33 @@ public class DrugEntity {
      * Drug form (e.g., tablet, capsule).
      */
     @Basic
+    @Convert(converter = DrugForm.ColumnConverter.class)
     @Column(name = "drugForm")
-    private String drugForm;
+    private DrugForm drugForm;
 
     /**
      * Route of administration (e.g., oral, topical).
      */
     @Basic
+    @Convert(converter = RouteOfAdministration.ColumnConverter.class)
     @Column(name = "routeOfAdministration")
-    private String routeOfAdministration;
+    private RouteOfAdministration routeOfAdministration;
 
     /**
      * Prescription status (e.g., OTC, Rx-only).
      */
     @Basic
+    @Convert(converter = PrescriptionStatus.ColumnConverter.class)
     @Column(name = "prescriptionStatus")
-    private String prescriptionStatus;
+    private PrescriptionStatus prescriptionStatus;
 
     /**
      * Controlled substance status (e.g., C-II, C-III).
      */
     @Basic
+    @Convert(converter = ControlledSubstanceStatus.ColumnConverter.class)
     @Column(name = "controlledSubstanceStatus")
-    private String controlledSubstanceStatus;
-
-    /**
-     * Contraindications for the drug.
-     */
-    @Basic
-    @Column(name = "contraindications")
-    private String contraindications;
-
-    /**
-     * Side effects of the drug.
-     */
-    @Basic
-    @Column(name = "sideEffects")
-    private String sideEffects;
-
-    /**
-     * Dosage information for the drug.
-     */
-    @Basic
-    @Column(name = "dosage")
-    private String dosage;
+    private ControlledSubstanceStatus controlledSubstanceStatus;
 
     /**
      * Batch number of the drug.
@@ -126,14 +130,7 @@ public class DrugEntity {
      */
     @Basic
     @Column(name = "expirationDate")
-    private String expirationDate;
-
-    /**
-     * Storage conditions for the drug.
-     */
-    @Basic
-    @Column(name = "storageConditions")
-    private String storageConditions;
+    private LocalDate expirationDate;
 
     /**
      * Number of available copies of the drug.
@@ -281,7 +278,7 @@ public class DrugEntity {
      * Gets the drug form.
      * @return The drug form.
      */
-    public String getDrugForm() {
+    public DrugForm getDrugForm() {
         return drugForm;
     }
 
@@ -289,7 +286,7 @@ public class DrugEntity {
      * Sets the drug form.
      * @param drugForm The drug form to set.
      */
-    public void setDrugForm(String drugForm) {
+    public void setDrugForm(DrugForm drugForm) {
         this.drugForm = drugForm;
     }
 
@@ -297,7 +294,7 @@ public class DrugEntity {
      * Gets the route of administration.
      * @return The route of administration.
      */
-    public String getRouteOfAdministration() {
+    public RouteOfAdministration getRouteOfAdministration() {
         return routeOfAdministration;
     }
 
@@ -305,7 +302,7 @@ public class DrugEntity {
      * Sets the route of administration.
      * @param routeOfAdministration The route of administration to set.
      */
-    public void setRouteOfAdministration(String routeOfAdministration) {
+    public void setRouteOfAdministration(RouteOfAdministration routeOfAdministration) {
         this.routeOfAdministration = routeOfAdministration;
     }
 
@@ -313,7 +310,7 @@ public class DrugEntity {
      * Gets the prescription status.
      * @return The prescription status.
      */
-    public String getPrescriptionStatus() {
+    public PrescriptionStatus getPrescriptionStatus() {
         return prescriptionStatus;
     }
 
@@ -321,7 +318,7 @@ public class DrugEntity {
      * Sets the prescription status.
      * @param prescriptionStatus The prescription status to set.
      */
-    public void setPrescriptionStatus(String prescriptionStatus) {
+    public void setPrescriptionStatus(PrescriptionStatus prescriptionStatus) {
         this.prescriptionStatus = prescriptionStatus;
     }
 
@@ -329,7 +326,7 @@ public class DrugEntity {
      * Gets the controlled substance status.
      * @return The controlled substance status.
      */
-    public String getControlledSubstanceStatus() {
+    public ControlledSubstanceStatus getControlledSubstanceStatus() {
         return controlledSubstanceStatus;
     }
 
@@ -337,58 +334,10 @@ public class DrugEntity {
      * Sets the controlled substance status.
      * @param controlledSubstanceStatus The controlled substance status to set.
      */
-    public void setControlledSubstanceStatus(String controlledSubstanceStatus) {
+    public void setControlledSubstanceStatus(ControlledSubstanceStatus controlledSubstanceStatus) {
         this.controlledSubstanceStatus = controlledSubstanceStatus;
     }
 
-    /**
-     * Gets the contraindications.
-     * @return The contraindications.
-     */
-    public String getContraindications() {
-        return contraindications;
-    }
-
-    /**
-     * Sets the contraindications.
-     * @param contraindications The contraindications to set.
-     */
-    public void setContraindications(String contraindications) {
-        this.contraindications = contraindications;
-    }
-
-    /**
-     * Gets the side effects.
-     * @return The side effects.
-     */
-    public String getSideEffects() {
-        return sideEffects;
-    }
-
-    /**
-     * Sets the side effects.
-     * @param sideEffects The side effects to set.
-     */
-    public void setSideEffects(String sideEffects) {
-        this.sideEffects = sideEffects;
-    }
-
-    /**
-     * Gets the dosage information.
-     * @return The dosage.
-     */
-    public String getDosage() {
-        return dosage;
-    }
-
-    /**
-     * Sets the dosage information.
-     * @param dosage The dosage to set.
-     */
-    public void setDosage(String dosage) {
-        this.dosage = dosage;
-    }
-
     /**
      * Gets the batch number.
      * @return The batch number.
@@ -409,7 +358,7 @@ public class DrugEntity {
      * Gets the expiration date.
      * @return The expiration date.
      */
-    public String getExpirationDate() {
+    public LocalDate getExpirationDate() {
         return expirationDate;
     }
 
@@ -417,26 +366,10 @@ public class DrugEntity {
      * Sets the expiration date.
      * @param expirationDate The expiration date to set.
      */
-    public void setExpirationDate(String expirationDate) {
+    public void setExpirationDate(LocalDate expirationDate) {
         this.expirationDate = expirationDate;
     }
 
-    /**
-     * Gets the storage conditions.
-     * @return The storage conditions.
-     */
-    public String getStorageConditions() {
-        return storageConditions;
-    }
-
-    /**
-     * Sets the storage conditions.
-     * @param storageConditions The storage conditions to set.
-     */
-    public void setStorageConditions(String storageConditions) {
-        this.storageConditions = storageConditions;
-    }
-
     /**
      * Gets the number of available copies.
      * @return The available copies.
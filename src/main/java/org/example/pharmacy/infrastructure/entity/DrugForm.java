@@ -0,0 +1,66 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Converter;
+
+/**
+ * The pharmaceutical form of a drug.
+ */
+public enum DrugForm implements CodedEnum {
+    TABLET(1, "tablet"),
+    CAPSULE(2, "capsule"),
+    SYRUP(3, "syrup"),
+    SUSPENSION(4, "suspension"),
+    SOLUTION(5, "solution"),
+    INJECTION(6, "injection"),
+    CREAM(7, "cream"),
+    OINTMENT(8, "ointment"),
+    GEL(9, "gel"),
+    PATCH(10, "patch"),
+    INHALER(11, "inhaler"),
+    DROPS(12, "drops"),
+    SPRAY(13, "spray"),
+    SUPPOSITORY(14, "suppository"),
+    POWDER(15, "powder"),
+    LOZENGE(16, "lozenge"),
+    OTHER(127, "other");
+
+    private final byte code;
+    private final String label;
+
+    DrugForm(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    /**
+     * Gets the code stored in the database.
+     * @return The code.
+     */
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the human-readable label used by the API.
+     * @return The label.
+     */
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores DrugForm values as TINYINT codes.
+     */
+    @Converter
+    public static class ColumnConverter extends CodedEnum.ColumnConverter<DrugForm> {
+
+        /**
+         * Constructs the converter.
+         */
+        public ColumnConverter() {
+            super(DrugForm.class);
+        }
+    }
+}
\ No newline at end of file
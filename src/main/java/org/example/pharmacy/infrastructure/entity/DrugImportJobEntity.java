@@ -0,0 +1,313 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Represents a bulk catalog import job and its progress.
+ * The counters are updated in the same transaction as each imported chunk, so after a crash
+ * the job can continue from the first row that was not committed.
+ */
+@Entity
+@Table(name = "drug_import_jobs", schema = "pharmacy")
+public class DrugImportJobEntity {
+    /**
+     * Unique identifier for the job.
+     */
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    /**
+     * Current status of the job: QUEUED, RUNNING, COMPLETED or FAILED.
+     */
+    @Basic
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    /**
+     * Format of the uploaded file: csv or ndjson.
+     */
+    @Basic
+    @Column(name = "format", nullable = false)
+    private String format;
+
+    /**
+     * Path of the stored upload.
+     */
+    @Basic
+    @Column(name = "filePath", nullable = false, length = 1000)
+    private String filePath;
+
+    /**
+     * Number of rows read and committed, including rejected rows.
+     */
+    @Basic
+    @Column(name = "committedRows")
+    private long committedRows;
+
+    /**
+     * Number of drugs inserted.
+     */
+    @Basic
+    @Column(name = "insertedRows")
+    private long insertedRows;
+
+    /**
+     * Number of existing drugs updated.
+     */
+    @Basic
+    @Column(name = "updatedRows")
+    private long updatedRows;
+
+    /**
+     * Number of rows rejected by validation.
+     */
+    @Basic
+    @Column(name = "rejectedRows")
+    private long rejectedRows;
+
+    /**
+     * Value of committedRows when the current run started.
+     */
+    @Basic
+    @Column(name = "runStartRow")
+    private long runStartRow;
+
+    /**
+     * Time the job was created.
+     */
+    @Basic
+    @Column(name = "createdAt")
+    private Instant createdAt;
+
+    /**
+     * Time the current run started.
+     */
+    @Basic
+    @Column(name = "startedAt")
+    private Instant startedAt;
+
+    /**
+     * Time the job finished, or null while it is not finished.
+     */
+    @Basic
+    @Column(name = "finishedAt")
+    private Instant finishedAt;
+
+    /**
+     * Reason the job failed, or null.
+     */
+    @Basic
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    /**
+     * Gets the unique identifier of the job.
+     * @return The job ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the job.
+     * @param id The job ID to set.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the status of the job.
+     * @return The status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status of the job.
+     * @param status The status to set.
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the format of the uploaded file.
+     * @return The format.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Sets the format of the uploaded file.
+     * @param format The format to set.
+     */
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    /**
+     * Gets the path of the stored upload.
+     * @return The file path.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Sets the path of the stored upload.
+     * @param filePath The file path to set.
+     */
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Gets the number of rows read and committed.
+     * @return The committed row count.
+     */
+    public long getCommittedRows() {
+        return committedRows;
+    }
+
+    /**
+     * Sets the number of rows read and committed.
+     * @param committedRows The committed row count to set.
+     */
+    public void setCommittedRows(long committedRows) {
+        this.committedRows = committedRows;
+    }
+
+    /**
+     * Gets the number of drugs inserted.
+     * @return The inserted row count.
+     */
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    /**
+     * Sets the number of drugs inserted.
+     * @param insertedRows The inserted row count to set.
+     */
+    public void setInsertedRows(long insertedRows) {
+        this.insertedRows = insertedRows;
+    }
+
+    /**
+     * Gets the number of existing drugs updated.
+     * @return The updated row count.
+     */
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    /**
+     * Sets the number of existing drugs updated.
+     * @param updatedRows The updated row count to set.
+     */
+    public void setUpdatedRows(long updatedRows) {
+        this.updatedRows = updatedRows;
+    }
+
+    /**
+     * Gets the number of rows rejected by validation.
+     * @return The rejected row count.
+     */
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    /**
+     * Sets the number of rows rejected by validation.
+     * @param rejectedRows The rejected row count to set.
+     */
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    /**
+     * Gets the value of committedRows when the current run started.
+     * @return The row the current run started from.
+     */
+    public long getRunStartRow() {
+        return runStartRow;
+    }
+
+    /**
+     * Sets the value of committedRows when the current run started.
+     * @param runStartRow The row the current run started from.
+     */
+    public void setRunStartRow(long runStartRow) {
+        this.runStartRow = runStartRow;
+    }
+
+    /**
+     * Gets the time the job was created.
+     * @return The creation time.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the job was created.
+     * @param createdAt The creation time to set.
+     */
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the time the current run started.
+     * @return The start time.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the time the current run started.
+     * @param startedAt The start time to set.
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the time the job finished.
+     * @return The finish time, or null.
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Sets the time the job finished.
+     * @param finishedAt The finish time to set.
+     */
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Gets the reason the job failed.
+     * @return The error, or null.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the reason the job failed.
+     * @param error The error to set.
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Represents a row of an import job that was rejected.
+ */
+@Entity
+@Table(name = "drug_import_rejections", schema = "pharmacy", indexes = {
+        @Index(name = "idx_drug_import_rejections_job_row", columnList = "jobId, sourceRow")
+})
+public class DrugImportRejectionEntity {
+    /**
+     * Unique identifier for the rejection.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Identifier of the import job the row belongs to.
+     */
+    @Basic
+    @Column(name = "jobId", nullable = false, length = 36)
+    private String jobId;
+
+    /**
+     * One-based number of the rejected row within the upload, not counting a CSV header.
+     */
+    @Basic
+    @Column(name = "sourceRow")
+    private long rowNumber;
+
+    /**
+     * Why the row was rejected.
+     */
+    @Basic
+    @Column(name = "errors", length = 2000)
+    private String errors;
+
+    /**
+     * Default constructor.
+     */
+    public DrugImportRejectionEntity() {
+    }
+
+    /**
+     * Constructs a rejection for the given row.
+     * @param jobId The ID of the import job.
+     * @param rowNumber The number of the rejected row.
+     * @param errors Why the row was rejected.
+     */
+    public DrugImportRejectionEntity(String jobId, long rowNumber, String errors) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.errors = errors;
+    }
+
+    /**
+     * Gets the unique identifier of the rejection.
+     * @return The rejection ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the rejection.
+     * @param id The rejection ID to set.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the import job.
+     * @return The job ID.
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * Sets the ID of the import job.
+     * @param jobId The job ID to set.
+     */
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * Gets the number of the rejected row.
+     * @return The row number.
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * Sets the number of the rejected row.
+     * @param rowNumber The row number to set.
+     */
+    public void setRowNumber(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    /**
+     * Gets why the row was rejected.
+     * @return The errors.
+     */
+    public String getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets why the row was rejected.
+     * @param errors The errors to set.
+     */
+    public void setErrors(String errors) {
+        this.errors = errors;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * The long descriptive texts of a drug, kept apart from the drug row.
+ * Catalog listings, lookups and stock changes only read the drugs table; the monograph is read
+ * together with its drug when the full detail of a drug is requested. It shares the drug's ID and
+ * is deleted with it by the database.
+ */
+@Entity
+@Table(name = "drug_monographs", schema = "pharmacy")
+public class DrugMonographEntity {
+    /**
+     * Identifier of the drug the monograph belongs to.
+     */
+    @Id
+    @Column(name = "drugId")
+    private Long drugId;
+
+    /**
+     * The drug the monograph belongs to.
+     */
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "drugId")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private DrugEntity drug;
+
+    /**
+     * Contraindications for the drug.
+     */
+    @Basic
+    @Column(name = "contraindications")
+    private String contraindications;
+
+    /**
+     * Side effects of the drug.
+     */
+    @Basic
+    @Column(name = "sideEffects")
+    private String sideEffects;
+
+    /**
+     * Dosage information for the drug.
+     */
+    @Basic
+    @Column(name = "dosage")
+    private String dosage;
+
+    /**
+     * Storage conditions for the drug.
+     */
+    @Basic
+    @Column(name = "storageConditions")
+    private String storageConditions;
+
+    /**
+     * Default constructor.
+     */
+    public DrugMonographEntity() {
+    }
+
+    /**
+     * Constructs an empty monograph for a drug.
+     * @param drug The drug the monograph belongs to.
+     */
+    public DrugMonographEntity(DrugEntity drug) {
+        this.drug = drug;
+    }
+
+    /**
+     * Gets the ID of the drug.
+     * @return The drug ID.
+     */
+    public Long getDrugId() {
+        return drugId;
+    }
+
+    /**
+     * Gets the drug the monograph belongs to.
+     * @return The drug.
+     */
+    public DrugEntity getDrug() {
+        return drug;
+    }
+
+    /**
+     * Gets the contraindications.
+     * @return The contraindications.
+     */
+    public String getContraindications() {
+        return contraindications;
+    }
+
+    /**
+     * Sets the contraindications.
+     * @param contraindications The contraindications to set.
+     */
+    public void setContraindications(String contraindications) {
+        this.contraindications = contraindications;
+    }
+
+    /**
+     * Gets the side effects.
+     * @return The side effects.
+     */
+    public String getSideEffects() {
+        return sideEffects;
+    }
+
+    /**
+     * Sets the side effects.
+     * @param sideEffects The side effects to set.
+     */
+    public void setSideEffects(String sideEffects) {
+        this.sideEffects = sideEffects;
+    }
+
+    /**
+     * Gets the dosage.
+     * @return The dosage.
+     */
+    public String getDosage() {
+        return dosage;
+    }
+
+    /**
+     * Sets the dosage.
+     * @param dosage The dosage to set.
+     */
+    public void setDosage(String dosage) {
+        this.dosage = dosage;
+    }
+
+    /**
+     * Gets the storage conditions.
+     * @return The storage conditions.
+     */
+    public String getStorageConditions() {
+        return storageConditions;
+    }
+
+    /**
+     * Sets the storage conditions.
+     * @param storageConditions The storage conditions to set.
+     */
+    public void setStorageConditions(String storageConditions) {
+        this.storageConditions = storageConditions;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Converter;
+
+/**
+ * Whether a drug is sold over the counter or only on prescription.
+ */
+public enum PrescriptionStatus implements CodedEnum {
+    OTC(1, "OTC"),
+    RX_ONLY(2, "Rx-only");
+
+    private final byte code;
+    private final String label;
+
+    PrescriptionStatus(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    /**
+     * Gets the code stored in the database.
+     * @return The code.
+     */
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the human-readable label used by the API.
+     * @return The label.
+     */
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores PrescriptionStatus values as TINYINT codes.
+     */
+    @Converter
+    public static class ColumnConverter extends CodedEnum.ColumnConverter<PrescriptionStatus> {
+
+        /**
+         * Constructs the converter.
+         */
+        public ColumnConverter() {
+            super(PrescriptionStatus.class);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.Converter;
+
+/**
+ * The route by which a drug is administered.
+ */
+public enum RouteOfAdministration implements CodedEnum {
+    ORAL(1, "oral"),
+    SUBLINGUAL(2, "sublingual"),
+    BUCCAL(3, "buccal"),
+    TOPICAL(4, "topical"),
+    TRANSDERMAL(5, "transdermal"),
+    INTRAVENOUS(6, "intravenous"),
+    INTRAMUSCULAR(7, "intramuscular"),
+    SUBCUTANEOUS(8, "subcutaneous"),
+    INHALATION(9, "inhalation"),
+    NASAL(10, "nasal"),
+    OPHTHALMIC(11, "ophthalmic"),
+    OTIC(12, "otic"),
+    RECTAL(13, "rectal"),
+    VAGINAL(14, "vaginal"),
+    OTHER(127, "other");
+
+    private final byte code;
+    private final String label;
+
+    RouteOfAdministration(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    /**
+     * Gets the code stored in the database.
+     * @return The code.
+     */
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Gets the human-readable label used by the API.
+     * @return The label.
+     */
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Stores RouteOfAdministration values as TINYINT codes.
+     */
+    @Converter
+    public static class ColumnConverter extends CodedEnum.ColumnConverter<RouteOfAdministration> {
+
+        /**
+         * Constructs the converter.
+         */
+        public ColumnConverter() {
+            super(RouteOfAdministration.class);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package org.example.pharmacy.infrastructure.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Records the last stock journal segment whose deltas were written to the drugs table.
+ * The checkpoint is saved in the same transaction as the deltas, so replaying the journal after
+ * a crash never applies a segment twice.
+ */
+@Entity
+@Table(name = "stock_journal_checkpoints", schema = "pharmacy")
+public class StockJournalCheckpointEntity {
+    /**
+     * The journal directory the checkpoint belongs to.
+     */
+    @Id
+    @Column(name = "journal", length = 255)
+    private String journal;
+
+    /**
+     * The number of the last segment that was applied.
+     */
+    @Basic
+    @Column(name = "segment", nullable = false)
+    private long segment;
+
+    /**
+     * Gets the journal directory the checkpoint belongs to.
+     * @return The journal directory.
+     */
+    public String getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the journal directory the checkpoint belongs to.
+     * @param journal The journal directory to set.
+     */
+    public void setJournal(String journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the number of the last segment that was applied.
+     * @return The segment number.
+     */
+    public long getSegment() {
+        return segment;
+    }
+
+    /**
+     * Sets the number of the last segment that was applied.
+     * @param segment The segment number to set.
+     */
+    public void setSegment(long segment) {
+        this.segment = segment;
+    }
+}
\ No newline at end of file
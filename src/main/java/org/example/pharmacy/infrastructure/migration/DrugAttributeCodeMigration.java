@@ -0,0 +1,93 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Converts the drug form, route of administration, prescription status and controlled substance
+ * status columns from free text to TINYINT codes at startup.
+ * Each text column is rewritten with a CASE that maps every label (ignoring case and surrounding
+ * whitespace) to its code and is then altered to TINYINT. Values that match no label are logged
+ * and become the enum's OTHER constant where it has one, or null otherwise. Rows that already hold
+ * a code are left alone, so an interrupted migration can be rerun; once a column is TINYINT it is
+ * skipped.
+ */
+@Component
+public class DrugAttributeCodeMigration {
+    private static final Logger log = LoggerFactory.getLogger(DrugAttributeCodeMigration.class);
+
+    private static final String NOT_A_CODE = " not regexp '^[0-9]+$'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a DrugAttributeCodeMigration.
+     * The entity manager factory is injected only so that Hibernate has created the drugs table
+     * before the migration runs.
+     * @param jdbcTemplate The JDBC template.
+     * @param entityManagerFactory The entity manager factory.
+     */
+    @Autowired
+    public DrugAttributeCodeMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Converts every coded column that still holds text.
+     */
+    @PostConstruct
+    public void migrate() {
+        migrate("drug_form", DrugForm.class, DrugForm.OTHER);
+        migrate("route_of_administration", RouteOfAdministration.class, RouteOfAdministration.OTHER);
+        migrate("prescription_status", PrescriptionStatus.class, null);
+        migrate("controlled_substance_status", ControlledSubstanceStatus.class, null);
+    }
+
+    /**
+     * Converts one column from labels to codes if it still holds text.
+     * @param column The physical column name.
+     * @param type The enum the column stores.
+     * @param fallback The constant for values that match no label, or null to clear them.
+     * @param <E> The enum type.
+     */
+    private <E extends Enum<E> & CodedEnum> void migrate(String column, Class<E> type, E fallback) {
+        if (!DrugColumns.isText(jdbcTemplate, column)) {
+            return;
+        }
+
+        var constants = type.getEnumConstants();
+        var labels = Arrays.stream(constants)
+                .map(constant -> "'" + constant.getLabel().toLowerCase(Locale.ROOT) + "'")
+                .collect(Collectors.joining(", "));
+        var normalized = "lower(trim(" + column + "))";
+
+        jdbcTemplate.query("select " + column + " as label, count(*) as drugs from pharmacy.drugs where " + column + NOT_A_CODE
+                + " and " + normalized + " not in (" + labels + ") group by " + column, row -> {
+            log.warn("Mapping unknown {} '{}' of {} drugs to {}", column, row.getString("label"), row.getLong("drugs"), fallback);
+        });
+
+        var cases = Arrays.stream(constants)
+                .map(constant -> "when '" + constant.getLabel().toLowerCase(Locale.ROOT) + "' then '" + constant.getCode() + "'")
+                .collect(Collectors.joining(" "));
+        var otherwise = fallback != null ? "'" + fallback.getCode() + "'" : "null";
+        var converted = jdbcTemplate.update("update pharmacy.drugs set " + column + " = case " + normalized + " " + cases
+                + " else " + otherwise + " end where " + column + NOT_A_CODE);
+        jdbcTemplate.execute("alter table pharmacy.drugs modify " + column + " tinyint null");
+
+        log.info("Converted {} of {} drugs to {} codes", column, converted, type.getSimpleName());
+    }
+}
\ No newline at end of file
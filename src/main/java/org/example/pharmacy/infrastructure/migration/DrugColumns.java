@@ -0,0 +1,44 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+
+/**
+ * Inspects the columns of the drugs table for the startup migrations.
+ */
+final class DrugColumns {
+
+    private DrugColumns() {
+    }
+
+    /**
+     * Checks whether a column of the drugs table is a text column.
+     * @param jdbcTemplate The JDBC template.
+     * @param column The physical column name.
+     * @return True if the column exists and has a character type, false otherwise.
+     */
+    static boolean isText(JdbcTemplate jdbcTemplate, String column) {
+        var types = jdbcTemplate.queryForList(
+                "select data_type from information_schema.columns where table_schema = 'pharmacy' and table_name = 'drugs' and column_name = ?",
+                String.class, column);
+        if (types.isEmpty()) {
+            return false;
+        }
+        var type = types.get(0).toLowerCase(Locale.ROOT);
+        return type.contains("char") || type.contains("text");
+    }
+
+    /**
+     * Checks whether the drugs table has a column.
+     * @param jdbcTemplate The JDBC template.
+     * @param column The physical column name.
+     * @return True if the column exists, false otherwise.
+     */
+    static boolean exists(JdbcTemplate jdbcTemplate, String column) {
+        var count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where table_schema = 'pharmacy' and table_name = 'drugs' and column_name = ?",
+                Long.class, column);
+        return count != null && count > 0;
+    }
+}
\ No newline at end of file
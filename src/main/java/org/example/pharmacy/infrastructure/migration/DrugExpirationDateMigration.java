@@ -0,0 +1,55 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts the drug expiration date column from text to DATE at startup.
+ * Expiration dates used to be stored as YYYY-MM-DD strings, which Hibernate's schema update does
+ * not retype. Values that are not valid dates cannot be converted; they are logged and cleared
+ * before the column is altered. The index on (expiration_date, id) is kept by the ALTER. Once the
+ * column is a DATE the migration does nothing, so it is safe to run on every start.
+ */
+@Component
+public class DrugExpirationDateMigration {
+    private static final Logger log = LoggerFactory.getLogger(DrugExpirationDateMigration.class);
+
+    private static final String INVALID_DATES = "expiration_date is not null and (expiration_date not regexp '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' or str_to_date(expiration_date, '%Y-%m-%d') is null)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a DrugExpirationDateMigration.
+     * The entity manager factory is injected only so that Hibernate has created the drugs table
+     * before the migration runs.
+     * @param jdbcTemplate The JDBC template.
+     * @param entityManagerFactory The entity manager factory.
+     */
+    @Autowired
+    public DrugExpirationDateMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retypes the expiration date column if it still holds text.
+     */
+    @PostConstruct
+    public void migrate() {
+        if (!DrugColumns.isText(jdbcTemplate, "expiration_date")) {
+            return;
+        }
+
+        jdbcTemplate.query("select id, expiration_date from pharmacy.drugs where " + INVALID_DATES, row -> {
+            log.warn("Clearing invalid expiration date '{}' of drug {}", row.getString("expiration_date"), row.getLong("id"));
+        });
+        var cleared = jdbcTemplate.update("update pharmacy.drugs set expiration_date = null where " + INVALID_DATES);
+        jdbcTemplate.execute("alter table pharmacy.drugs modify expiration_date date null");
+
+        log.info("Converted drug expiration dates to DATE; {} invalid values were cleared", cleared);
+    }
+}
\ No newline at end of file
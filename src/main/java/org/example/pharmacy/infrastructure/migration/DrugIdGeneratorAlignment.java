@@ -0,0 +1,69 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the drug ID generator past the highest existing drug ID at startup.
+ * Drug IDs used to come from an identity column; without this step the table generator would
+ * start from 1 and hand out IDs that already exist. The update only ever raises the generator,
+ * so it is safe to run on every start and from several nodes at once.
+ */
+@Component
+public class DrugIdGeneratorAlignment {
+    private static final Logger log = LoggerFactory.getLogger(DrugIdGeneratorAlignment.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a DrugIdGeneratorAlignment.
+     * The entity manager factory is injected only so that Hibernate has created the generator
+     * table before the alignment runs.
+     * @param jdbcTemplate The JDBC template.
+     * @param entityManagerFactory The entity manager factory.
+     */
+    @Autowired
+    public DrugIdGeneratorAlignment(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Raises the generator so that its next block starts above the highest drug ID.
+     */
+    @PostConstruct
+    public void align() {
+        var maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from pharmacy.drugs", Long.class);
+        var floor = maxId + DrugEntity.ID_ALLOCATION_SIZE + 1;
+
+        var updated = jdbcTemplate.update("update pharmacy.id_generators set next_val = ? where sequence_name = 'drugs' and next_val < ?", floor, floor);
+        if (updated == 0 && !generatorExists()) {
+            try {
+                jdbcTemplate.update("insert into pharmacy.id_generators (sequence_name, next_val) values ('drugs', ?)", floor);
+                updated = 1;
+            }
+            catch (DuplicateKeyException e) {
+                jdbcTemplate.update("update pharmacy.id_generators set next_val = ? where sequence_name = 'drugs' and next_val < ?", floor, floor);
+            }
+        }
+
+        if (updated > 0) {
+            log.info("Aligned drug ID generator to {}", floor);
+        }
+    }
+
+    /**
+     * Checks whether the generator row for drugs exists.
+     * @return True if the row exists, false otherwise.
+     */
+    private boolean generatorExists() {
+        var count = jdbcTemplate.queryForObject("select count(*) from pharmacy.id_generators where sequence_name = 'drugs'", Long.class);
+        return count != null && count > 0;
+    }
+}
\ No newline at end of file
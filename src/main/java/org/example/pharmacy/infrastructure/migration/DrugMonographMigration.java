@@ -0,0 +1,63 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the monograph texts of existing drugs out of the drugs table at startup.
+ * Contraindications, side effects, dosage and storage conditions used to be columns of the drug
+ * row. They are copied into drug_monographs for every drug that has no monograph yet, and the
+ * columns are then dropped from drugs one by one. A rerun after an interruption copies only what is
+ * missing, or, if the columns were already being dropped, drops the ones that are left; once the
+ * columns are gone the migration does nothing.
+ */
+@Component
+public class DrugMonographMigration {
+    private static final Logger log = LoggerFactory.getLogger(DrugMonographMigration.class);
+
+    private static final List<String> COLUMNS = List.of("contraindications", "side_effects", "dosage", "storage_conditions");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructs a DrugMonographMigration.
+     * The entity manager factory is injected only so that Hibernate has created the monograph
+     * table before the migration runs.
+     * @param jdbcTemplate The JDBC template.
+     * @param entityManagerFactory The entity manager factory.
+     */
+    @Autowired
+    public DrugMonographMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Copies the monograph columns into drug_monographs and drops them from drugs.
+     */
+    @PostConstruct
+    public void migrate() {
+        var remaining = COLUMNS.stream().filter(column -> DrugColumns.exists(jdbcTemplate, column)).toList();
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        if (remaining.size() == COLUMNS.size()) {
+            var copied = jdbcTemplate.update("""
+                    insert into pharmacy.drug_monographs (drug_id, contraindications, side_effects, dosage, storage_conditions)
+                    select d.id, d.contraindications, d.side_effects, d.dosage, d.storage_conditions
+                    from pharmacy.drugs d
+                    where not exists (select 1 from pharmacy.drug_monographs m where m.drug_id = d.id)""");
+            log.info("Moved the monographs of {} drugs to drug_monographs", copied);
+        }
+        for (var column : remaining) {
+            jdbcTemplate.execute("alter table pharmacy.drugs drop column " + column);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+
+/**
+ * A drug together with its monograph, read in a single query for the full drug detail.
+ */
+public interface DrugDetailView {
+    /**
+     * Gets the drug.
+     * @return The drug.
+     */
+    DrugEntity getDrug();
+
+    /**
+     * Gets the monograph of the drug.
+     * @return The monograph, or null if the drug has none.
+     */
+    DrugMonographEntity getMonograph();
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import org.example.pharmacy.infrastructure.entity.DrugImportJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for DrugImportJob entities.
+ */
+public interface DrugImportJobRepository extends JpaRepository<DrugImportJobEntity, String> {
+
+    /**
+     * Finds the import jobs in any of the given statuses.
+     * @param statuses The statuses to match.
+     * @return The matching jobs.
+     */
+    List<DrugImportJobEntity> findByStatusIn(Collection<String> statuses);
+}
\ No newline at end of file
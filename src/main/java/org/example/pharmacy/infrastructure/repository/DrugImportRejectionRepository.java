@@ -0,0 +1,19 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import org.example.pharmacy.infrastructure.entity.DrugImportRejectionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Repository interface for DrugImportRejection entities.
+ */
+public interface DrugImportRejectionRepository extends JpaRepository<DrugImportRejectionEntity, Long> {
+
+    /**
+     * Finds the first rejected rows of an import job.
+     * @param jobId The ID of the import job.
+     * @return Up to 100 rejections, in row order.
+     */
+    List<DrugImportRejectionEntity> findTop100ByJobIdOrderByRowNumberAsc(String jobId);
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for drug monographs, keyed by drug ID.
+ */
+public interface DrugMonographRepository extends JpaRepository<DrugMonographEntity, Long> {
+}
\ No newline at end of file
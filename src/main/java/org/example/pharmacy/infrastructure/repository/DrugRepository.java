@@ -1,10 +1,241 @@
 package org.example.pharmacy.infrastructure.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for Drug entities.
  */
 public interface DrugRepository extends JpaRepository<DrugEntity, Long> {
+
+    /**
+     * Reads one page of drug summaries using keyset (seek) pagination.
+     * The position carries the sort values of the last drug already returned, so the query seeks
+     * past it through an index instead of skipping rows with an offset. Only the columns of
+     * DrugSummaryView are selected.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs that have an expiration date.
+     * Keyset pagination cannot seek past a null sort value, so pages sorted by expiration date
+     * read the drugs with a date and the drugs without one separately.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByExpirationDateNotNull(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs that have no expiration date.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByExpirationDateNull(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs whose ATC code starts with a prefix.
+     * Served by the (atcCode, id) index as a range scan.
+     * @param atcPrefix The ATC code or the leading levels of one.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByAtcCodeStartingWith(String atcPrefix, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs whose ATC code starts with a prefix and that have
+     * an expiration date.
+     * @param atcPrefix The ATC code or the leading levels of one.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByAtcCodeStartingWithAndExpirationDateNotNull(String atcPrefix, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs whose ATC code starts with a prefix and that have
+     * no expiration date.
+     * @param atcPrefix The ATC code or the leading levels of one.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByAtcCodeStartingWithAndExpirationDateNull(String atcPrefix, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs with an active ingredient.
+     * Served by the (activeIngredient, id) index.
+     * @param activeIngredient The active ingredient.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByActiveIngredient(String activeIngredient, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs with an active ingredient that have an expiration date.
+     * @param activeIngredient The active ingredient.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByActiveIngredientAndExpirationDateNotNull(String activeIngredient, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs with an active ingredient that have no expiration date.
+     * @param activeIngredient The active ingredient.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByActiveIngredientAndExpirationDateNull(String activeIngredient, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Reads one page of summaries of the drugs expiring within a date range, inclusive.
+     * Served by the (expirationDate, id) index as a range scan.
+     * @param from The first expiration date to include.
+     * @param to The last expiration date to include.
+     * @param position The keyset position to continue from.
+     * @param sort The sort order; must end with the drug ID to be total.
+     * @param limit The maximum number of drugs to return.
+     * @return A window with the drug summaries and whether more follow.
+     */
+    Window<DrugSummaryView> findByExpirationDateBetween(LocalDate from, LocalDate to, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Finds the drugs expiring within a date range, inclusive, through the (expirationDate, id) index.
+     * @param from The first expiration date to include.
+     * @param to The last expiration date to include.
+     * @return The matching drugs.
+     */
+    List<DrugEntity> findAllByExpirationDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Reads a drug with its monograph in one query.
+     * @param id The ID of the drug.
+     * @return The drug and its monograph, if the drug exists.
+     */
+    @Query("select d as drug, m as monograph from DrugEntity d left join DrugMonographEntity m on m.drugId = d.id where d.id = :id")
+    Optional<DrugDetailView> findDetailById(@Param("id") long id);
+
+    /**
+     * Reads a drug by its MA number with its monograph in one query, through the unique index on ma.
+     * @param ma The MA number.
+     * @return The drug and its monograph, if there is one.
+     */
+    @Query("select d as drug, m as monograph from DrugEntity d left join DrugMonographEntity m on m.drugId = d.id where d.ma = :ma")
+    Optional<DrugDetailView> findDetailByMa(@Param("ma") String ma);
+
+    /**
+     * Reads the drugs carrying any of the given NDCs with their monographs in one query,
+     * through the index on ndc.
+     * @param ndcs The National Drug Codes.
+     * @return The matching drugs and their monographs in drug ID order.
+     */
+    @Query("select d as drug, m as monograph from DrugEntity d left join DrugMonographEntity m on m.drugId = d.id where d.ndc in :ndcs order by d.id")
+    List<DrugDetailView> findDetailsByNdcIn(@Param("ndcs") Collection<String> ndcs);
+
+    /**
+     * Streams every drug in ID order through a forward-only cursor.
+     * Rows are fetched from the database in blocks of the fetch size instead of being materialised
+     * up front; the stream must be consumed and closed inside a transaction.
+     * @return A stream over all drugs.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from DrugEntity d order by d.id")
+    Stream<DrugEntity> streamAllBy();
+
+    /**
+     * Streams every drug with its monograph in ID order through a forward-only cursor.
+     * Like {@link #streamAllBy()}, but for consumers that need the full drug detail.
+     * @return A stream over all drugs and their monographs.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d as drug, m as monograph from DrugEntity d left join DrugMonographEntity m on m.drugId = d.id order by d.id")
+    Stream<DrugDetailView> streamAllDetails();
+
+    /**
+     * Adds to the stock of a drug in one conditional UPDATE, unless that would take it below zero.
+     * The row lock taken by the update serialises concurrent adjustments of the same drug, and the
+     * condition is checked against the locked row, so two removals can never oversell.
+     * @param id The ID of the drug.
+     * @param delta The number of copies to add; negative to remove copies.
+     * @return 1 if the stock was adjusted, 0 if the drug does not exist or has too few copies.
+     */
+    @Modifying
+    @Query("update DrugEntity d set d.availableCopies = d.availableCopies + :delta where d.id = :id and d.availableCopies + :delta >= 0")
+    int adjustAvailableCopies(@Param("id") long id, @Param("delta") int delta);
+
+    /**
+     * Deletes a drug in one DELETE statement, without loading it first.
+     * The database removes its monograph through the cascading foreign key.
+     * @param id The ID of the drug.
+     * @return 1 if the drug was deleted, 0 if it does not exist.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from DrugEntity d where d.id = :id")
+    int deleteDrugById(@Param("id") long id);
+
+    /**
+     * Reads the stock of a drug and what its availability depends on.
+     * @param id The ID of the drug.
+     * @return The stock of the drug, if it exists.
+     */
+    @Query("select d.availableCopies as availableCopies, d.expirationDate as expirationDate from DrugEntity d where d.id = :id")
+    Optional<DrugStockView> findStockById(@Param("id") long id);
+
+    /**
+     * Finds which of the given MA numbers are already taken.
+     * @param mas The MA numbers to check.
+     * @return The MA numbers that exist in the catalog.
+     */
+    @Query("select d.ma from DrugEntity d where d.ma in :mas")
+    List<String> findExistingMas(@Param("mas") Collection<String> mas);
+
+    /**
+     * Finds the drugs with any of the given MA numbers.
+     * @param mas The MA numbers to look up.
+     * @return The matching drugs.
+     */
+    List<DrugEntity> findByMaIn(Collection<String> mas);
 }
\ No newline at end of file
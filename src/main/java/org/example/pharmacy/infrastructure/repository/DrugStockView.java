@@ -0,0 +1,20 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Closed projection of the stock of a drug and the expiration date its availability depends on.
+ */
+public interface DrugStockView {
+    /**
+     * Gets the number of available copies of the drug.
+     * @return The number of available copies.
+     */
+    int getAvailableCopies();
+
+    /**
+     * Gets the expiration date of the drug.
+     * @return The expiration date.
+     */
+    LocalDate getExpirationDate();
+}
\ No newline at end of file
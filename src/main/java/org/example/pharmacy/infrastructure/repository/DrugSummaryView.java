@@ -0,0 +1,57 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Closed projection of a drug with the columns needed by catalog listings.
+ * Queries returning this view select only these columns instead of the whole row.
+ */
+public interface DrugSummaryView {
+    /**
+     * Gets the unique identifier of the drug.
+     * @return The drug ID.
+     */
+    long getId();
+
+    /**
+     * Gets the brand name of the drug.
+     * @return The brand name.
+     */
+    String getBrandName();
+
+    /**
+     * Gets the manufacturer of the drug.
+     * @return The manufacturer.
+     */
+    String getManufacturer();
+
+    /**
+     * Gets the active ingredient of the drug.
+     * @return The active ingredient.
+     */
+    String getActiveIngredient();
+
+    /**
+     * Gets the price of the drug.
+     * @return The price.
+     */
+    double getPrice();
+
+    /**
+     * Gets the expiration date of the drug.
+     * @return The expiration date.
+     */
+    LocalDate getExpirationDate();
+
+    /**
+     * Gets the number of available copies of the drug.
+     * @return The number of available copies.
+     */
+    int getAvailableCopies();
+
+    /**
+     * Gets the link to a graphic representation of the drug.
+     * @return The graphic link.
+     */
+    String getGraphicLink();
+}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package org.example.pharmacy.infrastructure.repository;
+
+import org.example.pharmacy.infrastructure.entity.StockJournalCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for StockJournalCheckpoint entities.
+ */
+public interface StockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpointEntity, String> {
+}
\ No newline at end of file
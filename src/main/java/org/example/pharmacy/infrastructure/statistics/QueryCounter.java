@@ -0,0 +1,101 @@
+package org.example.pharmacy.infrastructure.statistics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Counting happens only inside a {@link Scope}; outside one, a statement costs a thread-local read.
+ * Statements that bypass Hibernate, such as those sent through JdbcTemplate, and statements
+ * issued on other threads are not counted.
+ */
+@Component
+public class QueryCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    /**
+     * Registers this counter as Hibernate's statement inspector.
+     * @param hibernateProperties The properties the entity manager factory is built with.
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Counts a statement in every scope open on the current thread.
+     * @param sql The SQL of the statement, with placeholders for its parameters.
+     * @return The SQL, unchanged.
+     */
+    @Override
+    public String inspect(String sql) {
+        for (var scope = current.get(); scope != null; scope = scope.outer) {
+            scope.statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements of the current thread until the returned scope is closed.
+     * Scopes may be nested; a statement counts in every scope open around it.
+     * @return The scope.
+     */
+    public Scope open() {
+        var scope = new Scope(current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    /**
+     * The statements counted between opening and closing a scope.
+     */
+    public final class Scope implements AutoCloseable {
+        private final Scope outer;
+        private final List<String> statements = new ArrayList<>();
+
+        /**
+         * Creates a scope.
+         * @param outer The scope open around this one, or null.
+         */
+        private Scope(Scope outer) {
+            this.outer = outer;
+        }
+
+        /**
+         * Returns the number of statements counted so far.
+         * @return The number of statements.
+         */
+        public int count() {
+            return statements.size();
+        }
+
+        /**
+         * Returns the SQL of the statements counted so far, in order.
+         * @return The statements, with placeholders for their parameters.
+         */
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        /**
+         * Stops counting in this scope and restores the scope open around it.
+         */
+        @Override
+        public void close() {
+            if (outer != null) {
+                current.set(outer);
+            }
+            else {
+                current.remove();
+            }
+        }
+    }
+}
\ No newline at end of file
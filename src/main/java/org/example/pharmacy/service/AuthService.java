@@ -3,7 +3,6 @@ package org.example.pharmacy.service;
 import org.example.pharmacy.controller.dto.LoginRequestDto;
 import org.example.pharmacy.controller.dto.LoginResponseDto;
 import org.example.pharmacy.infrastructure.repository.IUserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 /**
@@ -13,18 +12,18 @@ import org.springframework.stereotype.Service;
 public class AuthService {
     private final IUserRepository userRepository;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
 
     /**
      * Constructs an AuthService with necessary dependencies.
      * @param userRepository The user repository.
      * @param jwtService The JWT service.
-     * @param passwordEncoder The password encoder.
+     * @param passwordVerifier The verifier that checks passwords on a dedicated executor.
      */
-    public AuthService(IUserRepository userRepository, JwtService jwtService, PasswordEncoder passwordEncoder) {
+    public AuthService(IUserRepository userRepository, JwtService jwtService, PasswordVerifier passwordVerifier) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordVerifier = passwordVerifier;
     }
 
     /**
@@ -32,11 +31,12 @@ public class AuthService {
      * @param loginRequestDto The login request containing username and password.
      * @return A LoginResponseDto with the authentication token.
      * @throws RuntimeException if user is not found or password does not match.
+     * @throws org.example.pharmacy.service.errors.LoginOverloadedError if password verification is saturated.
      */
     public LoginResponseDto login(LoginRequestDto loginRequestDto) {
         var user = userRepository.findByUsername(loginRequestDto.getUsername()).orElseThrow(() -> new RuntimeException("User not found"));
 
-        var doPasswordMatch = passwordEncoder.matches(loginRequestDto.getPassword(), user.getPassword());
+        var doPasswordMatch = passwordVerifier.matches(loginRequestDto.getPassword(), user.getPassword());
 
         if(!doPasswordMatch) {
             throw new RuntimeException("Unauthorized");
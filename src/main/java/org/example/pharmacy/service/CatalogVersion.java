@@ -0,0 +1,54 @@
+package org.example.pharmacy.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the drug catalog, bumped on every change that can alter a catalog listing.
+ * The version is held per process and starts from the process start time, so a restart
+ * never reuses an ETag that was handed out before it. The ETag also carries the current date,
+ * because a drug stops being available once its expiration date has passed without any change
+ * to the catalog; a listing cached yesterday is never revalidated as current today.
+ */
+@Component
+public class CatalogVersion {
+    private final Clock clock;
+    private final long epoch;
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Constructs a CatalogVersion that reads the date from the system clock.
+     */
+    @Autowired
+    public CatalogVersion() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a CatalogVersion that reads the date from the given clock.
+     * @param clock The clock the process start time and the current date are read from.
+     */
+    CatalogVersion(Clock clock) {
+        this.clock = clock;
+        this.epoch = clock.millis();
+    }
+
+    /**
+     * Marks the catalog as changed.
+     */
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Gets the entity tag for the current catalog version on the current date.
+     * @return The quoted ETag value.
+     */
+    public String getETag() {
+        return "\"" + Long.toString(epoch, 36) + "-" + LocalDate.now(clock).toEpochDay() + "-" + version.get() + "\"";
+    }
+}
\ No newline at end of file
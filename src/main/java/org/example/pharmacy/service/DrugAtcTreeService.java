@@ -0,0 +1,240 @@
+package org.example.pharmacy.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.pharmacy.controller.dto.AtcTreeNodeDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.AtcCodeNotFoundError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * The ATC classification of the catalog as a tree with drug counts per node, kept in memory.
+ * The tree has the five ATC levels: anatomical main group (N), therapeutic subgroup (N02),
+ * pharmacological subgroup (N02B), chemical subgroup (N02BE) and chemical substance (N02BE01).
+ * Each drug counts towards every level of its code. Counts are adjusted as drugs change, so
+ * reading the tree never touches the database. Drugs that expire are republished by
+ * {@link DrugExpiryRollover} the day after their expiration date, which moves them out of the
+ * available counts.
+ */
+@Service
+public class DrugAtcTreeService {
+    private static final Logger log = LoggerFactory.getLogger(DrugAtcTreeService.class);
+
+    /**
+     * Length of an ATC code at each level of the hierarchy.
+     */
+    private static final int[] LEVEL_LENGTHS = {1, 3, 4, 5, 7};
+
+    private static final Pattern ATC_CODE = Pattern.compile("[A-Z]\\d{2}[A-Z]{2}\\d{2}");
+
+    /**
+     * A node of the tree. Counts are updated in place, so readers see them without locking.
+     */
+    private static final class Node {
+        private final String code;
+        private final int level;
+        private final AtomicInteger drugCount = new AtomicInteger();
+        private final AtomicInteger availableCount = new AtomicInteger();
+        private final ConcurrentSkipListSet<String> children = new ConcurrentSkipListSet<>();
+
+        /**
+         * Creates a node with no drugs.
+         * @param code The ATC code of the node.
+         * @param level The level of the node, from 1 to 5.
+         */
+        private Node(String code, int level) {
+            this.code = code;
+            this.level = level;
+        }
+    }
+
+    /**
+     * What one drug contributes to the tree.
+     * @param atcCode The normalized ATC code.
+     * @param available Whether the drug is available.
+     */
+    private record Contribution(String atcCode, boolean available) {
+    }
+
+    private final DrugRepository drugRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> mainGroups = new ConcurrentSkipListSet<>();
+
+    /**
+     * Constructs a DrugAtcTreeService with an empty tree.
+     * @param drugRepository The drug repository the tree is built from.
+     * @param entityManager The entity manager, used to detach streamed rows.
+     * @param transactionManager The transaction manager used to read the catalog at startup.
+     */
+    @Autowired
+    public DrugAtcTreeService(DrugRepository drugRepository, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.drugRepository = drugRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Builds the tree from the whole catalog once the application has started.
+     * The update lock is held for the whole build, so catalog changes committed meanwhile wait
+     * and are applied on top of the snapshot instead of being overwritten by older rows from it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildTree() {
+        var start = System.nanoTime();
+        updateLock.lock();
+        try {
+            var loaded = transactionTemplate.execute(status -> {
+                try (var drugs = drugRepository.streamAllBy()) {
+                    var count = 0;
+                    for (var iterator = drugs.iterator(); iterator.hasNext(); ) {
+                        var drug = iterator.next();
+                        apply(List.of(drug), List.of());
+                        entityManager.detach(drug);
+                        count++;
+                    }
+                    return count;
+                }
+            });
+            log.info("Built ATC tree with {} nodes from {} drugs in {} ms", nodes.size(), loaded, (System.nanoTime() - start) / 1_000_000);
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a catalog change to the tree after the change has committed.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(DrugCatalogChangedEvent event) {
+        apply(event.saved(), event.deletedIds());
+    }
+
+    /**
+     * Gets the anatomical main groups of the catalog.
+     * @return The level 1 nodes with their counts, in code order.
+     */
+    public List<AtcTreeNodeDto> getMainGroups() {
+        return mainGroups.stream()
+                .map(nodes::get)
+                .filter(Objects::nonNull)
+                .map(node -> toDto(node, false))
+                .toList();
+    }
+
+    /**
+     * Gets a node of the tree with its children.
+     * @param code The ATC code of the node, at any level.
+     * @return The node with its counts and its child nodes, in code order.
+     * @throws AtcCodeNotFoundError if no drug is classified under the code.
+     */
+    public AtcTreeNodeDto getNode(String code) {
+        var node = nodes.get(code.strip().toUpperCase(Locale.ROOT));
+        if (node == null) {
+            throw new AtcCodeNotFoundError(code);
+        }
+        return toDto(node, true);
+    }
+
+    /**
+     * Replaces the contributions of saved drugs and removes those of deleted drugs.
+     * @param saved The drugs that were created or updated.
+     * @param deletedIds The IDs of the drugs that were deleted.
+     */
+    private void apply(List<DrugEntity> saved, List<Long> deletedIds) {
+        updateLock.lock();
+        try {
+            for (var drug : saved) {
+                var atcCode = drug.getAtcCode() != null ? drug.getAtcCode().strip().toUpperCase(Locale.ROOT) : "";
+                var contribution = ATC_CODE.matcher(atcCode).matches()
+                        ? new Contribution(atcCode, DrugMapper.isAvailable(drug.getAvailableCopies(), drug.getExpirationDate()))
+                        : null;
+                var previous = contribution != null
+                        ? contributions.put(drug.getId(), contribution)
+                        : contributions.remove(drug.getId());
+                if (previous != null) {
+                    count(previous, -1);
+                }
+                if (contribution != null) {
+                    count(contribution, 1);
+                }
+            }
+            for (var id : deletedIds) {
+                var previous = contributions.remove(id);
+                if (previous != null) {
+                    count(previous, -1);
+                }
+            }
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Adds or subtracts one drug at every level of its ATC code, creating and removing nodes as
+     * they gain their first or lose their last drug.
+     * @param contribution The drug's contribution.
+     * @param sign 1 to add the drug, -1 to subtract it.
+     */
+    private void count(Contribution contribution, int sign) {
+        var siblings = mainGroups;
+        for (var level = 0; level < LEVEL_LENGTHS.length; level++) {
+            var code = contribution.atcCode().substring(0, LEVEL_LENGTHS[level]);
+            var node = nodes.get(code);
+            if (node == null) {
+                node = new Node(code, level + 1);
+                nodes.put(code, node);
+                siblings.add(code);
+            }
+
+            if (contribution.available()) {
+                node.availableCount.addAndGet(sign);
+            }
+            if (node.drugCount.addAndGet(sign) == 0) {
+                siblings.remove(code);
+                nodes.remove(code);
+            }
+            siblings = node.children;
+        }
+    }
+
+    /**
+     * Converts a node to its DTO.
+     * @param node The node.
+     * @param withChildren Whether to include the child nodes.
+     * @return The AtcTreeNodeDto.
+     */
+    private AtcTreeNodeDto toDto(Node node, boolean withChildren) {
+        var children = withChildren
+                ? node.children.stream().map(nodes::get).filter(Objects::nonNull).map(child -> toDto(child, false)).toList()
+                : null;
+        return new AtcTreeNodeDto(node.code, node.level, node.drugCount.get(), node.availableCount.get(), node.children.size(), children);
+    }
+}
\ No newline at end of file
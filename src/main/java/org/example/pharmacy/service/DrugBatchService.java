@@ -0,0 +1,183 @@
+package org.example.pharmacy.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.example.pharmacy.controller.dto.DrugBatchItemResultDto;
+import org.example.pharmacy.controller.dto.DrugBatchResponseDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.BatchTooLargeError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for creating many drugs in one request.
+ * Items are validated one by one and the valid ones are inserted in chunks, each chunk in its own
+ * transaction and sent to the database as JDBC batches.
+ */
+@Service
+public class DrugBatchService {
+    private final DrugRepository drugRepository;
+    private final CatalogVersion catalogVersion;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    /**
+     * Constructs a DrugBatchService with necessary dependencies.
+     * @param drugRepository The drug repository.
+     * @param catalogVersion The version of the catalog, bumped when drugs are created.
+     * @param entityManager The entity manager.
+     * @param transactionManager The transaction manager used for per-chunk transactions.
+     * @param validator The bean validator applied to each item.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param chunkSize The number of items inserted per transaction.
+     * @param maxItems The largest number of items a batch may hold.
+     */
+    @Autowired
+    public DrugBatchService(DrugRepository drugRepository, CatalogVersion catalogVersion, EntityManager entityManager,
+                            PlatformTransactionManager transactionManager, Validator validator,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${drugs.batch.chunk-size}") int chunkSize,
+                            @Value("${drugs.batch.max-items}") int maxItems) {
+        this.drugRepository = drugRepository;
+        this.catalogVersion = catalogVersion;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * Creates the given drugs, skipping the invalid ones.
+     * A chunk that fails to commit, for example because another request took one of its MA numbers
+     * in the meantime, is rolled back as a whole and its items are reported as FAILED.
+     * @param drugs The drugs to create.
+     * @return A DrugBatchResponseDto with the outcome of every item.
+     * @throws BatchTooLargeError if the batch is empty or holds more than the allowed number of items.
+     */
+    public DrugBatchResponseDto createAll(List<CreateDrugDto> drugs) {
+        if (drugs == null || drugs.isEmpty() || drugs.size() > maxItems) {
+            throw new BatchTooLargeError(maxItems);
+        }
+
+        var results = new DrugBatchItemResultDto[drugs.size()];
+        var seenMas = new HashSet<String>();
+        var created = 0;
+
+        for (var start = 0; start < drugs.size(); start += chunkSize) {
+            var end = Math.min(start + chunkSize, drugs.size());
+            var valid = new ArrayList<Integer>();
+
+            for (var i = start; i < end; i++) {
+                var errors = validate(drugs.get(i));
+                if (errors.isEmpty() && !seenMas.add(drugs.get(i).getMa())) {
+                    errors.put("ma", "MA number appears more than once in the batch");
+                }
+                if (errors.isEmpty()) {
+                    valid.add(i);
+                }
+                else {
+                    results[i] = new DrugBatchItemResultDto(i, DrugBatchItemResultDto.REJECTED, null, errors);
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                var existingMas = new HashSet<>(drugRepository.findExistingMas(valid.stream().map(i -> drugs.get(i).getMa()).toList()));
+                valid.removeIf(i -> {
+                    if (existingMas.contains(drugs.get(i).getMa())) {
+                        results[i] = new DrugBatchItemResultDto(i, DrugBatchItemResultDto.REJECTED, null, Map.of("ma", "MA number already exists"));
+                        return true;
+                    }
+                    return false;
+                });
+            }
+
+            if (!valid.isEmpty()) {
+                created += insertChunk(drugs, valid, results);
+            }
+        }
+
+        if (created > 0) {
+            catalogVersion.bump();
+        }
+
+        return new DrugBatchResponseDto(created, drugs.size() - created, Arrays.asList(results));
+    }
+
+    /**
+     * Inserts one chunk of valid items in a single transaction.
+     * The entity manager does not translate exceptions, so a constraint violation raised by the flush
+     * arrives as a PersistenceException rather than a DataAccessException; both mark the chunk FAILED.
+     * @param drugs All items of the batch.
+     * @param indexes The positions of the valid items of this chunk.
+     * @param results The per-item results to fill in.
+     * @return The number of drugs created.
+     */
+    private int insertChunk(List<CreateDrugDto> drugs, List<Integer> indexes, DrugBatchItemResultDto[] results) {
+        var entities = new ArrayList<DrugEntity>(indexes.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (var i : indexes) {
+                    var entity = DrugMapper.toEntity(drugs.get(i));
+                    entityManager.persist(entity);
+                    entityManager.persist(DrugMapper.toMonograph(drugs.get(i), entity));
+                    entities.add(entity);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(entities));
+            });
+        }
+        catch (DataAccessException | PersistenceException e) {
+            var message = "Chunk was rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (var i : indexes) {
+                results[i] = new DrugBatchItemResultDto(i, DrugBatchItemResultDto.FAILED, null, Map.of("batch", message));
+            }
+            return 0;
+        }
+
+        for (var k = 0; k < indexes.size(); k++) {
+            var i = indexes.get(k);
+            results[i] = new DrugBatchItemResultDto(i, DrugBatchItemResultDto.CREATED, entities.get(k).getId(), Map.of());
+        }
+        return indexes.size();
+    }
+
+    /**
+     * Validates one item with the constraints declared on CreateDrugDto.
+     * @param drug The item to validate.
+     * @return The errors keyed by field name; empty if the item is valid.
+     */
+    private Map<String, String> validate(CreateDrugDto drug) {
+        Map<String, String> errors = new HashMap<>();
+        if (drug == null) {
+            errors.put("drug", "Item cannot be null");
+            return errors;
+        }
+        for (var violation : validator.validate(drug)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,130 @@
+package org.example.pharmacy.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.service.errors.DrugNotFoundError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded in-process cache of drug details keyed by drug ID.
+ * Entries are evicted by size and by age; hit, miss and eviction counts are published
+ * as cache metrics under the name "drugs". An available drug is also evicted when it expires,
+ * so its cached availability never outlives its expiration date.
+ * Entries are futures so that a miss is loaded outside the cache's map lock: a load that holds a
+ * monitor while it waits on JDBC would pin the carrier thread of a virtual thread.
+ */
+@Component
+public class DrugCache {
+    private final AsyncCache<Long, GetDrugDto> cache;
+
+    /**
+     * Constructs a DrugCache with the configured bounds and registers its metrics.
+     * @param maximumSize The maximum number of drugs kept in the cache.
+     * @param ttl How long a drug stays cached after it was loaded.
+     * @param meterRegistry The registry the cache statistics are published to.
+     */
+    @Autowired
+    public DrugCache(@Value("${drugs.cache.maximum-size}") long maximumSize, @Value("${drugs.cache.ttl}") Duration ttl, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, GetDrugDto>() {
+                    @Override
+                    public long expireAfterCreate(Long id, GetDrugDto drug, long currentTime) {
+                        return timeToLive(drug, ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, GetDrugDto drug, long currentTime, long currentDuration) {
+                        return timeToLive(drug, ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, GetDrugDto drug, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "drugs");
+    }
+
+    /**
+     * Returns the cached drug, loading it on a miss.
+     * Concurrent misses for the same ID wait for a single load instead of each querying the database.
+     * The load runs on the calling thread of the first miss; the others park on its future.
+     * A drug that does not exist is loaded as null, which the cache drops without caching or
+     * logging it. Exceptions thrown by the loader are propagated to every waiting caller and
+     * nothing is cached.
+     * @param id The ID of the drug.
+     * @param loader Loads the drug from the database, returning null if it does not exist.
+     * @return The GetDrugDto for the drug.
+     * @throws DrugNotFoundError if the loader found no drug.
+     */
+    public GetDrugDto get(long id, LongFunction<GetDrugDto> loader) {
+        var loading = new CompletableFuture<GetDrugDto>();
+        var drug = cache.get(id, (key, executor) -> loading);
+        if (drug == loading) {
+            try {
+                loading.complete(loader.apply(id));
+            }
+            catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }
+
+        GetDrugDto loaded;
+        try {
+            loaded = drug.join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (loaded == null) {
+            throw new DrugNotFoundError(id);
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes a drug from the cache.
+     * @param id The ID of the drug to remove.
+     */
+    public void invalidate(long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /**
+     * Computes how long a drug may stay cached: the TTL, or less if the drug expires sooner.
+     * @param drug The drug being cached.
+     * @param ttl The configured time to live.
+     * @return The time to live of the entry.
+     */
+    private static Duration timeToLive(GetDrugDto drug, Duration ttl) {
+        if (!drug.isAvailable() || drug.getExpirationDate() == null) {
+            return ttl;
+        }
+        var now = ZonedDateTime.now();
+        var expiresAt = LocalDate.parse(drug.getExpirationDate()).plusDays(1).atStartOfDay(now.getZone());
+        var untilExpiry = Duration.between(now, expiresAt);
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+
+import java.util.List;
+
+/**
+ * Published when drugs are created, updated or deleted.
+ * It is published inside the transaction that makes the change, if there is one, so listeners
+ * that only keep derived in-memory state should handle it after commit.
+ * @param saved The drugs that were created or updated, with their new values.
+ * @param deletedIds The IDs of the drugs that were deleted.
+ */
+public record DrugCatalogChangedEvent(List<DrugEntity> saved, List<Long> deletedIds) {
+
+    /**
+     * Creates an event for drugs that were created or updated.
+     * @param saved The drugs that were created or updated.
+     * @return The event.
+     */
+    public static DrugCatalogChangedEvent saved(List<DrugEntity> saved) {
+        return new DrugCatalogChangedEvent(saved, List.of());
+    }
+
+    /**
+     * Creates an event for a drug that was deleted.
+     * @param id The ID of the deleted drug.
+     * @return The event.
+     */
+    public static DrugCatalogChangedEvent deleted(long id) {
+        return new DrugCatalogChangedEvent(List.of(), List.of(id));
+    }
+}
\ No newline at end of file
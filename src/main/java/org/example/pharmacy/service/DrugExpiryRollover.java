@@ -0,0 +1,132 @@
+package org.example.pharmacy.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Republishes drugs as changed on the day after their expiration date.
+ * A drug stops being available when its expiration date passes, without any write to the catalog,
+ * so the in-memory views that count available drugs would otherwise keep counting it until it
+ * next changed. Shortly after each midnight the drugs that expired since the previous rollover are
+ * read and published in a {@link DrugCatalogChangedEvent}, which those views apply like any other
+ * change. Views that decide availability when they are read, the drug cache and the catalog ETag
+ * need no rollover.
+ */
+@Component
+public class DrugExpiryRollover {
+    private static final Logger log = LoggerFactory.getLogger(DrugExpiryRollover.class);
+
+    private final DrugRepository drugRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * The date the published availability is current for. Only read and written by the scheduler.
+     */
+    private LocalDate rolledOverTo;
+
+    /**
+     * Constructs a DrugExpiryRollover that follows the system clock.
+     * @param drugRepository The drug repository the expired drugs are read from.
+     * @param eventPublisher The publisher of catalog change events.
+     */
+    @Autowired
+    public DrugExpiryRollover(DrugRepository drugRepository, ApplicationEventPublisher eventPublisher) {
+        this(drugRepository, eventPublisher, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructs a DrugExpiryRollover that follows the given clock.
+     * @param drugRepository The drug repository the expired drugs are read from.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param clock The clock the current date is read from.
+     */
+    DrugExpiryRollover(DrugRepository drugRepository, ApplicationEventPublisher eventPublisher, Clock clock) {
+        this.drugRepository = drugRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.rolledOverTo = LocalDate.now(clock);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "expiry-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the first rollover for the next midnight.
+     */
+    @PostConstruct
+    public void start() {
+        scheduleNext();
+    }
+
+    /**
+     * Stops the rollovers.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Publishes the drugs that expired since the previous rollover, if the date has changed.
+     * The days that were missed, because the process was suspended or a rollover failed, are
+     * covered by the next one.
+     */
+    void rollOver() {
+        var today = LocalDate.now(clock);
+        if (!today.isAfter(rolledOverTo)) {
+            return;
+        }
+
+        var expired = drugRepository.findAllByExpirationDateBetween(rolledOverTo, today.minusDays(1));
+        if (!expired.isEmpty()) {
+            eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(expired));
+        }
+        log.info("Rolled drug availability over to {}; {} drugs expired", today, expired.size());
+        rolledOverTo = today;
+    }
+
+    /**
+     * Runs a rollover, logging its failure instead of throwing, and schedules the next one.
+     */
+    private void rollOverAndReschedule() {
+        try {
+            rollOver();
+        }
+        catch (RuntimeException e) {
+            log.warn("Rolling drug availability over failed", e);
+        }
+        finally {
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Schedules a rollover just after the next midnight, unless the rollovers have been stopped.
+     */
+    private void scheduleNext() {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+        var now = ZonedDateTime.now(clock);
+        var midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        var delay = Duration.between(now, midnight).plusSeconds(1);
+        scheduler.schedule(this::rollOverAndReschedule, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Reads the rows of an uploaded catalog file one at a time, without loading the file into memory.
+ * A row that cannot be mapped to a CreateDrugDto is returned with an error instead of a drug,
+ * so one bad line does not stop the import.
+ */
+abstract class DrugImportReader implements Closeable {
+    static final String CSV = "csv";
+    static final String NDJSON = "ndjson";
+
+    private static final ObjectReader DRUG_READER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .readerFor(CreateDrugDto.class);
+
+    private long rowNumber;
+
+    /**
+     * One row of an upload.
+     * @param number The one-based number of the row, not counting a CSV header.
+     * @param drug The mapped drug, or null if the row could not be mapped.
+     * @param error Why the row could not be mapped, or null.
+     */
+    record Row(long number, CreateDrugDto drug, String error) {
+    }
+
+    /**
+     * Opens a reader for a stored upload.
+     * @param file The stored upload.
+     * @param format The format of the upload: csv or ndjson.
+     * @return The reader, positioned before the first row.
+     * @throws IOException if the file cannot be opened.
+     */
+    static DrugImportReader open(Path file, String format) throws IOException {
+        return CSV.equals(format) ? new CsvReader(file) : new NdjsonReader(file);
+    }
+
+    /**
+     * Reads the next row.
+     * @return The row, or null when the upload has no more rows.
+     * @throws IOException if the file cannot be read or is not well-formed.
+     */
+    Row next() throws IOException {
+        var drug = readNext();
+        if (drug == null) {
+            return null;
+        }
+        rowNumber++;
+        try {
+            return new Row(rowNumber, drug.get(), null);
+        }
+        catch (JsonProcessingException e) {
+            return new Row(rowNumber, null, e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Skips the given number of rows without mapping them.
+     * @param rows The number of rows to skip.
+     * @throws IOException if the file cannot be read or is not well-formed.
+     */
+    void skip(long rows) throws IOException {
+        while (rowNumber < rows && readNext() != null) {
+            rowNumber++;
+        }
+    }
+
+    /**
+     * Reads the next raw record and returns a deferred mapping of it.
+     * @return The mapping of the record to a drug, or null at the end of the upload.
+     * @throws IOException if the file cannot be read or is not well-formed.
+     */
+    protected abstract PendingDrug readNext() throws IOException;
+
+    /**
+     * A raw record whose mapping to a drug has not been attempted yet.
+     */
+    @FunctionalInterface
+    protected interface PendingDrug {
+        /**
+         * Maps the record to a drug.
+         * @return The drug.
+         * @throws JsonProcessingException if the record does not fit CreateDrugDto.
+         */
+        CreateDrugDto get() throws JsonProcessingException;
+    }
+
+    /**
+     * Reads newline-delimited JSON, one drug object per non-blank line.
+     */
+    private static final class NdjsonReader extends DrugImportReader {
+        private final BufferedReader reader;
+
+        private NdjsonReader(Path file) throws IOException {
+            this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        protected PendingDrug readNext() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+            var json = line;
+            return () -> DRUG_READER.readValue(json);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads CSV with a header line naming the CreateDrugDto fields.
+     * Empty cells are left out so that the field keeps its default.
+     */
+    private static final class CsvReader extends DrugImportReader {
+        private static final ObjectMapper CONVERTER = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        private final MappingIterator<Map<String, String>> records;
+
+        private CsvReader(Path file) throws IOException {
+            this.records = new CsvMapper()
+                    .readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(file.toFile());
+        }
+
+        @Override
+        protected PendingDrug readNext() throws IOException {
+            if (!records.hasNextValue()) {
+                return null;
+            }
+            var record = records.nextValue();
+            record.values().removeIf(String::isEmpty);
+            return () -> {
+                try {
+                    return CONVERTER.convertValue(record, CreateDrugDto.class);
+                }
+                catch (IllegalArgumentException e) {
+                    if (e.getCause() instanceof JsonProcessingException cause) {
+                        throw cause;
+                    }
+                    throw e;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,507 @@
+package org.example.pharmacy.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import org.example.pharmacy.controller.dto.DrugImportJobDto;
+import org.example.pharmacy.controller.dto.DrugImportRejectionDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugImportJobEntity;
+import org.example.pharmacy.infrastructure.entity.DrugImportRejectionEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.example.pharmacy.infrastructure.repository.DrugImportJobRepository;
+import org.example.pharmacy.infrastructure.repository.DrugImportRejectionRepository;
+import org.example.pharmacy.infrastructure.repository.DrugMonographRepository;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.ImportJobNotFoundError;
+import org.example.pharmacy.service.errors.UnsupportedImportFormatError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Service for importing large catalog files in the background.
+ * An upload is stored on disk and then read row by row; rows are validated with the constraints
+ * declared on CreateDrugDto and upserted by MA number in fixed-size chunks, each chunk in its own
+ * transaction together with the job's progress counters. A chunk the database refuses is retried
+ * row by row, and the rows it still refuses are rejected like invalid ones. A job that stopped
+ * part-way, because it failed or because the application was restarted, continues from the first
+ * uncommitted row. The upload is deleted once the job has completed.
+ */
+@Service
+public class DrugImportService {
+    static final String QUEUED = "QUEUED";
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+    static final String FAILED = "FAILED";
+
+    private static final Logger log = LoggerFactory.getLogger(DrugImportService.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final DrugRepository drugRepository;
+    private final DrugMonographRepository monographRepository;
+    private final DrugImportJobRepository jobRepository;
+    private final DrugImportRejectionRepository rejectionRepository;
+    private final DrugCache drugCache;
+    private final CatalogVersion catalogVersion;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path directory;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a DrugImportService with necessary dependencies.
+     * @param drugRepository The drug repository.
+     * @param monographRepository The drug monograph repository.
+     * @param jobRepository The import job repository.
+     * @param rejectionRepository The repository of rejected rows.
+     * @param drugCache The cache of drug details, invalidated for updated drugs.
+     * @param catalogVersion The version of the catalog, bumped after every chunk that changed drugs.
+     * @param entityManager The entity manager.
+     * @param transactionManager The transaction manager used for per-chunk transactions.
+     * @param validator The bean validator applied to each row.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param directory The directory uploads are stored in.
+     * @param chunkSize The number of rows committed per transaction.
+     */
+    @Autowired
+    public DrugImportService(DrugRepository drugRepository, DrugMonographRepository monographRepository,
+                             DrugImportJobRepository jobRepository,
+                             DrugImportRejectionRepository rejectionRepository, DrugCache drugCache,
+                             CatalogVersion catalogVersion, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${drugs.import.directory}") Path directory,
+                             @Value("${drugs.import.chunk-size}") int chunkSize) {
+        var threadCount = new AtomicInteger();
+
+        this.drugRepository = drugRepository;
+        this.monographRepository = monographRepository;
+        this.jobRepository = jobRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.drugCache = drugCache;
+        this.catalogVersion = catalogVersion;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "drug-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores an upload and queues it for import.
+     * The body is copied to disk as it arrives, so the upload is never held in memory.
+     * @param contentType The content type of the upload: text/csv or application/x-ndjson.
+     * @param body The body of the upload.
+     * @return A DrugImportJobDto for the queued job.
+     * @throws UnsupportedImportFormatError if the content type is not supported.
+     * @throws IOException if the upload cannot be stored.
+     */
+    public DrugImportJobDto submit(String contentType, InputStream body) throws IOException {
+        var format = formatOf(contentType);
+        var id = UUID.randomUUID().toString();
+
+        Files.createDirectories(directory);
+        var file = directory.resolve(id + "." + format);
+        Files.copy(body, file);
+
+        var job = new DrugImportJobEntity();
+        job.setId(id);
+        job.setStatus(QUEUED);
+        job.setFormat(format);
+        job.setFilePath(file.toAbsolutePath().toString());
+        job.setCreatedAt(Instant.now());
+        jobRepository.save(job);
+
+        schedule(id);
+        return toDto(job);
+    }
+
+    /**
+     * Retrieves the progress of an import job.
+     * @param id The ID of the job.
+     * @return A DrugImportJobDto with the row counts, the throughput and the first rejected rows.
+     * @throws ImportJobNotFoundError if the job does not exist.
+     */
+    public DrugImportJobDto getById(String id) {
+        return toDto(jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundError(id)));
+    }
+
+    /**
+     * Resumes a failed import job from its first uncommitted row.
+     * Jobs that are queued, running or completed are left as they are.
+     * @param id The ID of the job.
+     * @return A DrugImportJobDto for the job.
+     * @throws ImportJobNotFoundError if the job does not exist.
+     */
+    public DrugImportJobDto resume(String id) {
+        var job = jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundError(id));
+        if (FAILED.equals(job.getStatus())) {
+            job.setStatus(QUEUED);
+            jobRepository.save(job);
+            schedule(id);
+        }
+        return toDto(job);
+    }
+
+    /**
+     * Resumes the jobs that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        for (var job : jobRepository.findByStatusIn(List.of(QUEUED, RUNNING))) {
+            log.info("Resuming drug import {} from row {}", job.getId(), job.getCommittedRows() + 1);
+            schedule(job.getId());
+        }
+    }
+
+    /**
+     * Stops the import executor when the application shuts down.
+     * Running jobs stay RUNNING and are resumed on the next start.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a job on the import executor unless it is already queued or running there.
+     * @param id The ID of the job.
+     */
+    private void schedule(String id) {
+        if (activeJobs.add(id)) {
+            executor.execute(() -> {
+                try {
+                    run(id);
+                }
+                finally {
+                    activeJobs.remove(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a job from its first uncommitted row to the end of the upload, and deletes the upload
+     * once the job has completed.
+     * @param id The ID of the job.
+     */
+    private void run(String id) {
+        var job = jobRepository.findById(id).orElse(null);
+        if (job == null || COMPLETED.equals(job.getStatus())) {
+            return;
+        }
+
+        job.setStatus(RUNNING);
+        job.setStartedAt(Instant.now());
+        job.setFinishedAt(null);
+        job.setError(null);
+        job.setRunStartRow(job.getCommittedRows());
+        jobRepository.save(job);
+
+        var file = Path.of(job.getFilePath());
+        try (var reader = DrugImportReader.open(file, job.getFormat())) {
+            reader.skip(job.getCommittedRows());
+
+            var chunk = new ArrayList<DrugImportReader.Row>(chunkSize);
+            DrugImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(id, chunk);
+                    chunk.clear();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(id, chunk);
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("Drug import {} failed", id, e);
+            finish(id, FAILED, e.getMessage());
+            return;
+        }
+        finish(id, COMPLETED, null);
+        deleteUpload(id, file);
+    }
+
+    /**
+     * Imports one chunk of rows. If the database refuses the chunk, for example because a row holds
+     * a value its column cannot store, the chunk is retried one row at a time and each row that is
+     * refused again is rejected, so one bad row does not fail the job.
+     * @param id The ID of the job.
+     * @param rows The rows of the chunk.
+     */
+    private void importChunk(String id, List<DrugImportReader.Row> rows) {
+        try {
+            importRows(id, rows);
+        }
+        catch (DataAccessException | PersistenceException e) {
+            log.info("Drug import {} retries the chunk from row {} row by row: {}", id, rows.get(0).number(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (var row : rows) {
+                try {
+                    importRows(id, List.of(row));
+                }
+                catch (DataAccessException | PersistenceException rowFailure) {
+                    reject(id, row, NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Upserts rows and advances the job's counters in a single transaction.
+     * Rows are matched to existing drugs by MA number; when the rows hold the same MA number
+     * more than once, the later row wins.
+     * @param id The ID of the job.
+     * @param rows The rows to upsert.
+     */
+    private void importRows(String id, List<DrugImportReader.Row> rows) {
+        var updatedIds = new ArrayList<Long>();
+        var changed = transactionTemplate.execute(status -> {
+            var rejections = new ArrayList<DrugImportRejectionEntity>();
+            var valid = new ArrayList<DrugImportReader.Row>(rows.size());
+            for (var row : rows) {
+                var errors = validate(row);
+                if (errors == null) {
+                    valid.add(row);
+                }
+                else {
+                    rejections.add(new DrugImportRejectionEntity(id, row.number(), errors));
+                }
+            }
+
+            var byMa = new HashMap<String, DrugEntity>();
+            var monographs = new HashMap<Long, DrugMonographEntity>();
+            if (!valid.isEmpty()) {
+                for (var existing : drugRepository.findByMaIn(valid.stream().map(r -> r.drug().getMa()).collect(Collectors.toSet()))) {
+                    byMa.put(existing.getMa(), existing);
+                    updatedIds.add(existing.getId());
+                }
+                for (var monograph : monographRepository.findAllById(updatedIds)) {
+                    monographs.put(monograph.getDrugId(), monograph);
+                }
+            }
+
+            var saved = new LinkedHashSet<DrugEntity>();
+            long inserted = 0;
+            long updated = 0;
+            for (var row : valid) {
+                var entity = byMa.get(row.drug().getMa());
+                if (entity == null) {
+                    entity = DrugMapper.toEntity(row.drug());
+                    entityManager.persist(entity);
+                    byMa.put(entity.getMa(), entity);
+                    inserted++;
+                }
+                else {
+                    DrugMapper.copyInto(row.drug(), entity);
+                    updated++;
+                }
+
+                var monograph = monographs.get(entity.getId());
+                if (monograph == null) {
+                    monograph = DrugMapper.toMonograph(row.drug(), entity);
+                    entityManager.persist(monograph);
+                    monographs.put(entity.getId(), monograph);
+                }
+                else {
+                    DrugMapper.copyInto(row.drug(), monograph);
+                }
+                saved.add(entity);
+            }
+            rejectionRepository.saveAll(rejections);
+
+            var job = jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundError(id));
+            job.setCommittedRows(job.getCommittedRows() + rows.size());
+            job.setInsertedRows(job.getInsertedRows() + inserted);
+            job.setUpdatedRows(job.getUpdatedRows() + updated);
+            job.setRejectedRows(job.getRejectedRows() + rejections.size());
+
+            entityManager.flush();
+            entityManager.clear();
+            if (inserted + updated > 0) {
+                eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(new ArrayList<>(saved)));
+            }
+            return inserted + updated > 0;
+        });
+
+        for (var drugId : updatedIds) {
+            drugCache.invalidate(drugId);
+        }
+        if (Boolean.TRUE.equals(changed)) {
+            catalogVersion.bump();
+        }
+    }
+
+    /**
+     * Rejects a row the database refused and counts it as committed.
+     * @param id The ID of the job.
+     * @param row The refused row.
+     * @param error Why the database refused the row.
+     */
+    private void reject(String id, DrugImportReader.Row row, String error) {
+        var errors = "Row could not be stored: " + error;
+        transactionTemplate.executeWithoutResult(status -> {
+            rejectionRepository.save(new DrugImportRejectionEntity(id, row.number(), errors.substring(0, Math.min(errors.length(), 2000))));
+            var job = jobRepository.findById(id).orElseThrow(() -> new ImportJobNotFoundError(id));
+            job.setCommittedRows(job.getCommittedRows() + 1);
+            job.setRejectedRows(job.getRejectedRows() + 1);
+        });
+    }
+
+    /**
+     * Deletes the upload of a completed job. A failure is logged; the job stays completed.
+     * @param id The ID of the job.
+     * @param file The stored upload.
+     */
+    private void deleteUpload(String id, Path file) {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            log.warn("Could not delete the upload of drug import {}", id, e);
+        }
+    }
+
+    /**
+     * Marks a job as finished.
+     * @param id The ID of the job.
+     * @param status The final status.
+     * @param error Why the job failed, or null.
+     */
+    private void finish(String id, String status, String error) {
+        jobRepository.findById(id).ifPresent(job -> {
+            job.setStatus(status);
+            job.setFinishedAt(Instant.now());
+            job.setError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+            jobRepository.save(job);
+        });
+    }
+
+    /**
+     * Validates one row with the constraints declared on CreateDrugDto.
+     * @param row The row to validate.
+     * @return The errors as "field: message" pairs sorted by field, or null if the row is valid.
+     */
+    private String validate(DrugImportReader.Row row) {
+        if (row.drug() == null) {
+            return row.error();
+        }
+        var errors = new TreeMap<String, String>();
+        for (var violation : validator.validate(row.drug())) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (errors.isEmpty()) {
+            return null;
+        }
+        var message = errors.entrySet().stream()
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .collect(Collectors.joining("; "));
+        return message.substring(0, Math.min(message.length(), 2000));
+    }
+
+    /**
+     * Resolves the import format from the content type of an upload.
+     * @param contentType The content type.
+     * @return The format: csv or ndjson.
+     * @throws UnsupportedImportFormatError if the content type is not supported.
+     */
+    private static String formatOf(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = contentType == null ? null : MediaType.parseMediaType(contentType);
+        }
+        catch (IllegalArgumentException e) {
+            mediaType = null;
+        }
+
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            return DrugImportReader.CSV;
+        }
+        if (mediaType != null && mediaType.isCompatibleWith(NDJSON)) {
+            return DrugImportReader.NDJSON;
+        }
+        throw new UnsupportedImportFormatError(contentType);
+    }
+
+    /**
+     * Converts an import job to its DTO, including its first rejected rows.
+     * @param job The job entity.
+     * @return The DrugImportJobDto.
+     */
+    private DrugImportJobDto toDto(DrugImportJobEntity job) {
+        var dto = new DrugImportJobDto();
+        dto.setId(job.getId());
+        dto.setStatus(job.getStatus());
+        dto.setFormat(job.getFormat());
+        dto.setCommittedRows(job.getCommittedRows());
+        dto.setInsertedRows(job.getInsertedRows());
+        dto.setUpdatedRows(job.getUpdatedRows());
+        dto.setRejectedRows(job.getRejectedRows());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+
+        if (job.getStartedAt() != null) {
+            var end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            var millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            dto.setRowsPerSecond((job.getCommittedRows() - job.getRunStartRow()) * 1000.0 / millis);
+        }
+
+        dto.setRejections(rejectionRepository.findTop100ByJobIdOrderByRowNumberAsc(job.getId()).stream()
+                .map(rejection -> {
+                    var rejectionDto = new DrugImportRejectionDto();
+                    rejectionDto.setRowNumber(rejection.getRowNumber());
+                    rejectionDto.setErrors(rejection.getErrors());
+                    return rejectionDto;
+                })
+                .toList());
+        return dto;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+
+import java.io.IOException;
+
+/**
+ * Writes drugs to a JSON generator field by field, straight from the entities.
+ * The output is the same, byte for byte, as Jackson's serialization of the GetDrugDto that
+ * {@link DrugMapper#toDto(DrugEntity, DrugMonographEntity)} would build, but no DTO is created
+ * and no getters are called reflectively. Field names are encoded once, up front. A field added
+ * to GetDrugDto must be added here too, in the same position.
+ */
+final class DrugJsonWriter {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString MA = new SerializedString("ma");
+    private static final SerializableString PRICE = new SerializedString("price");
+    private static final SerializableString BRAND_NAME = new SerializedString("brandName");
+    private static final SerializableString MANUFACTURER = new SerializedString("manufacturer");
+    private static final SerializableString ACTIVE_INGREDIENT = new SerializedString("activeIngredient");
+    private static final SerializableString NDC = new SerializedString("ndc");
+    private static final SerializableString ATC_CODE = new SerializedString("atcCode");
+    private static final SerializableString DRUG_FORM = new SerializedString("drugForm");
+    private static final SerializableString ROUTE_OF_ADMINISTRATION = new SerializedString("routeOfAdministration");
+    private static final SerializableString PRESCRIPTION_STATUS = new SerializedString("prescriptionStatus");
+    private static final SerializableString CONTROLLED_SUBSTANCE_STATUS = new SerializedString("controlledSubstanceStatus");
+    private static final SerializableString CONTRAINDICATIONS = new SerializedString("contraindications");
+    private static final SerializableString SIDE_EFFECTS = new SerializedString("sideEffects");
+    private static final SerializableString DOSAGE = new SerializedString("dosage");
+    private static final SerializableString BATCH_NUMBER = new SerializedString("batchNumber");
+    private static final SerializableString EXPIRATION_DATE = new SerializedString("expirationDate");
+    private static final SerializableString STORAGE_CONDITIONS = new SerializedString("storageConditions");
+    private static final SerializableString GRAPHIC_LINK = new SerializedString("graphicLink");
+    private static final SerializableString AVAILABLE = new SerializedString("available");
+
+    private DrugJsonWriter() {
+    }
+
+    /**
+     * Writes a drug and its monograph as one JSON object.
+     * @param generator The generator to write to.
+     * @param drug The drug entity.
+     * @param monograph The monograph of the drug, or null if it has none.
+     * @throws IOException if writing fails.
+     */
+    static void write(JsonGenerator generator, DrugEntity drug, DrugMonographEntity monograph) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(drug.getId());
+        generator.writeFieldName(MA);
+        generator.writeString(drug.getMa());
+        generator.writeFieldName(PRICE);
+        generator.writeNumber(drug.getPrice());
+        generator.writeFieldName(BRAND_NAME);
+        generator.writeString(drug.getBrandName());
+        generator.writeFieldName(MANUFACTURER);
+        generator.writeString(drug.getManufacturer());
+        generator.writeFieldName(ACTIVE_INGREDIENT);
+        generator.writeString(drug.getActiveIngredient());
+        generator.writeFieldName(NDC);
+        generator.writeString(drug.getNdc());
+        generator.writeFieldName(ATC_CODE);
+        generator.writeString(drug.getAtcCode());
+        generator.writeFieldName(DRUG_FORM);
+        generator.writeString(CodedEnum.labelOf(drug.getDrugForm()));
+        generator.writeFieldName(ROUTE_OF_ADMINISTRATION);
+        generator.writeString(CodedEnum.labelOf(drug.getRouteOfAdministration()));
+        generator.writeFieldName(PRESCRIPTION_STATUS);
+        generator.writeString(CodedEnum.labelOf(drug.getPrescriptionStatus()));
+        generator.writeFieldName(CONTROLLED_SUBSTANCE_STATUS);
+        generator.writeString(CodedEnum.labelOf(drug.getControlledSubstanceStatus()));
+        generator.writeFieldName(CONTRAINDICATIONS);
+        generator.writeString(monograph != null ? monograph.getContraindications() : null);
+        generator.writeFieldName(SIDE_EFFECTS);
+        generator.writeString(monograph != null ? monograph.getSideEffects() : null);
+        generator.writeFieldName(DOSAGE);
+        generator.writeString(monograph != null ? monograph.getDosage() : null);
+        generator.writeFieldName(BATCH_NUMBER);
+        generator.writeString(drug.getBatchNumber());
+        generator.writeFieldName(EXPIRATION_DATE);
+        generator.writeString(DrugMapper.format(drug.getExpirationDate()));
+        generator.writeFieldName(STORAGE_CONDITIONS);
+        generator.writeString(monograph != null ? monograph.getStorageConditions() : null);
+        generator.writeFieldName(GRAPHIC_LINK);
+        generator.writeString(drug.getGraphicLink());
+        generator.writeFieldName(AVAILABLE);
+        generator.writeBoolean(DrugMapper.isAvailable(drug.getAvailableCopies(), drug.getExpirationDate()));
+        generator.writeEndObject();
+    }
+}
\ No newline at end of file
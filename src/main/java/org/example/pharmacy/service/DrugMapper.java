@@ -0,0 +1,164 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.example.pharmacy.controller.dto.CreateDrugResponseDto;
+import org.example.pharmacy.controller.dto.DrugSummaryDto;
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+import org.example.pharmacy.infrastructure.repository.DrugDetailView;
+import org.example.pharmacy.infrastructure.repository.DrugSummaryView;
+
+import java.time.LocalDate;
+
+/**
+ * Maps between drug entities and their API representations.
+ */
+final class DrugMapper {
+
+    private DrugMapper() {
+    }
+
+    /**
+     * Builds a new drug entity from a creation request.
+     * @param drug The CreateDrugDto containing drug information.
+     * @return A new, unsaved DrugEntity.
+     */
+    static DrugEntity toEntity(CreateDrugDto drug) {
+        var drugEntity = new DrugEntity();
+        copyInto(drug, drugEntity);
+        return drugEntity;
+    }
+
+    /**
+     * Copies the fields of a creation request that belong to the drug row onto a drug entity.
+     * @param drug The CreateDrugDto containing drug information.
+     * @param drugEntity The entity to update.
+     */
+    static void copyInto(CreateDrugDto drug, DrugEntity drugEntity) {
+        drugEntity.setMa(drug.getMa());
+        drugEntity.setPrice(drug.getPrice());
+        drugEntity.setBrandName(drug.getBrandName());
+        drugEntity.setManufacturer(drug.getManufacturer());
+        drugEntity.setActiveIngredient(drug.getActiveIngredient());
+        drugEntity.setNdc(drug.getNdc());
+        drugEntity.setAtcCode(drug.getAtcCode());
+        drugEntity.setDrugForm(CodedEnum.fromLabel(DrugForm.class, drug.getDrugForm()));
+        drugEntity.setRouteOfAdministration(CodedEnum.fromLabel(RouteOfAdministration.class, drug.getRouteOfAdministration()));
+        drugEntity.setPrescriptionStatus(CodedEnum.fromLabel(PrescriptionStatus.class, drug.getPrescriptionStatus()));
+        drugEntity.setControlledSubstanceStatus(CodedEnum.fromLabel(ControlledSubstanceStatus.class, drug.getControlledSubstanceStatus()));
+        drugEntity.setBatchNumber(drug.getBatchNumber());
+        drugEntity.setExpirationDate(drug.getExpirationDate() != null ? LocalDate.parse(drug.getExpirationDate()) : null);
+        drugEntity.setAvailableCopies(drug.getAvailableCopies());
+        drugEntity.setGraphicLink(drug.getGraphicLink());
+    }
+
+    /**
+     * Builds a new monograph for a drug from a creation request.
+     * @param drug The CreateDrugDto containing drug information.
+     * @param drugEntity The drug the monograph belongs to.
+     * @return A new, unsaved DrugMonographEntity.
+     */
+    static DrugMonographEntity toMonograph(CreateDrugDto drug, DrugEntity drugEntity) {
+        var monograph = new DrugMonographEntity(drugEntity);
+        copyInto(drug, monograph);
+        return monograph;
+    }
+
+    /**
+     * Copies the monograph texts of a creation request onto a monograph entity.
+     * @param drug The CreateDrugDto containing drug information.
+     * @param monograph The monograph to update.
+     */
+    static void copyInto(CreateDrugDto drug, DrugMonographEntity monograph) {
+        monograph.setContraindications(drug.getContraindications());
+        monograph.setSideEffects(drug.getSideEffects());
+        monograph.setDosage(drug.getDosage());
+        monograph.setStorageConditions(drug.getStorageConditions());
+    }
+
+    /**
+     * Maps a drug and its monograph to their API representation.
+     * @param detail The drug and its monograph.
+     * @return The GetDrugDto for the drug.
+     */
+    static GetDrugDto toDto(DrugDetailView detail) {
+        return toDto(detail.getDrug(), detail.getMonograph());
+    }
+
+    /**
+     * Maps a drug entity and its monograph to their API representation.
+     * @param drug The drug entity.
+     * @param monograph The monograph of the drug, or null if it has none.
+     * @return The GetDrugDto for the drug.
+     */
+    static GetDrugDto toDto(DrugEntity drug, DrugMonographEntity monograph) {
+        var texts = monograph != null ? monograph : new DrugMonographEntity();
+        return new GetDrugDto(drug.getId(), drug.getMa(), drug.getPrice(), drug.getBrandName(), drug.getManufacturer(), drug.getActiveIngredient(), drug.getNdc(), drug.getAtcCode(), CodedEnum.labelOf(drug.getDrugForm()), CodedEnum.labelOf(drug.getRouteOfAdministration()), CodedEnum.labelOf(drug.getPrescriptionStatus()), CodedEnum.labelOf(drug.getControlledSubstanceStatus()), texts.getContraindications(), texts.getSideEffects(), texts.getDosage(), drug.getBatchNumber(), format(drug.getExpirationDate()), texts.getStorageConditions(), isAvailable(drug.getAvailableCopies(), drug.getExpirationDate()), drug.getGraphicLink());
+    }
+
+    /**
+     * Copies a drug's API representation with a different availability.
+     * @param drug The GetDrugDto to copy.
+     * @param available Whether the drug is available.
+     * @return The copied GetDrugDto.
+     */
+    static GetDrugDto withAvailability(GetDrugDto drug, boolean available) {
+        return new GetDrugDto(drug.getId(), drug.getMa(), drug.getPrice(), drug.getBrandName(), drug.getManufacturer(), drug.getActiveIngredient(), drug.getNdc(), drug.getAtcCode(), drug.getDrugForm(), drug.getRouteOfAdministration(), drug.getPrescriptionStatus(), drug.getControlledSubstanceStatus(), drug.getContraindications(), drug.getSideEffects(), drug.getDosage(), drug.getBatchNumber(), drug.getExpirationDate(), drug.getStorageConditions(), available, drug.getGraphicLink());
+    }
+
+    /**
+     * Maps a saved drug entity and its monograph to the response of a creation request.
+     * @param drug The saved drug entity.
+     * @param monograph The saved monograph of the drug.
+     * @return The CreateDrugResponseDto for the drug.
+     */
+    static CreateDrugResponseDto toCreateResponseDto(DrugEntity drug, DrugMonographEntity monograph) {
+        return new CreateDrugResponseDto(drug.getId(), drug.getMa(), drug.getPrice(), drug.getBrandName(), drug.getManufacturer(), drug.getActiveIngredient(), drug.getNdc(), drug.getAtcCode(), CodedEnum.labelOf(drug.getDrugForm()), CodedEnum.labelOf(drug.getRouteOfAdministration()), CodedEnum.labelOf(drug.getPrescriptionStatus()), CodedEnum.labelOf(drug.getControlledSubstanceStatus()), monograph.getContraindications(), monograph.getSideEffects(), monograph.getDosage(), drug.getBatchNumber(), format(drug.getExpirationDate()), monograph.getStorageConditions(), drug.getAvailableCopies(), drug.getGraphicLink());
+    }
+
+    /**
+     * Maps a drug summary projection to its API representation.
+     * @param drug The drug summary.
+     * @return The DrugSummaryDto for the drug.
+     */
+    static DrugSummaryDto toSummaryDto(DrugSummaryView drug) {
+        return new DrugSummaryDto(drug.getId(), drug.getBrandName(), drug.getManufacturer(), drug.getActiveIngredient(), drug.getPrice(), format(drug.getExpirationDate()), isAvailable(drug.getAvailableCopies(), drug.getExpirationDate()), drug.getGraphicLink());
+    }
+
+    /**
+     * Decides whether a drug can be dispensed: it has copies in stock and has not expired.
+     * A drug stays available through its expiration date and is expired from the next day.
+     * @param availableCopies The number of copies in stock.
+     * @param expirationDate The expiration date, or null if the drug does not expire.
+     * @return True if the drug is available, false otherwise.
+     */
+    static boolean isAvailable(int availableCopies, LocalDate expirationDate) {
+        return isAvailable(availableCopies, expirationDate, LocalDate.now());
+    }
+
+    /**
+     * Decides whether a drug can be dispensed on a given date.
+     * @param availableCopies The number of copies in stock.
+     * @param expirationDate The expiration date, or null if the drug does not expire.
+     * @param today The date to decide for.
+     * @return True if the drug is available on that date, false otherwise.
+     */
+    static boolean isAvailable(int availableCopies, LocalDate expirationDate, LocalDate today) {
+        return availableCopies > 0 && (expirationDate == null || !expirationDate.isBefore(today));
+    }
+
+    /**
+     * Formats a date as it appears in the API (YYYY-MM-DD).
+     * @param date The date, or null.
+     * @return The formatted date, or null.
+     */
+    static String format(LocalDate date) {
+        return date != null ? date.toString() : null;
+    }
+}
\ No newline at end of file
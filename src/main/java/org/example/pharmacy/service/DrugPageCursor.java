@@ -0,0 +1,98 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the opaque cursors handed out by the paginated drug catalog.
+ * A cursor carries the sort key and the keyset (sort value and ID) of the last drug on a page.
+ * For a nullable sort key the sort value is null once paging has moved past the drugs that have
+ * one; the cursor then keeps the key with a null value, so that it cannot be mistaken for a
+ * truncated cursor.
+ */
+final class DrugPageCursor {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private DrugPageCursor() {
+    }
+
+    /**
+     * Encodes the keyset of a scroll position into an opaque cursor.
+     * @param sortKey The sort key of the page.
+     * @param position The keyset position of the last drug on the page.
+     * @return The cursor string.
+     */
+    static String encode(DrugSortKey sortKey, KeysetScrollPosition position) {
+        var keys = position.getKeys();
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("s", sortKey.getProperty());
+        payload.put("id", keys.get("id"));
+        if (sortKey != DrugSortKey.ID) {
+            payload.put("k", sortKey.toCursorValue(keys.get(sortKey.getProperty())));
+        }
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(payload));
+        }
+        catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode drug page cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor into the scroll position it points at.
+     * @param sortKey The sort key of the requested page.
+     * @param cursor The cursor string, or null for the first page.
+     * @return The scroll position to continue from.
+     * @throws InvalidPageRequestError if the cursor is malformed or was issued for another sort key.
+     */
+    static KeysetScrollPosition decode(DrugSortKey sortKey, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> payload;
+        try {
+            payload = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII)), PAYLOAD_TYPE);
+        }
+        catch (IllegalArgumentException | java.io.IOException e) {
+            throw new InvalidPageRequestError("Malformed cursor");
+        }
+
+        if (!sortKey.getProperty().equals(payload.get("s"))) {
+            throw new InvalidPageRequestError("Cursor was issued for a different sort key");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (sortKey != DrugSortKey.ID) {
+            if (!payload.containsKey("k")) {
+                throw new InvalidPageRequestError("Malformed cursor");
+            }
+            keys.put(sortKey.getProperty(), sortKey.fromCursorValue(payload.get("k")));
+        }
+        keys.put("id", DrugSortKey.toLong(payload.get("id")));
+        return ScrollPosition.forward(keys);
+    }
+
+    /**
+     * Tells whether a position is past the drugs that have a value for a nullable sort key,
+     * among the drugs that have none.
+     * @param sortKey The sort key of the page.
+     * @param position The position decoded from a cursor.
+     * @return True if the position carries the sort key with a null value.
+     */
+    static boolean isPastKeyedDrugs(DrugSortKey sortKey, KeysetScrollPosition position) {
+        var keys = position.getKeys();
+        return sortKey.isNullable() && keys.containsKey(sortKey.getProperty()) && keys.get(sortKey.getProperty()) == null;
+    }
+}
\ No newline at end of file
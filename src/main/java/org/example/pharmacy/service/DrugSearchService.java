@@ -0,0 +1,381 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.example.pharmacy.controller.dto.DrugSearchPageDto;
+import org.example.pharmacy.controller.dto.DrugSummaryDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Full-text search over the drug catalog, backed by an in-memory Lucene index.
+ * The index is built from the database at startup and kept current from
+ * {@link DrugCatalogChangedEvent}s once their transaction has committed. Each document stores
+ * the fields of a drug summary, so a search is answered from the index alone.
+ * Every searched field is also indexed as edge n-grams, so the partially typed last word of a
+ * query is a plain term lookup instead of a prefix expansion over the term dictionary.
+ */
+@Service
+public class DrugSearchService {
+    private static final Logger log = LoggerFactory.getLogger(DrugSearchService.class);
+
+    private static final String ID = "id";
+    private static final String BRAND_NAME = "brandName";
+    private static final String ACTIVE_INGREDIENT = "activeIngredient";
+    private static final String MANUFACTURER = "manufacturer";
+    private static final String ATC_CODE = "atcCode";
+    private static final String PRICE = "price";
+    private static final String EXPIRATION_DATE = "expirationDate";
+    private static final String AVAILABLE_COPIES = "availableCopies";
+    private static final String GRAPHIC_LINK = "graphicLink";
+
+    /**
+     * Searched fields and how much a match in each counts towards relevance.
+     */
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            BRAND_NAME, 3f,
+            ACTIVE_INGREDIENT, 2f,
+            ATC_CODE, 2f,
+            MANUFACTURER, 1f);
+
+    /**
+     * Suffix of the edge n-gram field indexed alongside each searched field.
+     */
+    private static final String PREFIX_SUFFIX = "_prefix";
+
+    /**
+     * Shortest and longest word prefixes indexed for prefix matching.
+     */
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_LENGTH = 20;
+
+    private final DrugRepository drugRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Analyzer indexAnalyzer = createIndexAnalyzer(analyzer);
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Timer searchTimer;
+    private final int maxPageSize;
+    private final int maxResults;
+
+    /**
+     * Constructs a DrugSearchService with an empty index.
+     * @param drugRepository The drug repository the index is built from.
+     * @param entityManager The entity manager, used to detach streamed rows.
+     * @param transactionManager The transaction manager used to read the catalog at startup.
+     * @param meterRegistry The registry search timings are published to.
+     * @param maxPageSize The largest page size a search request may ask for.
+     * @param maxResults How far into the results a search may page.
+     * @throws IOException if the index cannot be created.
+     */
+    @Autowired
+    public DrugSearchService(DrugRepository drugRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                             @Value("${drugs.page.max-size}") int maxPageSize,
+                             @Value("${drugs.search.max-results}") int maxResults) throws IOException {
+        this.drugRepository = drugRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(indexAnalyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.searchTimer = Timer.builder("drugs.search")
+                .description("Time spent answering a catalog search from the index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.maxPageSize = maxPageSize;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Builds the index from the whole catalog once the application has started.
+     * The update lock is held for the whole build, so catalog changes committed meanwhile wait
+     * and are applied on top of the snapshot instead of being overwritten by older rows from it.
+     * @throws IOException if the index cannot be written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() throws IOException {
+        var start = System.nanoTime();
+        updateLock.lock();
+        try {
+            var indexed = transactionTemplate.execute(status -> {
+                try (var drugs = drugRepository.streamAllBy()) {
+                    var count = 0;
+                    for (var iterator = drugs.iterator(); iterator.hasNext(); ) {
+                        var drug = iterator.next();
+                        writer.updateDocument(new Term(ID, Long.toString(drug.getId())), toDocument(drug));
+                        entityManager.detach(drug);
+                        count++;
+                    }
+                    return count;
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            searcherManager.maybeRefreshBlocking();
+            log.info("Indexed {} drugs for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a catalog change to the index after the change has committed.
+     * @param event The change.
+     * @throws IOException if the index cannot be written.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(DrugCatalogChangedEvent event) throws IOException {
+        updateLock.lock();
+        try {
+            for (var drug : event.saved()) {
+                writer.updateDocument(new Term(ID, Long.toString(drug.getId())), toDocument(drug));
+            }
+            for (var id : event.deletedIds()) {
+                writer.deleteDocuments(new Term(ID, Long.toString(id)));
+            }
+            searcherManager.maybeRefreshBlocking();
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Searches the catalog by brand name, active ingredient, manufacturer and ATC code.
+     * All words of the query must match; the last word also matches as a prefix.
+     * @param query The search text.
+     * @param page The zero-based page number.
+     * @param size The number of drugs per page.
+     * @return A DrugSearchPageDto with the matching drugs, most relevant first.
+     * @throws InvalidPageRequestError if the query has no searchable words or the page is out of range.
+     */
+    public DrugSearchPageDto search(String query, int page, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidPageRequestError("Page size must be between 1 and " + maxPageSize);
+        }
+        if (page < 0 || (long) (page + 1) * size > maxResults) {
+            throw new InvalidPageRequestError("Search results can be paged up to the first " + maxResults + " hits");
+        }
+        var luceneQuery = toQuery(query);
+
+        return searchTimer.record(() -> {
+            try {
+                var searcher = searcherManager.acquire();
+                try {
+                    // Counting hits only as far as the requested page lets the scorer skip
+                    // blocks of documents that cannot make it into the results.
+                    var hits = (page + 1) * size;
+                    var topDocs = searcher.search(luceneQuery, new TopScoreDocCollectorManager(hits, null, hits));
+                    var storedFields = searcher.storedFields();
+                    var items = new ArrayList<DrugSummaryDto>(size);
+                    for (var i = page * size; i < topDocs.scoreDocs.length; i++) {
+                        items.add(toSummaryDto(storedFields.document(topDocs.scoreDocs[i].doc)));
+                    }
+                    return new DrugSearchPageDto(items, page, size, topDocs.totalHits.value);
+                }
+                finally {
+                    searcherManager.release(searcher);
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Closes the index when the application shuts down.
+     * @throws IOException if the index cannot be closed.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    /**
+     * Builds the Lucene query for a search text.
+     * Each word must match in at least one field, scored by its best field.
+     * @param text The search text.
+     * @return The query.
+     * @throws InvalidPageRequestError if the text has no searchable words.
+     */
+    private Query toQuery(String text) {
+        var words = analyze(text);
+        if (words.isEmpty()) {
+            throw new InvalidPageRequestError("Search query must contain at least one word");
+        }
+
+        var query = new BooleanQuery.Builder();
+        for (var i = 0; i < words.size(); i++) {
+            var word = words.get(i);
+            var asPrefix = i == words.size() - 1 && word.length() >= MIN_PREFIX_LENGTH && word.length() <= MAX_PREFIX_LENGTH;
+            var perField = new ArrayList<Query>(FIELD_BOOSTS.size());
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                Query match = new TermQuery(new Term(field, word));
+                if (asPrefix) {
+                    match = new BooleanQuery.Builder()
+                            .add(match, BooleanClause.Occur.SHOULD)
+                            .add(new TermQuery(new Term(field + PREFIX_SUFFIX, word)), BooleanClause.Occur.SHOULD)
+                            .build();
+                }
+                perField.add(new BoostQuery(match, boost));
+            });
+            query.add(new DisjunctionMaxQuery(perField, 0f), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    /**
+     * Splits a search text into index terms with the analyzer the index was built with.
+     * @param text The search text.
+     * @return The terms, in order.
+     */
+    private List<String> analyze(String text) {
+        var terms = new ArrayList<String>();
+        if (text == null) {
+            return terms;
+        }
+        try (var stream = analyzer.tokenStream(BRAND_NAME, text)) {
+            var term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Converts a drug to its index document.
+     * @param drug The drug entity.
+     * @return The document, with the searched fields indexed and the summary fields stored.
+     */
+    private static Document toDocument(DrugEntity drug) {
+        var document = new Document();
+        document.add(new StringField(ID, Long.toString(drug.getId()), Field.Store.YES));
+        addText(document, BRAND_NAME, drug.getBrandName());
+        addText(document, ACTIVE_INGREDIENT, drug.getActiveIngredient());
+        addText(document, MANUFACTURER, drug.getManufacturer());
+        addText(document, ATC_CODE, drug.getAtcCode());
+        document.add(new StoredField(PRICE, drug.getPrice()));
+        document.add(new StoredField(AVAILABLE_COPIES, drug.getAvailableCopies()));
+        if (drug.getExpirationDate() != null) {
+            document.add(new StoredField(EXPIRATION_DATE, DrugMapper.format(drug.getExpirationDate())));
+        }
+        if (drug.getGraphicLink() != null) {
+            document.add(new StoredField(GRAPHIC_LINK, drug.getGraphicLink()));
+        }
+        return document;
+    }
+
+    /**
+     * Adds a searched and stored text field and its prefix field, skipping missing values.
+     * @param document The document.
+     * @param name The field name.
+     * @param value The field value, or null.
+     */
+    private static void addText(Document document, String name, String value) {
+        if (value != null) {
+            document.add(new TextField(name, value, Field.Store.YES));
+            document.add(new TextField(name + PREFIX_SUFFIX, value, Field.Store.NO));
+        }
+    }
+
+    /**
+     * Creates the analyzer used when indexing: the search analyzer for the searched fields, and
+     * for their prefix fields the same words broken into their leading n-grams.
+     * @param searchAnalyzer The analyzer used for the searched fields and for queries.
+     * @return The index analyzer.
+     */
+    private static Analyzer createIndexAnalyzer(Analyzer searchAnalyzer) {
+        var prefixAnalyzer = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                var tokenizer = new StandardTokenizer();
+                var words = new LowerCaseFilter(tokenizer);
+                return new TokenStreamComponents(tokenizer, new EdgeNGramTokenFilter(words, MIN_PREFIX_LENGTH, MAX_PREFIX_LENGTH, true));
+            }
+        };
+        var perField = new HashMap<String, Analyzer>();
+        for (var field : FIELD_BOOSTS.keySet()) {
+            perField.put(field + PREFIX_SUFFIX, prefixAnalyzer);
+        }
+        return new PerFieldAnalyzerWrapper(searchAnalyzer, perField);
+    }
+
+    /**
+     * Converts an index document back to a drug summary.
+     * @param document The stored fields of the document.
+     * @return The DrugSummaryDto.
+     */
+    private static DrugSummaryDto toSummaryDto(Document document) {
+        var availableCopies = document.getField(AVAILABLE_COPIES).numericValue().intValue();
+        var expirationDate = document.get(EXPIRATION_DATE);
+        return new DrugSummaryDto(
+                Long.parseLong(document.get(ID)),
+                document.get(BRAND_NAME),
+                document.get(MANUFACTURER),
+                document.get(ACTIVE_INGREDIENT),
+                document.getField(PRICE).numericValue().doubleValue(),
+                expirationDate,
+                DrugMapper.isAvailable(availableCopies, expirationDate != null ? LocalDate.parse(expirationDate) : null),
+                document.get(GRAPHIC_LINK));
+    }
+}
\ No newline at end of file
@@ -1,15 +1,40 @@
 package org.example.pharmacy.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.example.pharmacy.controller.dto.CreateDrugDto;
 import org.example.pharmacy.controller.dto.CreateDrugResponseDto;
+import org.example.pharmacy.controller.dto.DrugPageDto;
+import org.example.pharmacy.controller.dto.DrugSummaryDto;
 import org.example.pharmacy.controller.dto.GetDrugDto;
-import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugMonographRepository;
 import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.infrastructure.repository.DrugSummaryView;
 import org.example.pharmacy.service.errors.DrugNotFoundError;
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Service for managing drug-related operations.
@@ -17,83 +42,366 @@ import java.util.List;
 @Service
 public class DrugService {
 
+    /**
+     * Number of exported rows written between explicit flushes of the response.
+     */
+    private static final int EXPORT_FLUSH_INTERVAL = 256;
+
+    /**
+     * An ATC code or the leading levels of one, such as N, N02, N02B or N02BE01.
+     */
+    private static final Pattern ATC_PREFIX = Pattern.compile("[A-Z](\\d{2}([A-Z]([A-Z](\\d{1,2})?)?)?)?");
+
     private final DrugRepository drugRepository;
+    private final DrugMonographRepository monographRepository;
+    private final DrugCache drugCache;
+    private final CatalogVersion catalogVersion;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotStockEngine stockEngine;
+    private final int maxPageSize;
+    private final int maxExpiringDays;
 
     /**
      * Constructs a DrugService with the given DrugRepository.
      * @param drugRepository The drug repository.
+     * @param monographRepository The drug monograph repository.
+     * @param drugCache The cache of drug details.
+     * @param catalogVersion The version of the catalog, bumped on every change.
+     * @param entityManager The entity manager, used to detach streamed rows.
+     * @param objectMapper The object mapper used for exports.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param stockEngine The engine keeping the stock of hot drugs in memory, if it is enabled.
+     * @param maxPageSize The largest page size a catalog request may ask for.
+     * @param maxExpiringDays The furthest ahead, in days, an expiring drugs request may look.
      */
     @Autowired
-    public DrugService(DrugRepository drugRepository){
+    public DrugService(DrugRepository drugRepository, DrugMonographRepository monographRepository, DrugCache drugCache, CatalogVersion catalogVersion, EntityManager entityManager, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher, ObjectProvider<HotStockEngine> stockEngine, @Value("${drugs.page.max-size}") int maxPageSize, @Value("${drugs.expiring.max-days}") int maxExpiringDays){
         this.drugRepository = drugRepository;
+        this.monographRepository = monographRepository;
+        this.drugCache = drugCache;
+        this.catalogVersion = catalogVersion;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.stockEngine = stockEngine.getIfAvailable();
+        this.maxPageSize = maxPageSize;
+        this.maxExpiringDays = maxExpiringDays;
     }
 
     /**
-     * Retrieves all drugs.
-     * @return A list of GetDrugDto objects.
+     * Retrieves one page of drug summaries using keyset pagination.
+     * Drugs without an expiration date are listed after all the others when sorting by it.
+     * @param sortKey The key to sort the catalog by.
+     * @param atc An ATC code prefix to filter by, or null.
+     * @param ingredient An active ingredient to filter by, or null.
+     * @param size The number of drugs per page.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     * @throws InvalidPageRequestError if the size is out of range, the cursor is invalid or the filters are.
      */
-    public List<GetDrugDto> getAll(){
-        var drugs = drugRepository.findAll();
+    public DrugPageDto<DrugSummaryDto> getPage(DrugSortKey sortKey, String atc, String ingredient, int size, String cursor){
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidPageRequestError("Page size must be between 1 and " + maxPageSize);
+        }
+        if (atc != null && ingredient != null) {
+            throw new InvalidPageRequestError("Filter by either atc or ingredient, not both");
+        }
 
-        return drugs.stream()
-                .map((drug) -> new GetDrugDto(drug.getId(), drug.getMa(), drug.getPrice(), drug.getBrandName(), drug.getManufacturer(), drug.getActiveIngredient(), drug.getNdc(), drug.getAtcCode(), drug.getDrugForm(), drug.getRouteOfAdministration(), drug.getPrescriptionStatus(), drug.getControlledSubstanceStatus(), drug.getContraindications(), drug.getSideEffects(), drug.getDosage(), drug.getBatchNumber(), drug.getExpirationDate(), drug.getStorageConditions(), drug.getAvailableCopies() > 0, drug.getGraphicLink()))
-                .toList();
+        var position = DrugPageCursor.decode(sortKey, cursor);
+        CatalogQuery query;
+        if (atc != null) {
+            var atcPrefix = atc.strip().toUpperCase(Locale.ROOT);
+            if (!ATC_PREFIX.matcher(atcPrefix).matches()) {
+                throw new InvalidPageRequestError("ATC filter must be an ATC code or its leading levels, such as N02B or N02BE01");
+            }
+            query = new CatalogQuery(
+                    (at, sort, limit) -> drugRepository.findByAtcCodeStartingWith(atcPrefix, at, sort, limit),
+                    (at, sort, limit) -> drugRepository.findByAtcCodeStartingWithAndExpirationDateNotNull(atcPrefix, at, sort, limit),
+                    (at, sort, limit) -> drugRepository.findByAtcCodeStartingWithAndExpirationDateNull(atcPrefix, at, sort, limit));
+        }
+        else if (ingredient != null) {
+            var activeIngredient = ingredient.strip();
+            query = new CatalogQuery(
+                    (at, sort, limit) -> drugRepository.findByActiveIngredient(activeIngredient, at, sort, limit),
+                    (at, sort, limit) -> drugRepository.findByActiveIngredientAndExpirationDateNotNull(activeIngredient, at, sort, limit),
+                    (at, sort, limit) -> drugRepository.findByActiveIngredientAndExpirationDateNull(activeIngredient, at, sort, limit));
+        }
+        else {
+            query = new CatalogQuery(drugRepository::findAllBy, drugRepository::findByExpirationDateNotNull, drugRepository::findByExpirationDateNull);
+        }
+
+        if (sortKey.isNullable()) {
+            return toNullsLastPage(sortKey, query, position, size);
+        }
+        return toPage(sortKey, query.all().find(position, sortKey.toSort(), Limit.of(size)));
+    }
+
+    /**
+     * Retrieves one page of the drugs that expire between today and a number of days from now,
+     * soonest first. The query is a range scan of the (expirationDate, id) index.
+     * @param withinDays How many days ahead to look; 0 returns the drugs expiring today.
+     * @param size The number of drugs per page.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     * @throws InvalidPageRequestError if the number of days or the size is out of range, or the cursor is invalid.
+     */
+    public DrugPageDto<DrugSummaryDto> getExpiring(int withinDays, int size, String cursor){
+        if (withinDays < 0 || withinDays > maxExpiringDays) {
+            throw new InvalidPageRequestError("withinDays must be between 0 and " + maxExpiringDays);
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidPageRequestError("Page size must be between 1 and " + maxPageSize);
+        }
+
+        var sortKey = DrugSortKey.EXPIRATION_DATE;
+        var position = DrugPageCursor.decode(sortKey, cursor);
+        if (DrugPageCursor.isPastKeyedDrugs(sortKey, position)) {
+            throw new InvalidPageRequestError("Malformed cursor");
+        }
+        var today = LocalDate.now();
+        var window = drugRepository.findByExpirationDateBetween(today, today.plusDays(withinDays), position, sortKey.toSort(), Limit.of(size));
+        return toPage(sortKey, window);
     }
 
     /**
-     * Retrieves a drug by its ID.
+     * Gets the entity tag of the current catalog version.
+     * Read it before querying the catalog, so a change made during the query yields a newer tag
+     * on the next request rather than a stale page under a fresh tag.
+     * @return The quoted ETag value.
+     */
+    public String getCatalogETag(){
+        return catalogVersion.getETag();
+    }
+
+    /**
+     * Writes the whole catalog to the given stream as newline-delimited JSON, one drug per line.
+     * Rows are read through a forward-only cursor and detached once written, so memory use does
+     * not grow with the size of the catalog. Each row is written straight from its entities, in
+     * the same JSON as a GetDrugDto, without building one.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream out) throws IOException {
+        var writer = objectMapper.writer().withRootValueSeparator("\n");
+
+        try (var drugs = drugRepository.streamAllDetails(); var generator = writer.createGenerator(out)) {
+            var written = 0;
+            for (var iterator = drugs.iterator(); iterator.hasNext(); ) {
+                var detail = iterator.next();
+                DrugJsonWriter.write(generator, detail.getDrug(), detail.getMonograph());
+                entityManager.detach(detail.getDrug());
+                if (detail.getMonograph() != null) {
+                    entityManager.detach(detail.getMonograph());
+                }
+
+                if (++written % EXPORT_FLUSH_INTERVAL == 1) {
+                    generator.flush();
+                }
+            }
+            if (written > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * Retrieves a drug by its ID, serving it from the cache when possible.
+     * The availability of a hot drug is read from its in-memory stock counter.
      * @param id The ID of the drug.
      * @return The GetDrugDto for the drug.
      * @throws DrugNotFoundError if the drug is not found.
      */
     public GetDrugDto getById(long id){
-        var drugEntity = drugRepository.findById(id)
-                .orElseThrow(() -> new DrugNotFoundError(id));
+        var drug = drugCache.get(id, this::loadById);
+        var available = stockEngine != null ? stockEngine.isAvailable(id) : null;
+        return available != null && available != drug.isAvailable()
+                ? DrugMapper.withAvailability(drug, available)
+                : drug;
+    }
+
+    /**
+     * Retrieves a drug by its MA number.
+     * @param ma The MA number.
+     * @return The GetDrugDto for the drug.
+     * @throws DrugNotFoundError if no drug has the MA number.
+     */
+    public GetDrugDto getByMa(String ma){
+        return drugRepository.findDetailByMa(ma)
+                .map(DrugMapper::toDto)
+                .orElseThrow(() -> new DrugNotFoundError("MA number", ma));
+    }
 
-        return new GetDrugDto(drugEntity.getId(), drugEntity.getMa(), drugEntity.getPrice(), drugEntity.getBrandName(), drugEntity.getManufacturer(), drugEntity.getActiveIngredient(), drugEntity.getNdc(), drugEntity.getAtcCode(), drugEntity.getDrugForm(), drugEntity.getRouteOfAdministration(), drugEntity.getPrescriptionStatus(), drugEntity.getControlledSubstanceStatus(), drugEntity.getContraindications(), drugEntity.getSideEffects(), drugEntity.getDosage(), drugEntity.getBatchNumber(), drugEntity.getExpirationDate(), drugEntity.getStorageConditions(), drugEntity.getAvailableCopies() > 0, drugEntity.getGraphicLink());
+    /**
+     * Retrieves a drug by its National Drug Code.
+     * If several drugs share the code, the one with the lowest ID is returned.
+     * @param ndc The National Drug Code.
+     * @return The GetDrugDto for the drug.
+     * @throws DrugNotFoundError if no drug has the code.
+     */
+    public GetDrugDto getByNdc(String ndc){
+        return drugRepository.findDetailsByNdcIn(List.of(ndc)).stream()
+                .findFirst()
+                .map(DrugMapper::toDto)
+                .orElseThrow(() -> new DrugNotFoundError("NDC", ndc));
     }
 
     /**
-     * Creates a new drug.
+     * Retrieves the drugs carrying any of the given National Drug Codes in one query.
+     * Codes that match no drug are left out of the result.
+     * @param ndcs The National Drug Codes.
+     * @return The GetDrugDtos of the matching drugs, in ID order.
+     * @throws InvalidPageRequestError if no codes or more codes than the page size limit are given.
+     */
+    public List<GetDrugDto> getByNdcs(List<String> ndcs){
+        if (ndcs == null || ndcs.isEmpty() || ndcs.size() > maxPageSize) {
+            throw new InvalidPageRequestError("Between 1 and " + maxPageSize + " NDCs can be looked up at once");
+        }
+        return drugRepository.findDetailsByNdcIn(new LinkedHashSet<>(ndcs)).stream()
+                .map(DrugMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Loads a drug with its monograph by its ID from the database, in one query.
+     * @param id The ID of the drug.
+     * @return The GetDrugDto for the drug, or null if the drug is not found.
+     */
+    private GetDrugDto loadById(long id){
+        return drugRepository.findDetailById(id)
+                .map(DrugMapper::toDto)
+                .orElse(null);
+    }
+
+    /**
+     * Creates a new drug with its monograph.
+     * The drug cache entry is invalidated and the catalog version bumped only once the transaction
+     * has committed, so a reader can neither cache the drug's pre-commit state nor get the new
+     * ETag for a page read before the drug was visible.
      * @param drug The CreateDrugDto containing drug information.
      * @return A CreateDrugResponseDto for the created drug.
      */
+    @Transactional
     public CreateDrugResponseDto create(CreateDrugDto drug){
-        var drugEntity = new DrugEntity();
-        drugEntity.setMa(drug.getMa());
-        drugEntity.setPrice(drug.getPrice());
-        drugEntity.setBrandName(drug.getBrandName());
-        drugEntity.setManufacturer(drug.getManufacturer());
-        drugEntity.setActiveIngredient(drug.getActiveIngredient());
-        drugEntity.setNdc(drug.getNdc());
-        drugEntity.setAtcCode(drug.getAtcCode());
-        drugEntity.setDrugForm(drug.getDrugForm());
-        drugEntity.setRouteOfAdministration(drug.getRouteOfAdministration());
-        drugEntity.setPrescriptionStatus(drug.getPrescriptionStatus());
-        drugEntity.setControlledSubstanceStatus(drug.getControlledSubstanceStatus());
-        drugEntity.setContraindications(drug.getContraindications());
-        drugEntity.setSideEffects(drug.getSideEffects());
-        drugEntity.setDosage(drug.getDosage());
-        drugEntity.setBatchNumber(drug.getBatchNumber());
-        drugEntity.setExpirationDate(drug.getExpirationDate());
-        drugEntity.setStorageConditions(drug.getStorageConditions());
-        drugEntity.setAvailableCopies(drug.getAvailableCopies());
-        drugEntity.setGraphicLink(drug.getGraphicLink());
-
-        var newDrug = drugRepository.save(drugEntity);
-
-        return new CreateDrugResponseDto(newDrug.getId(), newDrug.getMa(), newDrug.getPrice(), newDrug.getBrandName(), newDrug.getManufacturer(), newDrug.getActiveIngredient(), newDrug.getNdc(), newDrug.getAtcCode(), newDrug.getDrugForm(), newDrug.getRouteOfAdministration(), newDrug.getPrescriptionStatus(), newDrug.getControlledSubstanceStatus(), newDrug.getContraindications(), newDrug.getSideEffects(), newDrug.getDosage(), newDrug.getBatchNumber(), newDrug.getExpirationDate(), newDrug.getStorageConditions(), newDrug.getAvailableCopies(), newDrug.getGraphicLink());
-    }
-
-    /**
-     * Deletes a drug by its ID.
+        var newDrug = drugRepository.save(DrugMapper.toEntity(drug));
+        var monograph = monographRepository.save(DrugMapper.toMonograph(drug, newDrug));
+        var id = newDrug.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                drugCache.invalidate(id);
+                catalogVersion.bump();
+            }
+        });
+        eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(List.of(newDrug)));
+
+        return DrugMapper.toCreateResponseDto(newDrug, monograph);
+    }
+
+    /**
+     * Deletes a drug by its ID in a single statement.
      * @param id The ID of the drug to delete.
      * @throws RuntimeException if the drug is not found.
      */
     public void delete(long id){
-        if (!drugRepository.existsById(id)){
+        if (drugRepository.deleteDrugById(id) == 0){
             throw new RuntimeException("Drug not found");
         }
-        drugRepository.deleteById(id);
+        drugCache.invalidate(id);
+        catalogVersion.bump();
+        eventPublisher.publishEvent(DrugCatalogChangedEvent.deleted(id));
+    }
+
+    /**
+     * Reads one page sorted by a nullable key, with the drugs that have no value for it last.
+     * Keyset pagination cannot seek past a null value, so the drugs with a value are read first,
+     * by the key and ID, and the page is then filled with the drugs without one, by ID. Only the
+     * page where the two meet costs a second query.
+     * @param sortKey The nullable sort key.
+     * @param query The queries of the requested filter.
+     * @param position The position decoded from the cursor.
+     * @param size The number of drugs per page.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     */
+    private static DrugPageDto<DrugSummaryDto> toNullsLastPage(DrugSortKey sortKey, CatalogQuery query, KeysetScrollPosition position, int size){
+        var byId = Sort.by("id");
+        if (DrugPageCursor.isPastKeyedDrugs(sortKey, position)) {
+            var after = ScrollPosition.forward(Map.of("id", position.getKeys().get("id")));
+            return toPage(sortKey, query.withoutKey().find(after, byId, Limit.of(size)));
+        }
+
+        var keyed = query.withKey().find(position, sortKey.toSort(), Limit.of(size));
+        if (keyed.hasNext()) {
+            return toPage(sortKey, keyed);
+        }
+
+        var remaining = size - keyed.size();
+        var unkeyed = query.withoutKey().find(ScrollPosition.keyset(), byId, Limit.of(Math.max(remaining, 1)));
+        if (remaining == 0) {
+            var next = unkeyed.isEmpty() ? null : (KeysetScrollPosition) keyed.positionAt(keyed.size() - 1);
+            return toPage(sortKey, keyed.getContent(), next);
+        }
+
+        var drugs = new ArrayList<DrugSummaryView>(keyed.size() + unkeyed.size());
+        drugs.addAll(keyed.getContent());
+        drugs.addAll(unkeyed.getContent());
+        var next = unkeyed.hasNext() ? (KeysetScrollPosition) unkeyed.positionAt(unkeyed.size() - 1) : null;
+        return toPage(sortKey, drugs, next);
+    }
+
+    /**
+     * Converts a window of drug summaries to a page with the cursor for the next one.
+     * @param sortKey The sort key of the window.
+     * @param window The window read from the repository.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     */
+    private static DrugPageDto<DrugSummaryDto> toPage(DrugSortKey sortKey, Window<DrugSummaryView> window){
+        var next = window.hasNext() && !window.isEmpty()
+                ? (KeysetScrollPosition) window.positionAt(window.size() - 1)
+                : null;
+        return toPage(sortKey, window.getContent(), next);
+    }
+
+    /**
+     * Converts drug summaries to a page with the cursor for the next one.
+     * @param sortKey The sort key of the page.
+     * @param drugs The drug summaries on the page.
+     * @param next The keyset position of the last drug on the page, or null if no page follows.
+     * @return A DrugPageDto with the drug summaries and the cursor for the next page.
+     */
+    private static DrugPageDto<DrugSummaryDto> toPage(DrugSortKey sortKey, List<DrugSummaryView> drugs, KeysetScrollPosition next){
+        var items = drugs.stream()
+                .map(DrugMapper::toSummaryDto)
+                .toList();
+        var nextCursor = next != null ? DrugPageCursor.encode(sortKey, next) : null;
+
+        return new DrugPageDto<>(items, nextCursor);
+    }
+
+    /**
+     * Reads one page of drug summaries from a keyset position.
+     */
+    @FunctionalInterface
+    private interface WindowQuery {
+        /**
+         * Reads the page.
+         * @param position The keyset position to continue from.
+         * @param sort The sort order.
+         * @param limit The maximum number of drugs to return.
+         * @return A window with the drug summaries and whether more follow.
+         */
+        Window<DrugSummaryView> find(ScrollPosition position, Sort sort, Limit limit);
+    }
+
+    /**
+     * The queries of one catalog filter: over all its drugs, and split by whether they have an
+     * expiration date for the pages sorted by it.
+     * @param all Reads the drugs matching the filter.
+     * @param withKey Reads the drugs matching the filter that have an expiration date.
+     * @param withoutKey Reads the drugs matching the filter that have no expiration date.
+     */
+    private record CatalogQuery(WindowQuery all, WindowQuery withKey, WindowQuery withoutKey) {
     }
 }
\ No newline at end of file
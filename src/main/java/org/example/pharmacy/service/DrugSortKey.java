@@ -0,0 +1,129 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Sort keys supported by the paginated drug catalog.
+ * Every key is paired with the drug ID as a tie-breaker so that the ordering is total.
+ * Drugs without a value for a nullable key are listed after all the others, in ID order.
+ */
+public enum DrugSortKey {
+    ID("id", false),
+    PRICE("price", false),
+    BRAND_NAME("brandName", false),
+    EXPIRATION_DATE("expirationDate", true);
+
+    private final String property;
+    private final boolean nullable;
+
+    DrugSortKey(String property, boolean nullable) {
+        this.property = property;
+        this.nullable = nullable;
+    }
+
+    /**
+     * Gets the entity property this key sorts by.
+     * @return The property name.
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Tells whether drugs may have no value for the property this key sorts by.
+     * @return True if the property is nullable.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Builds the Sort used for keyset queries on this key.
+     * @return The Sort, ascending on the property and then on the ID.
+     */
+    public Sort toSort() {
+        if (this == ID) {
+            return Sort.by("id");
+        }
+        return Sort.by(property).and(Sort.by("id"));
+    }
+
+    /**
+     * Converts a keyset value decoded from a cursor back to the property's Java type.
+     * @param value The decoded value; null for a nullable key past the drugs that have a value.
+     * @return The value in the type expected by the query.
+     * @throws InvalidPageRequestError if the value does not fit the property.
+     */
+    Object fromCursorValue(Object value) {
+        if (value == null && nullable) {
+            return null;
+        }
+        return switch (this) {
+            case ID -> toLong(value);
+            case PRICE -> {
+                if (!(value instanceof Number number)) {
+                    throw new InvalidPageRequestError("Malformed cursor");
+                }
+                yield number.doubleValue();
+            }
+            case BRAND_NAME -> {
+                if (!(value instanceof String string)) {
+                    throw new InvalidPageRequestError("Malformed cursor");
+                }
+                yield string;
+            }
+            case EXPIRATION_DATE -> {
+                if (!(value instanceof String string)) {
+                    throw new InvalidPageRequestError("Malformed cursor");
+                }
+                try {
+                    yield LocalDate.parse(string);
+                }
+                catch (DateTimeParseException e) {
+                    throw new InvalidPageRequestError("Malformed cursor");
+                }
+            }
+        };
+    }
+
+    /**
+     * Converts a keyset value of the property to a form that can be written into a cursor.
+     * @param value The value as read from the database.
+     * @return The value as a JSON-friendly type.
+     */
+    Object toCursorValue(Object value) {
+        return value instanceof LocalDate date ? date.toString() : value;
+    }
+
+    /**
+     * Converts a decoded cursor value to a drug ID.
+     * @param value The decoded value.
+     * @return The drug ID.
+     * @throws InvalidPageRequestError if the value is not a number.
+     */
+    static long toLong(Object value) {
+        if (!(value instanceof Number number)) {
+            throw new InvalidPageRequestError("Malformed cursor");
+        }
+        return number.longValue();
+    }
+
+    /**
+     * Resolves a sort key from its request parameter value.
+     * @param value The property name as given in the request.
+     * @return The matching DrugSortKey.
+     * @throws InvalidPageRequestError if the value is not a supported sort key.
+     */
+    public static DrugSortKey fromParameter(String value) {
+        for (var key : values()) {
+            if (key.property.equals(value)) {
+                return key;
+            }
+        }
+        throw new InvalidPageRequestError("Unsupported sort key '" + value + "'. Use one of: id, price, brandName, expirationDate");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.controller.dto.StockLevelDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.DrugNotFoundError;
+import org.example.pharmacy.service.errors.InsufficientStockError;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Adjusts the stock of drugs as copies are sold and received.
+ * Every adjustment is a single conditional UPDATE of the drug row, so concurrent sales of the same
+ * drug queue on its row lock instead of overwriting each other, and a sale that would take the
+ * stock below zero is refused. Caches and in-memory catalog structures are only refreshed when an
+ * adjustment changes whether the drug is available.
+ * When the {@link HotStockEngine} is enabled, hot drugs are adjusted in memory by the engine instead.
+ */
+@Service
+public class DrugStockService {
+
+    /**
+     * The outcome of an adjustment.
+     * @param level The stock after the adjustment.
+     * @param changed The drug, loaded only if its availability changed; null otherwise.
+     */
+    private record Adjustment(StockLevelDto level, DrugEntity changed) {
+    }
+
+    private final DrugRepository drugRepository;
+    private final DrugCache drugCache;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final HotStockEngine stockEngine;
+
+    /**
+     * Constructs a DrugStockService.
+     * @param drugRepository The drug repository.
+     * @param drugCache The cache of drug details, invalidated when availability changes.
+     * @param catalogVersion The version of the catalog, bumped when availability changes.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param transactionManager The transaction manager used for each adjustment.
+     * @param stockEngine The engine keeping the stock of hot drugs in memory, if it is enabled.
+     */
+    @Autowired
+    public DrugStockService(DrugRepository drugRepository, DrugCache drugCache, CatalogVersion catalogVersion,
+                            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                            ObjectProvider<HotStockEngine> stockEngine) {
+        this.drugRepository = drugRepository;
+        this.drugCache = drugCache;
+        this.catalogVersion = catalogVersion;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockEngine = stockEngine.getIfAvailable();
+    }
+
+    /**
+     * Adds copies to or removes copies from the stock of a drug.
+     * @param id The ID of the drug.
+     * @param delta The number of copies to add; negative to remove copies.
+     * @return The stock after the adjustment.
+     * @throws DrugNotFoundError if the drug is not found.
+     * @throws InsufficientStockError if the drug has fewer copies than the adjustment removes.
+     */
+    public StockLevelDto adjust(long id, int delta) {
+        return stockEngine != null
+                ? stockEngine.adjust(id, delta, () -> adjustInDatabase(id, delta))
+                : adjustInDatabase(id, delta);
+    }
+
+    /**
+     * Adjusts the stock of a drug with a conditional UPDATE of its row.
+     * @param id The ID of the drug.
+     * @param delta The number of copies to add; negative to remove copies.
+     * @return The stock after the adjustment.
+     * @throws DrugNotFoundError if the drug is not found.
+     * @throws InsufficientStockError if the drug has fewer copies than the adjustment removes.
+     */
+    private StockLevelDto adjustInDatabase(long id, int delta) {
+        var adjustment = transactionTemplate.execute(status -> {
+            var adjusted = drugRepository.adjustAvailableCopies(id, delta) > 0;
+            var stock = drugRepository.findStockById(id)
+                    .orElseThrow(() -> new DrugNotFoundError(id));
+            if (!adjusted) {
+                throw new InsufficientStockError(id, stock.getAvailableCopies(), -delta);
+            }
+
+            var copies = stock.getAvailableCopies();
+            var available = DrugMapper.isAvailable(copies, stock.getExpirationDate());
+            var wasAvailable = DrugMapper.isAvailable(copies - delta, stock.getExpirationDate());
+            var changed = available != wasAvailable ? drugRepository.findById(id).orElse(null) : null;
+            return new Adjustment(new StockLevelDto(id, copies, available), changed);
+        });
+
+        if (adjustment.changed() != null) {
+            drugCache.invalidate(id);
+            catalogVersion.bump();
+            eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(List.of(adjustment.changed())));
+        }
+        return adjustment.level();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+package org.example.pharmacy.service;
+
+import jakarta.persistence.EntityManager;
+import org.example.pharmacy.controller.dto.DrugSuggestionDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Type-ahead suggestions for brand names and active ingredients, answered from memory.
+ * Suggestions are ranked by whether any drug carrying them is available and then by how many
+ * drugs carry them. Lookups read a published {@link SuggestionTrie} without locking; catalog
+ * changes are applied one at a time and publish a new trie. Drugs that expire are republished
+ * by {@link DrugExpiryRollover} the day after their expiration date, which updates the ranking.
+ */
+@Service
+public class DrugSuggestService {
+    static final String BRAND_NAME = "brandName";
+    static final String ACTIVE_INGREDIENT = "activeIngredient";
+
+    private static final Logger log = LoggerFactory.getLogger(DrugSuggestService.class);
+    private static final char ID_SEPARATOR = '\0';
+
+    /**
+     * What one drug contributes to the suggestions.
+     * @param brandName The brand name, or null.
+     * @param activeIngredient The active ingredient, or null.
+     * @param available Whether the drug is available.
+     */
+    private record Contribution(String brandName, String activeIngredient, boolean available) {
+    }
+
+    private final DrugRepository drugRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxResults;
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    /**
+     * Current suggestions keyed by kind and normalized text.
+     */
+    private final Map<String, SuggestionTrie.Suggestion> suggestions = new HashMap<>();
+    private volatile SuggestionTrie trie;
+
+    /**
+     * Constructs a DrugSuggestService with no suggestions.
+     * @param drugRepository The drug repository the suggestions are built from.
+     * @param entityManager The entity manager, used to detach streamed rows.
+     * @param transactionManager The transaction manager used to read the catalog at startup.
+     * @param maxResults The largest number of suggestions a request may ask for.
+     */
+    @Autowired
+    public DrugSuggestService(DrugRepository drugRepository, EntityManager entityManager,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${drugs.suggest.max-results}") int maxResults) {
+        this.drugRepository = drugRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxResults = maxResults;
+        this.trie = new SuggestionTrie(maxResults);
+    }
+
+    /**
+     * Builds the suggestions from the whole catalog once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSuggestions() {
+        var start = System.nanoTime();
+        updateLock.lock();
+        try {
+            var loaded = transactionTemplate.execute(status -> {
+                try (var drugs = drugRepository.streamAllBy()) {
+                    var count = 0;
+                    var changed = new HashSet<String>();
+                    for (var iterator = drugs.iterator(); iterator.hasNext(); ) {
+                        var drug = iterator.next();
+                        count(drug, changed);
+                        changed.clear();
+                        entityManager.detach(drug);
+                        count++;
+                    }
+                    return count;
+                }
+            });
+            var entries = new ArrayList<Map.Entry<String, SuggestionTrie.Suggestion>>(suggestions.size());
+            suggestions.forEach((id, suggestion) -> entries.add(Map.entry(keyOf(id), suggestion)));
+            trie = SuggestionTrie.of(entries, maxResults);
+            log.info("Loaded {} suggestions from {} drugs in {} ms", entries.size(), loaded, (System.nanoTime() - start) / 1_000_000);
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a catalog change to the suggestions after the change has committed.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(DrugCatalogChangedEvent event) {
+        apply(event.saved(), event.deletedIds());
+    }
+
+    /**
+     * Suggests brand names and active ingredients starting with a prefix.
+     * Matching ignores case and repeated whitespace.
+     * @param prefix The typed prefix; an empty prefix returns the best suggestions overall.
+     * @param limit The largest number of suggestions to return.
+     * @return The suggestions, best first.
+     * @throws InvalidPageRequestError if the limit is out of range.
+     */
+    public List<DrugSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > maxResults) {
+            throw new InvalidPageRequestError("Suggestion limit must be between 1 and " + maxResults);
+        }
+        return trie.find(normalize(prefix), limit).stream()
+                .map(s -> new DrugSuggestionDto(s.text(), s.kind(), s.drugCount(), s.availableCount() > 0))
+                .toList();
+    }
+
+    /**
+     * Replaces the contributions of saved drugs, removes those of deleted drugs and publishes
+     * a trie with every changed suggestion replaced.
+     * @param saved The drugs that were created or updated.
+     * @param deletedIds The IDs of the drugs that were deleted.
+     */
+    private void apply(List<DrugEntity> saved, List<Long> deletedIds) {
+        updateLock.lock();
+        try {
+            var changed = new HashSet<String>();
+            for (var drug : saved) {
+                count(drug, changed);
+            }
+            for (var id : deletedIds) {
+                var previous = contributions.remove(id);
+                if (previous != null) {
+                    count(previous, -1, changed);
+                }
+            }
+
+            var next = trie;
+            for (var id : changed) {
+                next = next.put(keyOf(id), kindOf(id), suggestions.get(id));
+            }
+            trie = next;
+        }
+        finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Records the contribution of a created or updated drug, replacing its previous one.
+     * @param drug The drug.
+     * @param changed The IDs of the suggestions changed so far, added to.
+     */
+    private void count(DrugEntity drug, Set<String> changed) {
+        var contribution = new Contribution(drug.getBrandName(), drug.getActiveIngredient(), DrugMapper.isAvailable(drug.getAvailableCopies(), drug.getExpirationDate()));
+        var previous = contributions.put(drug.getId(), contribution);
+        if (previous != null) {
+            count(previous, -1, changed);
+        }
+        count(contribution, 1, changed);
+    }
+
+    /**
+     * Adds or subtracts one drug's contribution to the suggestion counts.
+     * @param contribution The drug's contribution.
+     * @param sign 1 to add the drug, -1 to subtract it.
+     * @param changed The IDs of the suggestions changed so far, added to.
+     */
+    private void count(Contribution contribution, int sign, Set<String> changed) {
+        count(BRAND_NAME, contribution.brandName(), contribution.available(), sign, changed);
+        count(ACTIVE_INGREDIENT, contribution.activeIngredient(), contribution.available(), sign, changed);
+    }
+
+    /**
+     * Adds or subtracts one drug from the counts of a suggestion.
+     * @param kind What the text is.
+     * @param text The text as stored on the drug, or null.
+     * @param available Whether the drug is available.
+     * @param sign 1 to add the drug, -1 to subtract it.
+     * @param changed The IDs of the suggestions changed so far, added to.
+     */
+    private void count(String kind, String text, boolean available, int sign, Set<String> changed) {
+        var key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        var id = kind + ID_SEPARATOR + key;
+        var current = suggestions.get(id);
+        var drugCount = (current != null ? current.drugCount() : 0) + sign;
+        var availableCount = (current != null ? current.availableCount() : 0) + (available ? sign : 0);
+        if (drugCount <= 0) {
+            suggestions.remove(id);
+        }
+        else {
+            var shown = current != null && sign < 0 ? current.text() : text.strip();
+            suggestions.put(id, new SuggestionTrie.Suggestion(shown, kind, drugCount, availableCount));
+        }
+        changed.add(id);
+    }
+
+    /**
+     * Gets the normalized key from a suggestion ID.
+     * @param id The suggestion ID: the kind and the key, separated by {@link #ID_SEPARATOR}.
+     * @return The key.
+     */
+    private static String keyOf(String id) {
+        return id.substring(id.indexOf(ID_SEPARATOR) + 1);
+    }
+
+    /**
+     * Gets the kind from a suggestion ID.
+     * @param id The suggestion ID: the kind and the key, separated by {@link #ID_SEPARATOR}.
+     * @return The kind.
+     */
+    private static String kindOf(String id) {
+        return id.substring(0, id.indexOf(ID_SEPARATOR));
+    }
+
+    /**
+     * Normalizes text for matching: lower case, trimmed, with runs of whitespace collapsed.
+     * @param text The text, or null.
+     * @return The normalized text.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,487 @@
+package org.example.pharmacy.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.pharmacy.controller.dto.StockLevelDto;
+import org.example.pharmacy.infrastructure.entity.StockJournalCheckpointEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.infrastructure.repository.StockJournalCheckpointRepository;
+import org.example.pharmacy.service.errors.InsufficientStockError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the stock of hot drugs in memory so that their sales do not queue on one row lock.
+ * A drug becomes hot when it is listed in drugs.stock.engine.hot-drugs or when its adjustments
+ * reach drugs.stock.engine.heat-threshold per second. From then on its adjustments are made on a
+ * {@link StripedStockCounter}, recorded in a {@link StockJournal} and written to the drugs table
+ * as net deltas in one batched UPDATE every flush interval, together with a checkpoint of the
+ * journal. At startup the journal segments after the checkpoint are replayed, so adjustments
+ * that were acknowledged but not yet written survive a crash.
+ * While a drug is hot its stock must only change through this engine. Catalog writes that
+ * overwrite the stock of a hot drug are detected from their change events and the counter is
+ * rebased onto the new stock; adjustments made while that happens can be miscounted by the
+ * counter, though never by the database.
+ * Drugs stay hot until they are deleted or the application stops.
+ */
+@Service
+@ConditionalOnProperty(name = "drugs.stock.engine.enabled", havingValue = "true")
+public class HotStockEngine {
+    private static final Logger log = LoggerFactory.getLogger(HotStockEngine.class);
+
+    private static final String APPLY_DELTA = "update pharmacy.drugs set available_copies = available_copies + ? where id = ?";
+
+    /**
+     * Number of gates counting adjustments that are running against the database.
+     */
+    private static final int GATES = 1024;
+
+    /**
+     * How long a promotion waits for running database adjustments before it gives up.
+     */
+    private static final long PROMOTION_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * A hot drug. Adjustments wait until its stock has been loaded.
+     */
+    private static final class HotDrug {
+        private final StripedStockCounter copies;
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private volatile boolean ready;
+        private volatile LocalDate expirationDate;
+        private volatile long flushedCopies;
+
+        /**
+         * Creates a hot drug whose stock is not loaded yet.
+         * @param stripes The number of stripes of its counter.
+         */
+        private HotDrug(int stripes) {
+            this.copies = new StripedStockCounter(stripes);
+        }
+
+        /**
+         * Waits until the stock of the drug has been loaded or the promotion was abandoned.
+         * @return Whether the stock was loaded.
+         */
+        private boolean awaitLoaded() {
+            try {
+                loaded.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the stock of a hot drug", e);
+            }
+            return ready;
+        }
+    }
+
+    private final DrugRepository drugRepository;
+    private final StockJournalCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DrugCache drugCache;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal journal;
+    private final Set<Long> hotDrugs;
+    private final int heatThreshold;
+    private final int stripes;
+    private final Duration flushInterval;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Long, HotDrug> counters = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray gates = new AtomicIntegerArray(GATES);
+    private final Map<Long, LongAdder> heat = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private long heatWindowStart = System.nanoTime();
+
+    /**
+     * Constructs a HotStockEngine.
+     * @param drugRepository The drug repository.
+     * @param checkpointRepository The repository of journal checkpoints.
+     * @param jdbcTemplate The JDBC template used for the batched UPDATEs.
+     * @param drugCache The cache of drug details, invalidated when availability changes.
+     * @param catalogVersion The version of the catalog, bumped when availability changes.
+     * @param eventPublisher The publisher of catalog change events.
+     * @param transactionManager The transaction manager used for each flush.
+     * @param hotDrugs The IDs of the drugs that are hot from startup.
+     * @param heatThreshold The adjustments per second at which a drug becomes hot; 0 to disable heat detection.
+     * @param stripes The number of stripes of each counter.
+     * @param flushInterval The time between flushes.
+     * @param journalDirectory The directory of the journal; must be set, and must survive restarts.
+     * @throws IOException if the journal directory cannot be created.
+     * @throws IllegalStateException if no journal directory is configured.
+     */
+    @Autowired
+    public HotStockEngine(DrugRepository drugRepository, StockJournalCheckpointRepository checkpointRepository,
+                          JdbcTemplate jdbcTemplate, DrugCache drugCache, CatalogVersion catalogVersion,
+                          ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                          @Value("${drugs.stock.engine.hot-drugs:}") Set<Long> hotDrugs,
+                          @Value("${drugs.stock.engine.heat-threshold}") int heatThreshold,
+                          @Value("${drugs.stock.engine.stripes}") int stripes,
+                          @Value("${drugs.stock.engine.flush-interval}") Duration flushInterval,
+                          @Value("${drugs.stock.engine.journal-directory:}") String journalDirectory) throws IOException {
+        if (journalDirectory.isBlank()) {
+            throw new IllegalStateException("drugs.stock.engine.journal-directory must be set to a persistent directory when the stock engine is enabled;"
+                    + " it holds acknowledged adjustments that are not yet in the database");
+        }
+        this.drugRepository = drugRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.drugCache = drugCache;
+        this.catalogVersion = catalogVersion;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new StockJournal(Path.of(journalDirectory).toAbsolutePath());
+        this.hotDrugs = hotDrugs;
+        this.heatThreshold = heatThreshold;
+        this.stripes = stripes;
+        this.flushInterval = flushInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "stock-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replays the journal segments written after the last checkpoint, promotes the configured
+     * hot drugs and starts flushing.
+     * @throws IOException if the journal cannot be read or a new segment cannot be created.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        var checkpoint = checkpointRepository.findById(journalKey())
+                .map(StockJournalCheckpointEntity::getSegment)
+                .orElse(0L);
+        var last = checkpoint;
+        var deltas = new HashMap<Long, Long>();
+        for (var segment : journal.segments()) {
+            last = Math.max(last, segment.number());
+            if (segment.number() > checkpoint) {
+                StockJournal.read(segment).forEach((id, delta) -> deltas.merge(id, delta, Long::sum));
+            }
+        }
+        if (last > checkpoint) {
+            var lastSegment = last;
+            transactionTemplate.executeWithoutResult(status -> write(deltas, lastSegment));
+            log.info("Replayed stock journal segments {} to {} with deltas for {} drugs", checkpoint + 1, last, deltas.size());
+        }
+        journal.deleteUpTo(last);
+        journal.open(last + 1);
+
+        hotDrugs.forEach(this::promote);
+        var interval = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops flushing, writes what is left in the journal and closes it.
+     * @throws InterruptedException if interrupted while waiting for a running flush.
+     * @throws IOException if the journal cannot be closed.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flushSafely();
+        journal.close();
+    }
+
+    /**
+     * Adjusts the stock of a drug in memory if it is hot, or through the database otherwise.
+     * @param id The ID of the drug.
+     * @param delta The number of copies to add; negative to remove copies.
+     * @param database Adjusts the stock in the database; called when the drug is not hot.
+     * @return The stock after the adjustment. For a hot drug the number of copies is read right after
+     *         the adjustment and may include concurrent ones.
+     * @throws InsufficientStockError if the drug has fewer copies than the adjustment removes.
+     */
+    public StockLevelDto adjust(long id, int delta, Supplier<StockLevelDto> database) {
+        var hot = counters.get(id);
+        if (hot == null) {
+            var gate = gate(id);
+            gates.incrementAndGet(gate);
+            try {
+                hot = counters.get(id);
+                if (hot == null) {
+                    if (heatThreshold > 0) {
+                        heat.computeIfAbsent(id, key -> new LongAdder()).increment();
+                    }
+                    return database.get();
+                }
+            }
+            finally {
+                gates.decrementAndGet(gate);
+            }
+        }
+        if (!hot.awaitLoaded()) {
+            return adjust(id, delta, database);
+        }
+
+        if (delta < 0 && !hot.copies.tryRemove(-(long) delta)) {
+            throw new InsufficientStockError(id, (int) hot.copies.sum(), -delta);
+        }
+        if (delta > 0) {
+            hot.copies.add(delta);
+        }
+        if (delta != 0) {
+            try {
+                journal.append(id, delta);
+            }
+            catch (UncheckedIOException e) {
+                hot.copies.add(-delta);
+                throw e;
+            }
+        }
+
+        var copies = hot.copies.sum();
+        var available = DrugMapper.isAvailable((int) copies, hot.expirationDate);
+        if (available != DrugMapper.isAvailable((int) hot.flushedCopies, hot.expirationDate)) {
+            requestFlush();
+        }
+        return new StockLevelDto(id, (int) copies, available);
+    }
+
+    /**
+     * Decides from its counter whether a hot drug is available.
+     * @param id The ID of the drug.
+     * @return Whether the drug is available, or null if it is not hot.
+     */
+    public Boolean isAvailable(long id) {
+        var hot = counters.get(id);
+        if (hot == null || !hot.ready) {
+            return null;
+        }
+        return DrugMapper.isAvailable((int) hot.copies.sum(), hot.expirationDate);
+    }
+
+    /**
+     * Rebases the counters of hot drugs whose stock was overwritten by a catalog change and forgets
+     * deleted drugs. Changes published by the engine itself carry the flushed stock and are ignored.
+     * @param event The change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(DrugCatalogChangedEvent event) {
+        for (var drug : event.saved()) {
+            var hot = counters.get(drug.getId());
+            if (hot == null || !hot.ready) {
+                continue;
+            }
+            hot.expirationDate = drug.getExpirationDate();
+            if (drug.getAvailableCopies() != hot.flushedCopies) {
+                hot.flushedCopies = drug.getAvailableCopies();
+                hot.copies.reset(drug.getAvailableCopies() + journal.pending(drug.getId()));
+                log.info("Rebased the stock of hot drug {} on {} copies", drug.getId(), drug.getAvailableCopies());
+            }
+        }
+        event.deletedIds().forEach(counters::remove);
+    }
+
+    /**
+     * Makes a drug hot by loading its stock into a counter.
+     * Adjustments of the drug that are already running against the database are waited for, so the
+     * loaded stock includes them; if they do not finish in time the drug stays cold for now.
+     * @param id The ID of the drug.
+     */
+    private void promote(long id) {
+        var hot = new HotDrug(stripes);
+        if (counters.putIfAbsent(id, hot) != null) {
+            return;
+        }
+        try {
+            var gate = gate(id);
+            var deadline = System.nanoTime() + PROMOTION_TIMEOUT;
+            while (gates.get(gate) > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(100_000);
+            }
+            var stock = gates.get(gate) == 0 ? drugRepository.findStockById(id).orElse(null) : null;
+            if (stock != null) {
+                hot.expirationDate = stock.getExpirationDate();
+                hot.flushedCopies = stock.getAvailableCopies();
+                hot.copies.reset(stock.getAvailableCopies());
+                hot.ready = true;
+                log.info("Drug {} is hot; its stock of {} copies is kept in memory", id, stock.getAvailableCopies());
+            }
+        }
+        catch (RuntimeException e) {
+            log.warn("Could not load the stock of hot drug {}", id, e);
+        }
+        finally {
+            if (!hot.ready) {
+                counters.remove(id, hot);
+            }
+            hot.loaded.countDown();
+        }
+    }
+
+    /**
+     * Promotes the drugs whose adjustments reached the heat threshold since the last check.
+     * Rates are measured over windows of at least a second.
+     */
+    private void detectHeat() {
+        var now = System.nanoTime();
+        var elapsed = now - heatWindowStart;
+        if (heatThreshold <= 0 || elapsed < TimeUnit.SECONDS.toNanos(1)) {
+            return;
+        }
+        heatWindowStart = now;
+        var hottest = new ArrayList<Long>();
+        heat.forEach((id, adjustments) -> {
+            if (adjustments.sum() * 1e9 / elapsed >= heatThreshold) {
+                hottest.add(id);
+            }
+        });
+        heat.clear();
+        hottest.forEach(this::promote);
+    }
+
+    /**
+     * Queues a flush ahead of schedule, unless one is already queued.
+     */
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushSafely);
+            }
+            catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Runs a flush and logs its failure instead of throwing, so the schedule keeps running.
+     */
+    private void flushSafely() {
+        try {
+            flush();
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn("Flushing the stock journal failed", e);
+        }
+    }
+
+    /**
+     * Seals the journal segment, writes its net deltas and checkpoint in one transaction and
+     * publishes the drugs whose availability changed with the write.
+     * If the write fails the deltas are kept for the next flush.
+     * @throws IOException if the journal cannot be sealed or the written segments cannot be deleted.
+     */
+    private void flush() throws IOException {
+        flushRequested.set(false);
+        detectHeat();
+        var sealed = journal.seal();
+        if (sealed == null) {
+            return;
+        }
+
+        Map<Long, Integer> levels;
+        try {
+            levels = transactionTemplate.execute(status -> write(sealed.deltas(), sealed.segment()));
+        }
+        catch (RuntimeException e) {
+            journal.restore(sealed);
+            throw e;
+        }
+        journal.deleteUpTo(sealed.segment());
+
+        var changed = new ArrayList<Long>();
+        levels.forEach((id, copies) -> {
+            var hot = counters.get(id);
+            if (hot != null && hot.ready) {
+                var wasAvailable = DrugMapper.isAvailable((int) hot.flushedCopies, hot.expirationDate);
+                hot.flushedCopies = copies;
+                if (DrugMapper.isAvailable(copies, hot.expirationDate) != wasAvailable) {
+                    changed.add(id);
+                }
+            }
+        });
+        if (!changed.isEmpty()) {
+            var drugs = drugRepository.findAllById(changed);
+            changed.forEach(drugCache::invalidate);
+            catalogVersion.bump();
+            eventPublisher.publishEvent(DrugCatalogChangedEvent.saved(drugs));
+        }
+    }
+
+    /**
+     * Adds net deltas to the drugs table in one batch and records the checkpoint.
+     * Must run inside a transaction.
+     * @param deltas The net delta of each drug.
+     * @param segment The number of the last journal segment the deltas include.
+     * @return The number of copies of each adjusted drug after the write.
+     */
+    private Map<Long, Integer> write(Map<Long, Long> deltas, long segment) {
+        var entries = List.copyOf(deltas.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_DELTA, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+        });
+
+        var checkpoint = new StockJournalCheckpointEntity();
+        checkpoint.setJournal(journalKey());
+        checkpoint.setSegment(segment);
+        checkpointRepository.save(checkpoint);
+
+        if (entries.isEmpty()) {
+            return Map.of();
+        }
+        var levels = new HashMap<Long, Integer>();
+        var placeholders = String.join(", ", Collections.nCopies(entries.size(), "?"));
+        jdbcTemplate.query("select id, available_copies from pharmacy.drugs where id in (" + placeholders + ")",
+                row -> {
+                    levels.put(row.getLong("id"), row.getInt("available_copies"));
+                },
+                entries.stream().map(Map.Entry::getKey).toArray());
+        return levels;
+    }
+
+    /**
+     * Gets the key of this journal's checkpoint.
+     * @return The absolute path of the journal directory.
+     */
+    private String journalKey() {
+        return journal.directory().toString();
+    }
+
+    /**
+     * Gets the gate a drug's database adjustments are counted in.
+     * @param id The ID of the drug.
+     * @return The index of the gate.
+     */
+    private static int gate(long id) {
+        return (int) (id ^ (id >>> 32)) & (GATES - 1);
+    }
+}
\ No newline at end of file
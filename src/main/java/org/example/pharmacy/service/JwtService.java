@@ -1,27 +1,97 @@
 package org.example.pharmacy.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.pharmacy.infrastructure.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for JWT (JSON Web Token) operations.
+ * The signing key and the parser are built once. Tokens that passed verification are remembered,
+ * keyed by their SHA-256 hash, until they expire, so repeat requests with the same token skip
+ * signature verification entirely. Issuing and verifying tokens are timed, with verifications
+ * tagged by whether they were served from the cache, parsed, or rejected.
  */
 @Service
 public class JwtService {
-    @Value("${security.token.validity}")
-    private long JWT_VALIDITY;
+    private final long jwtValidity;
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer createTimer;
+    private final Timer cachedTimer;
+    private final Timer parsedTimer;
+    private final Timer rejectedTimer;
 
-    @Value("${security.token.secret}")
-    private String SECRET_KEY;
+    /**
+     * A token that passed signature verification.
+     * @param username The subject of the token.
+     * @param expiresAtMillis The expiration time of the token in epoch milliseconds.
+     */
+    private record VerifiedToken(String username, long expiresAtMillis) {
+    }
+
+    /**
+     * Constructs a JwtService with the configured key, validity and cache size, and registers its metrics.
+     * @param jwtValidity How long issued tokens stay valid, in milliseconds.
+     * @param secretKey The HMAC secret used to sign and verify tokens.
+     * @param cacheSize The maximum number of verified tokens to remember.
+     * @param meterRegistry The registry the metrics are published to.
+     */
+    @Autowired
+    public JwtService(@Value("${security.token.validity}") long jwtValidity,
+                      @Value("${security.token.secret}") String secretKey,
+                      @Value("${security.token.cache-size}") long cacheSize,
+                      MeterRegistry meterRegistry) {
+        this.jwtValidity = jwtValidity;
+        this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMillis() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.createTimer = Timer.builder("auth.token.create")
+                .description("Time spent issuing and signing a token")
+                .register(meterRegistry);
+        this.cachedTimer = verifyTimer("cached", meterRegistry);
+        this.parsedTimer = verifyTimer("parsed", meterRegistry);
+        this.rejectedTimer = verifyTimer("rejected", meterRegistry);
+    }
 
     /**
      * Creates a new JWT for the given user.
@@ -29,33 +99,61 @@ public class JwtService {
      * @return The generated JWT string.
      */
     public String createToken(UserEntity user) {
+        var start = System.nanoTime();
         long now = System.currentTimeMillis();
 
-        return Jwts.builder()
+        var token = Jwts.builder()
                 .subject(user.getUsername())
                 .claim("id", user.getId())
                 .issuedAt(new Date(now))
-                .expiration(new Date(now + JWT_VALIDITY))
-                .signWith(generateKey())
+                .expiration(new Date(now + jwtValidity))
+                .signWith(key)
                 .compact();
+        createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     /**
-     * Verifies the validity of a given JWT.
+     * Verifies a JWT and returns its username.
+     * A token is parsed and its signature checked at most once while it is cached;
+     * later calls with the same token only hash it and look it up.
      * @param token The JWT string to verify.
-     * @return True if the token is valid, false otherwise.
+     * @return The username if the token is valid and not expired, otherwise empty.
      */
-    public boolean verifyToken(String token) {
-        return !isTokenExpired(token);
+    public Optional<String> verify(String token) {
+        var start = System.nanoTime();
+        var tokenHash = hash(token);
+        var cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            var valid = cached.expiresAtMillis() > System.currentTimeMillis();
+            return record(valid ? cachedTimer : rejectedTimer, start, valid ? Optional.of(cached.username()) : Optional.empty());
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        }
+        catch (JwtException | IllegalArgumentException e) {
+            return record(rejectedTimer, start, Optional.empty());
+        }
+
+        var username = claims.getSubject();
+        var expiration = claims.getExpiration();
+        if (username == null || username.isEmpty() || expiration == null) {
+            return record(rejectedTimer, start, Optional.empty());
+        }
+
+        verifiedTokens.put(tokenHash, new VerifiedToken(username, expiration.getTime()));
+        return record(parsedTimer, start, Optional.of(username));
     }
 
     /**
-     * Checks if a token is expired.
-     * @param token The JWT string.
-     * @return True if the token is expired, false otherwise.
+     * Verifies the validity of a given JWT.
+     * @param token The JWT string to verify.
+     * @return True if the token is valid, false otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        return getExpirationDate(token).before(new Date());
+    public boolean verifyToken(String token) {
+        return verify(token).isPresent();
     }
 
     /**
@@ -64,7 +162,7 @@ public class JwtService {
      * @return The username.
      */
     public String getUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return extractAllClaims(token).getSubject();
     }
 
     /**
@@ -73,35 +171,55 @@ public class JwtService {
      * @return The expiration Date.
      */
     public Date getExpirationDate(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return extractAllClaims(token).getExpiration();
     }
 
     /**
-     * Extracts all claims from a JWT.
+     * Extracts all claims from a JWT, verifying its signature and expiration.
      * @param token The JWT string.
      * @return All claims as a Claims object.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser().verifyWith(generateKey()).build().parseSignedClaims(token).getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Extracts a specific claim from a JWT using a claims resolver function.
-     * @param token The JWT string.
-     * @param claimsResolver Function to resolve the specific claim.
-     * @param <T> The type of the claim.
-     * @return The extracted claim.
+     * Records the time spent on a verification.
+     * @param timer The timer of the verification's outcome.
+     * @param start The start of the verification, in System.nanoTime() units.
+     * @param result The result of the verification.
+     * @return The result, unchanged.
+     */
+    private static Optional<String> record(Timer timer, long start, Optional<String> result) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Registers the timer of one verification outcome.
+     * @param result The outcome: cached, parsed or rejected.
+     * @param meterRegistry The registry the timer is published to.
+     * @return The timer.
      */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final var claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private static Timer verifyTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.token.verify")
+                .description("Time spent verifying a token, by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
     /**
-     * Generates a SecretKey from the base64 encoded secret key string.
-     * @return The generated SecretKey.
+     * Hashes a token for use as a cache key, so raw tokens are not kept in memory.
+     * @param token The JWT string.
+     * @return The Base64-encoded SHA-256 hash of the token.
      */
-    private SecretKey generateKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
\ No newline at end of file
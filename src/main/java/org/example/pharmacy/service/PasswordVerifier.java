@@ -0,0 +1,129 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.pharmacy.service.errors.LoginOverloadedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies login passwords on a dedicated, bounded executor.
+ * BCrypt is deliberately CPU-heavy, so hashes run on at most one thread per core behind a bounded
+ * queue. When the queue is full, or a queued hash does not finish in time, the login is shed
+ * with a {@link LoginOverloadedError} instead of tying up more request threads.
+ */
+@Component
+public class PasswordVerifier {
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructs a PasswordVerifier and registers its metrics.
+     * @param passwordEncoder The password encoder.
+     * @param threads The number of hashing threads; zero or less means one per available core.
+     * @param queueCapacity The number of verifications allowed to wait for a thread.
+     * @param timeout The longest a login waits for its verification before it is shed.
+     * @param retryAfter The delay suggested to shed clients before they retry.
+     * @param meterRegistry The registry the metrics are published to.
+     */
+    @Autowired
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${security.login.threads}") int threads,
+                            @Value("${security.login.queue-capacity}") int queueCapacity,
+                            @Value("${security.login.timeout}") Duration timeout,
+                            @Value("${security.login.retry-after}") Duration retryAfter,
+                            MeterRegistry meterRegistry) {
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        var threadCount = new AtomicInteger();
+
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("auth.password.verify")
+                .description("Time spent computing a password hash for a login")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Logins shed because password verification was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a password verification thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks a raw password against its stored hash on the verification executor.
+     * @param rawPassword The password given by the user.
+     * @param encodedPassword The stored password hash.
+     * @return True if the password matches, false otherwise.
+     * @throws LoginOverloadedError if the executor is saturated or the verification timed out.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> hashTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+        }
+        catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginOverloadedError(retryAfterSeconds);
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            result.cancel(false);
+            rejectedCounter.increment();
+            throw new LoginOverloadedError(retryAfterSeconds);
+        }
+        catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the verification executor when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package org.example.pharmacy.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only log of the stock adjustments made in memory and not yet written to the database.
+ * Adjustments go to numbered segment files of fixed-size records (drug ID and delta). Sealing a
+ * segment hands its net deltas to the caller and starts the next one; once the caller has
+ * written them and recorded the segment number as its checkpoint, older segments can be deleted.
+ * Records are written with one system call each, so they survive a crash of the process as soon as
+ * the adjustment returns; segments are forced to disk when they are sealed.
+ */
+final class StockJournal implements AutoCloseable {
+
+    private static final int RECORD_SIZE = Long.BYTES + Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("stock-(\\d+)\\.journal");
+
+    /**
+     * A segment file.
+     * @param number The number of the segment.
+     * @param path The file of the segment.
+     */
+    record Segment(long number, Path path) {
+    }
+
+    /**
+     * The net deltas of a sealed segment.
+     * @param segment The number of the sealed segment.
+     * @param deltas The net delta of each drug adjusted since the previous seal.
+     */
+    record Sealed(long segment, Map<Long, Long> deltas) {
+    }
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private final Map<Long, Long> pending = new HashMap<>();
+    private FileChannel channel;
+    private long segment;
+
+    /**
+     * Creates a journal in a directory, creating the directory if needed.
+     * No segment is open until {@link #open(long)} is called.
+     * @param directory The directory of the segment files.
+     * @throws IOException if the directory cannot be created.
+     */
+    StockJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Lists the segment files in the directory.
+     * @return The segments, in number order.
+     * @throws IOException if the directory cannot be read.
+     */
+    List<Segment> segments() throws IOException {
+        var segments = new ArrayList<Segment>();
+        try (var files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                var matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(new Segment(Long.parseLong(matcher.group(1)), file));
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::number));
+        return segments;
+    }
+
+    /**
+     * Reads the net deltas recorded in a segment.
+     * A record cut short by a crash is ignored; its adjustment never returned.
+     * @param segment The segment.
+     * @return The net delta of each drug in the segment.
+     * @throws IOException if the segment cannot be read.
+     */
+    static Map<Long, Long> read(Segment segment) throws IOException {
+        var deltas = new HashMap<Long, Long>();
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(segment.path()));
+        while (buffer.remaining() >= RECORD_SIZE) {
+            deltas.merge(buffer.getLong(), (long) buffer.getInt(), Long::sum);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    /**
+     * Starts writing to a new segment.
+     * @param number The number of the segment, greater than that of any existing segment.
+     * @throws IOException if the segment cannot be created.
+     */
+    void open(long number) throws IOException {
+        lock.lock();
+        try {
+            channel = FileChannel.open(path(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            segment = number;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records an adjustment.
+     * If the record cannot be written, whatever part of it reached the file is cut off again, so the
+     * adjustment leaves no trace and the next record starts on a record boundary.
+     * @param id The ID of the drug.
+     * @param delta The number of copies added; negative for copies removed.
+     * @throws UncheckedIOException if the record cannot be written.
+     */
+    void append(long id, int delta) {
+        lock.lock();
+        try {
+            var start = channel.position();
+            record.clear();
+            record.putLong(id).putInt(delta).flip();
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record);
+                }
+            }
+            catch (IOException e) {
+                discardFrom(start, e);
+                throw e;
+            }
+            pending.merge(id, (long) delta, Long::sum);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the net delta of a drug that has not been sealed yet.
+     * @param id The ID of the drug.
+     * @return The net delta; zero if there is none.
+     */
+    long pending(long id) {
+        lock.lock();
+        try {
+            return pending.getOrDefault(id, 0L);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seals the current segment and starts the next one.
+     * @return The sealed segment with its net deltas, or null if nothing was adjusted since the
+     *         previous seal.
+     * @throws IOException if the segment cannot be forced to disk or the next one cannot be created.
+     */
+    Sealed seal() throws IOException {
+        lock.lock();
+        try {
+            pending.values().removeIf(delta -> delta == 0);
+            if (pending.isEmpty()) {
+                return null;
+            }
+            channel.force(false);
+            channel.close();
+            var sealed = new Sealed(segment, Map.copyOf(pending));
+            pending.clear();
+            open(segment + 1);
+            return sealed;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the deltas of a sealed segment back when they could not be written to the database, so
+     * the next seal includes them again. The sealed file is kept, and a later checkpoint covers it.
+     * @param sealed The sealed segment.
+     */
+    void restore(Sealed sealed) {
+        lock.lock();
+        try {
+            sealed.deltas().forEach((id, delta) -> pending.merge(id, delta, Long::sum));
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments up to a checkpoint.
+     * @param checkpoint The number of the last segment written to the database.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    void deleteUpTo(long checkpoint) throws IOException {
+        for (var existing : segments()) {
+            if (existing.number() <= checkpoint) {
+                Files.deleteIfExists(existing.path());
+            }
+        }
+    }
+
+    /**
+     * Gets the directory of the segment files.
+     * @return The directory.
+     */
+    Path directory() {
+        return directory;
+    }
+
+    /**
+     * Forces the current segment to disk and closes it.
+     * @throws IOException if the segment cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Truncates the current segment after a failed write.
+     * @param start The size of the segment before the write.
+     * @param failure The failure of the write; a failure to truncate is added to it as suppressed.
+     */
+    private void discardFrom(long start, IOException failure) {
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        }
+        catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Gets the file of a segment.
+     * @param number The number of the segment.
+     * @return The path of the segment file.
+     */
+    private Path path(long number) {
+        return directory.resolve("stock-" + number + ".journal");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package org.example.pharmacy.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The stock of one drug split across several independently updated stripes.
+ * Each thread works on its own home stripe, so concurrent sales rarely compete for the same
+ * compare-and-set. A removal only succeeds against a stripe that holds enough copies; when no
+ * single stripe does, the stripes are drained and the removal is decided on their total under a
+ * lock, so the stock never goes below zero.
+ */
+final class StripedStockCounter {
+
+    private final AtomicLong[] stripes;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    /**
+     * Creates a counter with no copies.
+     * @param stripes The number of stripes, rounded up to a power of two.
+     */
+    StripedStockCounter(int stripes) {
+        this.stripes = new AtomicLong[stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+        for (var i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Replaces the stock, spreading the copies evenly over the stripes.
+     * Updates made while the stock is replaced may be lost, so it is only called before the counter
+     * is in use or when the stock has been overwritten elsewhere.
+     * @param copies The new number of copies.
+     */
+    void reset(long copies) {
+        rebalanceLock.lock();
+        try {
+            var share = copies / stripes.length;
+            for (var i = 0; i < stripes.length; i++) {
+                stripes[i].set(i == 0 ? copies - share * (stripes.length - 1) : share);
+            }
+        }
+        finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Adds copies to the home stripe of the calling thread.
+     * @param copies The number of copies to add.
+     */
+    void add(long copies) {
+        stripes[home()].addAndGet(copies);
+    }
+
+    /**
+     * Removes copies if the counter holds at least that many.
+     * @param copies The number of copies to remove; positive.
+     * @return Whether the copies were removed.
+     */
+    boolean tryRemove(long copies) {
+        var home = home();
+        for (var i = 0; i < stripes.length; i++) {
+            if (tryRemove(stripes[(home + i) & (stripes.length - 1)], copies)) {
+                return true;
+            }
+        }
+
+        rebalanceLock.lock();
+        try {
+            var total = 0L;
+            for (var stripe : stripes) {
+                total += stripe.getAndSet(0);
+            }
+            var removed = total >= copies;
+            stripes[home].addAndGet(removed ? total - copies : total);
+            return removed;
+        }
+        finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /**
+     * Sums the stripes.
+     * The sum is exact when no update runs concurrently and a close estimate otherwise.
+     * @return The number of copies.
+     */
+    long sum() {
+        var total = 0L;
+        for (var stripe : stripes) {
+            total += stripe.get();
+        }
+        return total;
+    }
+
+    /**
+     * Removes copies from one stripe if it holds at least that many.
+     * @param stripe The stripe.
+     * @param copies The number of copies to remove.
+     * @return Whether the copies were removed.
+     */
+    private static boolean tryRemove(AtomicLong stripe, long copies) {
+        var current = stripe.get();
+        while (current >= copies) {
+            var witness = stripe.compareAndExchange(current, current - copies);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Picks the home stripe of the calling thread.
+     * @return The index of the stripe.
+     */
+    private int home() {
+        var id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & (stripes.length - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package org.example.pharmacy.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix tree of suggestions in which every node keeps the best suggestions below it.
+ * A lookup walks the prefix and returns that node's list, so it costs one step per character of
+ * the prefix regardless of how many suggestions match. Updates copy only the path to the changed
+ * key and return a new trie, which lets readers use a published trie without locking.
+ */
+final class SuggestionTrie {
+
+    /**
+     * A suggestion with the numbers it is ranked by.
+     * @param text The text shown to the user.
+     * @param kind What the text is: brandName or activeIngredient.
+     * @param drugCount The number of drugs carrying the text.
+     * @param availableCount The number of those drugs that are available.
+     */
+    record Suggestion(String text, String kind, int drugCount, int availableCount) {
+    }
+
+    /**
+     * Available suggestions first, then the ones carried by more drugs, then alphabetical.
+     */
+    static final Comparator<Suggestion> RANKING = Comparator
+            .comparing((Suggestion s) -> s.availableCount() == 0)
+            .thenComparing(Suggestion::drugCount, Comparator.reverseOrder())
+            .thenComparing(Suggestion::text)
+            .thenComparing(Suggestion::kind);
+
+    private static final Suggestion[] NONE = new Suggestion[0];
+
+    /**
+     * A node of the trie.
+     * @param keys The characters leading to the children, sorted.
+     * @param children The children, in the order of their keys.
+     * @param own The suggestions whose key ends at this node, at most one per kind.
+     * @param top The best suggestions at or below this node, in ranking order.
+     */
+    private record Node(char[] keys, Node[] children, Suggestion[] own, Suggestion[] top) {
+    }
+
+    private final Node root;
+    private final int topK;
+
+    /**
+     * Creates an empty trie.
+     * @param topK How many suggestions each node keeps.
+     */
+    SuggestionTrie(int topK) {
+        this(null, topK);
+    }
+
+    /**
+     * Creates a trie with the given root.
+     * @param root The root node, or null for an empty trie.
+     * @param topK How many suggestions each node keeps.
+     */
+    private SuggestionTrie(Node root, int topK) {
+        this.root = root;
+        this.topK = topK;
+    }
+
+    /**
+     * Builds a trie holding the given suggestions in one pass.
+     * @param suggestions The suggestions, each with its normalized key.
+     * @param topK How many suggestions each node keeps.
+     * @return The trie.
+     */
+    static SuggestionTrie of(List<Map.Entry<String, Suggestion>> suggestions, int topK) {
+        var sorted = new ArrayList<>(suggestions);
+        sorted.sort(Map.Entry.comparingByKey());
+        var trie = new SuggestionTrie(topK);
+        return new SuggestionTrie(trie.build(sorted, 0, sorted.size(), 0), topK);
+    }
+
+    /**
+     * Finds the best suggestions whose key starts with a prefix.
+     * @param prefix The normalized prefix.
+     * @param limit The largest number of suggestions to return; at most the trie's topK.
+     * @return The suggestions, best first.
+     */
+    List<Suggestion> find(String prefix, int limit) {
+        var node = root;
+        for (var i = 0; node != null && i < prefix.length(); i++) {
+            var index = Arrays.binarySearch(node.keys(), prefix.charAt(i));
+            node = index >= 0 ? node.children()[index] : null;
+        }
+        if (node == null) {
+            return List.of();
+        }
+        var top = node.top();
+        return Arrays.asList(top).subList(0, Math.min(limit, top.length));
+    }
+
+    /**
+     * Returns a trie in which the suggestion of the given kind under a key is replaced.
+     * @param key The normalized key.
+     * @param kind The kind of the suggestion.
+     * @param suggestion The new suggestion, or null to remove it.
+     * @return The updated trie.
+     */
+    SuggestionTrie put(String key, String kind, Suggestion suggestion) {
+        return new SuggestionTrie(put(root, key, 0, kind, suggestion), topK);
+    }
+
+    /**
+     * Copies the path below a node with the suggestion replaced.
+     * @param node The node at the given depth, or null if there is none.
+     * @param key The normalized key.
+     * @param depth The number of key characters already consumed.
+     * @param kind The kind of the suggestion.
+     * @param suggestion The new suggestion, or null to remove it.
+     * @return The new node, or null if it no longer holds anything.
+     */
+    private Node put(Node node, String key, int depth, String kind, Suggestion suggestion) {
+        var keys = node != null ? node.keys() : new char[0];
+        var children = node != null ? node.children() : new Node[0];
+        var own = node != null ? node.own() : NONE;
+
+        if (depth == key.length()) {
+            var updated = new ArrayList<Suggestion>(own.length + 1);
+            for (var existing : own) {
+                if (!existing.kind().equals(kind)) {
+                    updated.add(existing);
+                }
+            }
+            if (suggestion != null) {
+                updated.add(suggestion);
+            }
+            return build(keys, children, updated.toArray(NONE));
+        }
+
+        var c = key.charAt(depth);
+        var index = Arrays.binarySearch(keys, c);
+        var child = put(index >= 0 ? children[index] : null, key, depth + 1, kind, suggestion);
+
+        if (index >= 0 && child != null) {
+            children = children.clone();
+            children[index] = child;
+        }
+        else if (index >= 0) {
+            keys = remove(keys, index);
+            children = remove(children, index);
+        }
+        else if (child != null) {
+            var at = -index - 1;
+            keys = insert(keys, at, c);
+            children = insert(children, at, child);
+        }
+        return build(keys, children, own);
+    }
+
+    /**
+     * Builds the subtree for a range of key-sorted suggestions that share their first characters.
+     * @param sorted The suggestions, sorted by key.
+     * @param from The first suggestion of the range.
+     * @param to The end of the range, exclusive.
+     * @param depth The number of characters the keys in the range share.
+     * @return The node, or null if the range is empty.
+     */
+    private Node build(List<Map.Entry<String, Suggestion>> sorted, int from, int to, int depth) {
+        var own = new ArrayList<Suggestion>(2);
+        var i = from;
+        while (i < to && sorted.get(i).getKey().length() == depth) {
+            own.add(sorted.get(i++).getValue());
+        }
+
+        var keys = new ArrayList<Character>();
+        var children = new ArrayList<Node>();
+        while (i < to) {
+            var c = sorted.get(i).getKey().charAt(depth);
+            var end = i;
+            while (end < to && sorted.get(end).getKey().charAt(depth) == c) {
+                end++;
+            }
+            keys.add(c);
+            children.add(build(sorted, i, end, depth + 1));
+            i = end;
+        }
+
+        var keyArray = new char[keys.size()];
+        for (var k = 0; k < keyArray.length; k++) {
+            keyArray[k] = keys.get(k);
+        }
+        return build(keyArray, children.toArray(new Node[0]), own.toArray(NONE));
+    }
+
+    /**
+     * Builds a node and computes its best suggestions from its own and its children's.
+     * @param keys The characters leading to the children, sorted.
+     * @param children The children, in the order of their keys.
+     * @param own The suggestions whose key ends at the node.
+     * @return The node, or null if it holds nothing.
+     */
+    private Node build(char[] keys, Node[] children, Suggestion[] own) {
+        if (keys.length == 0 && own.length == 0) {
+            return null;
+        }
+        var top = new Suggestion[topK];
+        var size = 0;
+        for (var suggestion : own) {
+            size = offer(top, size, suggestion);
+        }
+        for (var child : children) {
+            for (var suggestion : child.top()) {
+                if (size == topK && RANKING.compare(suggestion, top[size - 1]) >= 0) {
+                    break;
+                }
+                size = offer(top, size, suggestion);
+            }
+        }
+        return new Node(keys, children, own, size == topK ? top : Arrays.copyOf(top, size));
+    }
+
+    /**
+     * Inserts a suggestion into a ranked, bounded array if it ranks high enough.
+     * @param top The ranked suggestions.
+     * @param size The number of suggestions in the array.
+     * @param suggestion The suggestion to insert.
+     * @return The new number of suggestions in the array.
+     */
+    private static int offer(Suggestion[] top, int size, Suggestion suggestion) {
+        var at = size;
+        while (at > 0 && RANKING.compare(suggestion, top[at - 1]) < 0) {
+            at--;
+        }
+        if (at == top.length) {
+            return size;
+        }
+        var moved = Math.min(size, top.length - 1) - at;
+        System.arraycopy(top, at, top, at + 1, moved);
+        top[at] = suggestion;
+        return Math.min(size + 1, top.length);
+    }
+
+    /**
+     * Copies an array with one element inserted.
+     * @param array The array.
+     * @param at The position to insert at.
+     * @param value The element to insert.
+     * @return The new array.
+     */
+    private static char[] insert(char[] array, int at, char value) {
+        var result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    /**
+     * Copies an array with one element inserted.
+     * @param array The array.
+     * @param at The position to insert at.
+     * @param value The element to insert.
+     * @return The new array.
+     */
+    private static Node[] insert(Node[] array, int at, Node value) {
+        var result = new Node[array.length + 1];
+        System.arraycopy(array, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(array, at, result, at + 1, array.length - at);
+        return result;
+    }
+
+    /**
+     * Copies an array with one element removed.
+     * @param array The array.
+     * @param at The position to remove.
+     * @return The new array.
+     */
+    private static char[] remove(char[] array, int at) {
+        var result = new char[array.length - 1];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+
+    /**
+     * Copies an array with one element removed.
+     * @param array The array.
+     * @param at The position to remove.
+     * @return The new array.
+     */
+    private static Node[] remove(Node[] array, int at) {
+        var result = new Node[array.length - 1];
+        System.arraycopy(array, 0, result, 0, at);
+        System.arraycopy(array, at + 1, result, at, array.length - at - 1);
+        return result;
+    }
+}
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.example.pharmacy.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.pharmacy.controller.dto.CreateUserRequestDto;
 import org.example.pharmacy.controller.dto.CreateUserResponseDto;
 import org.example.pharmacy.controller.dto.UserResponseDto;
@@ -16,16 +18,21 @@ import org.springframework.stereotype.Service;
 public class UserService {
     private final IUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final Timer hashTimer;
 
     /**
-     * Constructs a UserService with the given UserRepository and PasswordEncoder.
+     * Constructs a UserService with the given UserRepository and PasswordEncoder, and registers its metrics.
      * @param userRepository The user repository.
      * @param passwordEncoder The password encoder.
+     * @param meterRegistry The registry the metrics are published to.
      */
     @Autowired
-    public UserService(IUserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(IUserRepository userRepository, PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
+        this.hashTimer = Timer.builder("auth.password.encode")
+                .description("Time spent hashing the password of a new user")
+                .register(meterRegistry);
     }
 
     /**
@@ -36,7 +43,7 @@ public class UserService {
     public CreateUserResponseDto createUser(CreateUserRequestDto userDto) {
         var userEntity = new UserEntity();
 
-        var hashedPassword = passwordEncoder.encode(userDto.getPassword());
+        var hashedPassword = hashTimer.record(() -> passwordEncoder.encode(userDto.getPassword()));
 
         userEntity.setUsername(userDto.getUsername());
         userEntity.setPassword(hashedPassword);
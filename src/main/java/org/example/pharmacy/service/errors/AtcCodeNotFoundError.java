@@ -0,0 +1,18 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when no drug is classified under an ATC code.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AtcCodeNotFoundError extends RuntimeException {
+    /**
+     * Constructs an AtcCodeNotFoundError with a message including the ATC code.
+     * @param code The ATC code that was not found.
+     */
+    public AtcCodeNotFoundError(String code) {
+        super("No drugs are classified under ATC code " + code);
+    }
+}
\ No newline at end of file
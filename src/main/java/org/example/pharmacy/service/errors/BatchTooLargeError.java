@@ -0,0 +1,18 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a batch request is empty or holds more items than allowed.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class BatchTooLargeError extends RuntimeException {
+    /**
+     * Constructs a BatchTooLargeError with a message including the allowed maximum.
+     * @param maxItems The largest number of items a batch may hold.
+     */
+    public BatchTooLargeError(int maxItems) {
+        super("A batch must hold between 1 and " + maxItems + " items");
+    }
+}
\ No newline at end of file
@@ -15,4 +15,13 @@ public class DrugNotFoundError extends RuntimeException {
     public DrugNotFoundError(long id) {
         super("Drug with id " + id + " was not found");
     }
+
+    /**
+     * Constructs a DrugNotFoundError with a message including the looked-up field and value.
+     * @param field The name of the field the drug was looked up by.
+     * @param value The value that was looked up.
+     */
+    public DrugNotFoundError(String field, String value) {
+        super("Drug with " + field + " " + value + " was not found");
+    }
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package org.example.pharmacy.service.errors;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -11,12 +15,25 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Global exception handler for the application.
+ * Every handled exception is counted by its type and response status.
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a GlobalExceptionHandler.
+     * @param meterRegistry The registry the exception counters are published to.
+     */
+    @Autowired
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     /**
      * Handles validation exceptions (MethodArgumentNotValidException).
@@ -26,6 +43,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach(error -> {
             String fieldName = ((FieldError) error).getField();
@@ -52,6 +70,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(DrugNotFoundError.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ResponseEntity<Map<String, Object>> handleDrugNotFoundException(DrugNotFoundError ex) {
+        count(ex, HttpStatus.NOT_FOUND);
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("timestamp", LocalDateTime.now());
         responseBody.put("status", HttpStatus.NOT_FOUND.value());
@@ -62,6 +81,141 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles AtcCodeNotFoundError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(AtcCodeNotFoundError.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Map<String, Object>> handleAtcCodeNotFoundException(AtcCodeNotFoundError ex) {
+        count(ex, HttpStatus.NOT_FOUND);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.NOT_FOUND.value());
+        responseBody.put("error", "Not Found");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs/atc-tree/{code}");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles InvalidPageRequestError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(InvalidPageRequestError.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleInvalidPageRequestException(InvalidPageRequestError ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.BAD_REQUEST.value());
+        responseBody.put("error", "Bad Request");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InsufficientStockError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(InsufficientStockError.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Map<String, Object>> handleInsufficientStockException(InsufficientStockError ex) {
+        count(ex, HttpStatus.CONFLICT);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.CONFLICT.value());
+        responseBody.put("error", "Conflict");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs/{id}/stock");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles BatchTooLargeError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(BatchTooLargeError.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleBatchTooLargeException(BatchTooLargeError ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.BAD_REQUEST.value());
+        responseBody.put("error", "Bad Request");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs/batch");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles ImportJobNotFoundError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(ImportJobNotFoundError.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Map<String, Object>> handleImportJobNotFoundException(ImportJobNotFoundError ex) {
+        count(ex, HttpStatus.NOT_FOUND);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.NOT_FOUND.value());
+        responseBody.put("error", "Not Found");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs/imports/{id}");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles UnsupportedImportFormatError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message.
+     */
+    @ExceptionHandler(UnsupportedImportFormatError.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleUnsupportedImportFormatException(UnsupportedImportFormatError ex) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.BAD_REQUEST.value());
+        responseBody.put("error", "Bad Request");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/drugs/imports");
+
+        return new ResponseEntity<>(responseBody, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles LoginOverloadedError exceptions.
+     * @param ex The exception thrown.
+     * @return A ResponseEntity with the error message and a Retry-After header.
+     */
+    @ExceptionHandler(LoginOverloadedError.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Map<String, Object>> handleLoginOverloadedException(LoginOverloadedError ex) {
+        count(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        responseBody.put("error", "Service Unavailable");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", "/api/auth/login");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(responseBody);
+    }
+
     /**
      * Handles all other RuntimeException instances.
      * @param ex The exception thrown.
@@ -70,6 +224,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(RuntimeException.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<Map<String, Object>> handleAllOtherExceptions(RuntimeException ex) {
+        count(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         Map<String, Object> responseBody = new HashMap<>();
         responseBody.put("timestamp", LocalDateTime.now());
         responseBody.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -79,4 +234,19 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(responseBody, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    /**
+     * Counts a handled exception.
+     * The counter of each exception type is registered once and reused.
+     * @param ex The exception.
+     * @param status The status of the response.
+     */
+    private void count(Exception ex, HttpStatus status) {
+        counters.computeIfAbsent(ex.getClass(), type -> Counter.builder("api.errors")
+                        .description("Exceptions turned into error responses, by type and status")
+                        .tag("exception", type.getSimpleName())
+                        .tag("status", Integer.toString(status.value()))
+                        .register(meterRegistry))
+                .increment();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a drug import job is not found.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ImportJobNotFoundError extends RuntimeException {
+    /**
+     * Constructs an ImportJobNotFoundError with a message including the job ID.
+     * @param id The ID of the import job that was not found.
+     */
+    public ImportJobNotFoundError(String id) {
+        super("Import job with id " + id + " not found");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a stock adjustment would take more copies than a drug has in stock.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockError extends RuntimeException {
+    /**
+     * Constructs an InsufficientStockError with a message including the stock and the request.
+     * @param id The ID of the drug.
+     * @param availableCopies The number of copies in stock.
+     * @param requested The number of copies the adjustment tried to remove.
+     */
+    public InsufficientStockError(long id, int availableCopies, int requested) {
+        super("Drug with id " + id + " has " + availableCopies + " copies in stock, cannot remove " + requested);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a catalog page or search request has an invalid size, sort key, cursor or query.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageRequestError extends RuntimeException {
+    /**
+     * Constructs an InvalidPageRequestError with the given message.
+     * @param message The description of what is wrong with the request.
+     */
+    public InvalidPageRequestError(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a login is shed because password verification is saturated.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoginOverloadedError extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a LoginOverloadedError with the delay the client should wait before retrying.
+     * @param retryAfterSeconds The number of seconds to wait before retrying.
+     */
+    public LoginOverloadedError(long retryAfterSeconds) {
+        super("Too many concurrent logins, retry in " + retryAfterSeconds + "s");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of seconds the client should wait before retrying.
+     * @return The retry delay in seconds.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
\ No newline at end of file
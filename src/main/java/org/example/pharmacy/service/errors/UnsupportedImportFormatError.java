@@ -0,0 +1,18 @@
+package org.example.pharmacy.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an import is uploaded with a content type that cannot be imported.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedImportFormatError extends RuntimeException {
+    /**
+     * Constructs an UnsupportedImportFormatError with a message including the given content type.
+     * @param contentType The content type of the upload.
+     */
+    public UnsupportedImportFormatError(String contentType) {
+        super("Unsupported import content type '" + contentType + "'. Use text/csv or application/x-ndjson");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,376 @@
+package org.example.pharmacy.perf;
+
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the drugs of a synthetic catalog with the distributions of a real one.
+ * A few manufacturers and active substances account for most drugs (Zipf-distributed), and the
+ * ATC codes follow the substances. Contraindications run close to the 255 characters the column
+ * holds, some batches are expired or out of stock, and MA numbers and NDCs are unique.
+ * Every drug is derived from the seed and its index alone, so any range of the catalog can be
+ * generated on its own, in any order, and always comes out the same.
+ */
+final class CatalogGenerator {
+
+    /**
+     * The length of the contraindications column.
+     */
+    private static final int TEXT_COLUMN_LENGTH = 255;
+    private static final int MANUFACTURER_COUNT = 300;
+    private static final int SUBSTANCE_COUNT = 600;
+    private static final double ZIPF_EXPONENT = 1.1;
+
+    private static final String[] KNOWN_MANUFACTURERS = {"Polpharma", "Adamed", "Teva", "Sandoz", "Krka", "Bayer", "Pfizer",
+            "Novartis", "Sanofi", "Gedeon Richter", "Viatris", "Zentiva", "Accord", "Aurobindo", "Servier", "GSK", "AstraZeneca",
+            "Boehringer Ingelheim", "Berlin-Chemie", "Egis", "Hasco-Lek", "Aflofarm", "Bausch Health", "Stada", "Glenmark"};
+    private static final String[][] KNOWN_SUBSTANCES = {{"Ibuprofen", "M01AE01"}, {"Paracetamol", "N02BE01"},
+            {"Metformin", "A10BA02"}, {"Atorvastatin", "C10AA05"}, {"Amoxicillin", "J01CA04"}, {"Omeprazole", "A02BC01"},
+            {"Amlodipine", "C08CA01"}, {"Levothyroxine", "H03AA01"}, {"Salbutamol", "R03AC02"}, {"Sertraline", "N06AB06"},
+            {"Simvastatin", "C10AA01"}, {"Lisinopril", "C09AA03"}, {"Ramipril", "C09AA05"}, {"Bisoprolol", "C07AB07"},
+            {"Metoprolol", "C07AB02"}, {"Losartan", "C09CA01"}, {"Pantoprazole", "A02BC02"}, {"Clopidogrel", "B01AC04"},
+            {"Acetylsalicylic acid", "B01AC06"}, {"Warfarin", "B01AA03"}, {"Furosemide", "C03CA01"},
+            {"Hydrochlorothiazide", "C03AA03"}, {"Prednisone", "H02AB07"}, {"Cetirizine", "R06AE07"},
+            {"Loratadine", "R06AX13"}, {"Azithromycin", "J01FA10"}, {"Ciprofloxacin", "J01MA02"}, {"Doxycycline", "J01AA02"},
+            {"Diclofenac", "M01AB05"}, {"Naproxen", "M01AE02"}, {"Tramadol", "N02AX02"}, {"Escitalopram", "N06AB10"},
+            {"Fluoxetine", "N06AB03"}, {"Quetiapine", "N05AH04"}, {"Alprazolam", "N05BA12"}, {"Diazepam", "N05BA01"},
+            {"Gabapentin", "N03AX12"}, {"Levetiracetam", "N03AX14"}, {"Insulin glargine", "A10AE04"}, {"Montelukast", "R03DC03"}};
+    private static final String[] NAME_SYLLABLES = {"al", "ben", "cor", "da", "fen", "ga", "hex", "lo", "mar", "nor", "pra",
+            "quin", "ro", "sul", "ta", "ver", "xa", "zo"};
+    private static final String[] SUBSTANCE_SUFFIXES = {"pril", "olol", "statin", "sartan", "azole", "cillin", "tidine",
+            "prazole", "vir", "mab", "oxacin", "dipine", "gliptin", "afil", "setron"};
+    private static final String[] MANUFACTURER_SUFFIXES = {"Pharma", "Laboratories", "Healthcare", "Generics", "Biotech", "Medical"};
+    private static final String ATC_GROUPS = "ABCDGHJLMNPRSV";
+    private static final int[] STRENGTHS_MG = {1, 2, 5, 10, 20, 25, 40, 50, 75, 100, 200, 250, 400, 500, 1000};
+    private static final DrugForm[] FORMS = {DrugForm.TABLET, DrugForm.CAPSULE, DrugForm.SYRUP, DrugForm.SUSPENSION,
+            DrugForm.SOLUTION, DrugForm.INJECTION, DrugForm.CREAM, DrugForm.OINTMENT, DrugForm.GEL, DrugForm.PATCH,
+            DrugForm.INHALER, DrugForm.DROPS, DrugForm.SPRAY, DrugForm.SUPPOSITORY, DrugForm.POWDER, DrugForm.LOZENGE};
+    private static final double[] FORM_WEIGHTS = {45, 18, 4, 2, 4, 7, 4, 2, 2, 1, 3, 3, 2, 1, 1, 1};
+    private static final String[] CONTRAINDICATIONS = {
+            "Hepatic impairment with bilirubin above twice the upper limit of normal.",
+            "Severe renal impairment (creatinine clearance below 30 ml/min).",
+            "Pregnancy, especially the third trimester.",
+            "Breastfeeding.",
+            "Children under 12 years of age.",
+            "Active peptic ulcer or gastrointestinal bleeding.",
+            "Severe heart failure (NYHA class IV).",
+            "History of angioedema.",
+            "Concomitant use of MAO inhibitors or within 14 days of stopping them.",
+            "Hereditary galactose intolerance, total lactase deficiency or glucose-galactose malabsorption.",
+            "Uncontrolled hypertension.",
+            "Myasthenia gravis.",
+            "Acute porphyria.",
+            "Severe hypotension or cardiogenic shock.",
+            "Known QT interval prolongation.",
+            "Epilepsy not controlled by treatment.",
+            "Severe respiratory insufficiency.",
+            "Second- or third-degree atrioventricular block."};
+    private static final String[] SIDE_EFFECTS = {"Nausea", "Headache", "Dizziness", "Diarrhoea", "Constipation", "Rash",
+            "Fatigue", "Insomnia", "Dry mouth", "Abdominal pain", "Drowsiness", "Cough"};
+    private static final String[] STORAGE_CONDITIONS = {"Store below 25°C.", "Store below 30°C.",
+            "Store in a refrigerator (2°C - 8°C). Do not freeze.", "Store in the original package to protect from light.",
+            "Keep the container tightly closed to protect from moisture."};
+
+    /**
+     * An active substance and the attributes its drugs share.
+     * @param name The name of the substance.
+     * @param atcCode The ATC code of its drugs.
+     * @param otcShare The share of its drugs sold without prescription.
+     * @param controlled The controlled substance status of its drugs, or null.
+     */
+    private record Substance(String name, String atcCode, double otcShare, ControlledSubstanceStatus controlled) {
+    }
+
+    private final long seed;
+    private final LocalDate asOf;
+    private final String[] manufacturers;
+    private final Substance[] substances;
+    private final double[] manufacturerDistribution;
+    private final double[] substanceDistribution;
+    private final double[] formDistribution;
+
+    /**
+     * Creates a generator.
+     * @param seed The seed of the catalog.
+     * @param asOf The date expiration dates are placed around.
+     */
+    CatalogGenerator(long seed, LocalDate asOf) {
+        this.seed = seed;
+        this.asOf = asOf;
+        var random = new SplittableRandom(seed);
+        this.manufacturers = manufacturers(random);
+        this.substances = substances(random);
+        this.manufacturerDistribution = zipf(manufacturers.length);
+        this.substanceDistribution = zipf(substances.length);
+        this.formDistribution = cumulative(FORM_WEIGHTS);
+    }
+
+    /**
+     * Generates a drug.
+     * @param index The position of the drug in the catalog; below {@link DatasetOptions#MAX_DRUGS}.
+     * @return The DrugEntity, without an ID.
+     */
+    DrugEntity drug(long index) {
+        var random = random(index);
+        var substance = substances[pick(substanceDistribution, random)];
+        var manufacturer = manufacturers[pick(manufacturerDistribution, random)];
+        var form = substance.atcCode().startsWith("R03") && random.nextInt(3) > 0 ? DrugForm.INHALER : FORMS[pick(formDistribution, random)];
+        var strength = STRENGTHS_MG[random.nextInt(STRENGTHS_MG.length)];
+
+        var drug = new DrugEntity();
+        drug.setMa(String.format("D%c%06d", (char) ('A' + index / 1_000_000), index % 1_000_000));
+        drug.setPrice(Math.round(Math.min(2500, Math.max(0.5, Math.exp(Math.log(15) + random.nextGaussian()))) * 100) / 100.0);
+        drug.setBrandName(truncate(substance.name() + " " + manufacturer + " " + strength + " mg", 50));
+        drug.setManufacturer(manufacturer);
+        drug.setActiveIngredient(substance.name());
+        drug.setNdc(String.format("%04d-%04d-%02d", index / 1_000_000, index / 100 % 10_000, index % 100));
+        drug.setAtcCode(substance.atcCode());
+        drug.setDrugForm(form);
+        drug.setRouteOfAdministration(route(form, random));
+        drug.setPrescriptionStatus(random.nextDouble() < substance.otcShare() ? PrescriptionStatus.OTC : PrescriptionStatus.RX_ONLY);
+        drug.setControlledSubstanceStatus(substance.controlled() != null ? substance.controlled()
+                : random.nextInt(100) == 0 ? ControlledSubstanceStatus.C_V : null);
+        drug.setBatchNumber(String.format("%s%02d-%05d", manufacturer.substring(0, 2).toUpperCase(Locale.ROOT),
+                random.nextInt(100), random.nextInt(100_000)));
+        drug.setExpirationDate(expirationDate(random));
+        drug.setAvailableCopies(random.nextInt(10) == 0 ? 0 : 1 + (int) Math.min(5000, -Math.log(1 - random.nextDouble()) * 60));
+        drug.setGraphicLink(random.nextInt(10) < 7 ? "https://images.example.org/drugs/" + drug.getMa() + ".png" : null);
+        return drug;
+    }
+
+    /**
+     * Generates the monograph of a drug.
+     * @param index The position of the drug in the catalog.
+     * @param drug The drug generated for the index.
+     * @return The DrugMonographEntity.
+     */
+    DrugMonographEntity monograph(long index, DrugEntity drug) {
+        var random = random(~index);
+        var monograph = new DrugMonographEntity(drug);
+        monograph.setContraindications(contraindications(drug.getActiveIngredient(), random));
+        var sideEffects = new LinkedHashSet<String>();
+        for (var count = 2 + random.nextInt(4); sideEffects.size() < count; ) {
+            sideEffects.add(SIDE_EFFECTS[random.nextInt(SIDE_EFFECTS.length)]);
+        }
+        monograph.setSideEffects(String.join(", ", sideEffects) + ".");
+        monograph.setDosage((1 + random.nextInt(3)) + " dose(s) every " + (4 + 2 * random.nextInt(10)) + " hours");
+        monograph.setStorageConditions(STORAGE_CONDITIONS[random.nextInt(STORAGE_CONDITIONS.length)]);
+        return monograph;
+    }
+
+    /**
+     * Writes contraindications whose length is skewed towards the length of the column.
+     * @param substance The name of the active substance.
+     * @param random The random source of the drug.
+     * @return The contraindications.
+     */
+    private static String contraindications(String substance, SplittableRandom random) {
+        var roll = random.nextInt(10);
+        var target = roll < 6 ? 200 + random.nextInt(TEXT_COLUMN_LENGTH - 199)
+                : roll < 9 ? 100 + random.nextInt(100)
+                : 40 + random.nextInt(60);
+        var text = new StringBuilder("Hypersensitivity to ").append(substance.toLowerCase(Locale.ROOT)).append(" or to any of the excipients.");
+        var start = random.nextInt(CONTRAINDICATIONS.length);
+        for (var i = 0; i < CONTRAINDICATIONS.length; i++) {
+            var sentence = CONTRAINDICATIONS[(start + i * 7) % CONTRAINDICATIONS.length];
+            if (text.length() + 1 + sentence.length() > target) {
+                break;
+            }
+            text.append(' ').append(sentence);
+        }
+        return truncate(text.toString(), TEXT_COLUMN_LENGTH);
+    }
+
+    /**
+     * Places an expiration date around the reference date: a few batches are expired or about to
+     * expire, most expire within three years.
+     * @param random The random source of the drug.
+     * @return The expiration date.
+     */
+    private LocalDate expirationDate(SplittableRandom random) {
+        var roll = random.nextInt(100);
+        if (roll < 8) {
+            return asOf.minusDays(1 + random.nextInt(365));
+        }
+        if (roll < 15) {
+            return asOf.plusDays(random.nextInt(31));
+        }
+        return asOf.plusDays(31 + random.nextInt(3 * 365));
+    }
+
+    /**
+     * Picks a route of administration that fits a form.
+     * @param form The form.
+     * @param random The random source of the drug.
+     * @return The route.
+     */
+    private static RouteOfAdministration route(DrugForm form, SplittableRandom random) {
+        return switch (form) {
+            case INJECTION -> random.nextBoolean() ? RouteOfAdministration.INTRAVENOUS
+                    : random.nextBoolean() ? RouteOfAdministration.INTRAMUSCULAR : RouteOfAdministration.SUBCUTANEOUS;
+            case CREAM, OINTMENT, GEL -> RouteOfAdministration.TOPICAL;
+            case PATCH -> RouteOfAdministration.TRANSDERMAL;
+            case INHALER -> RouteOfAdministration.INHALATION;
+            case DROPS -> random.nextBoolean() ? RouteOfAdministration.OPHTHALMIC : RouteOfAdministration.OTIC;
+            case SPRAY -> RouteOfAdministration.NASAL;
+            case SUPPOSITORY -> RouteOfAdministration.RECTAL;
+            case LOZENGE -> RouteOfAdministration.BUCCAL;
+            default -> RouteOfAdministration.ORAL;
+        };
+    }
+
+    /**
+     * Builds the manufacturer names: the known ones first, so they are the most frequent, then
+     * generated ones.
+     * @param random The random source of the catalog.
+     * @return The manufacturer names, most frequent first.
+     */
+    private static String[] manufacturers(SplittableRandom random) {
+        var names = new LinkedHashSet<>(Arrays.asList(KNOWN_MANUFACTURERS));
+        while (names.size() < MANUFACTURER_COUNT) {
+            names.add(capitalize(syllables(random, 2)) + " " + MANUFACTURER_SUFFIXES[random.nextInt(MANUFACTURER_SUFFIXES.length)]);
+        }
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Builds the active substances: the known ones first, so they are the most frequent, then
+     * generated ones with generated ATC codes.
+     * @param random The random source of the catalog.
+     * @return The substances, most frequent first.
+     */
+    private static Substance[] substances(SplittableRandom random) {
+        var substances = new ArrayList<Substance>();
+        var names = new LinkedHashSet<String>();
+        for (var known : KNOWN_SUBSTANCES) {
+            names.add(known[0]);
+            substances.add(new Substance(known[0], known[1], otcShare(known[1], random), controlled(known[1])));
+        }
+        while (substances.size() < SUBSTANCE_COUNT) {
+            var name = capitalize(syllables(random, 2 + random.nextInt(2)) + SUBSTANCE_SUFFIXES[random.nextInt(SUBSTANCE_SUFFIXES.length)]);
+            if (names.add(name)) {
+                var atcCode = String.format("%c%02d%c%c%02d", ATC_GROUPS.charAt(random.nextInt(ATC_GROUPS.length())),
+                        1 + random.nextInt(20), (char) ('A' + random.nextInt(8)), (char) ('A' + random.nextInt(8)), 1 + random.nextInt(30));
+                substances.add(new Substance(name, atcCode, otcShare(atcCode, random), controlled(atcCode)));
+            }
+        }
+        return substances.toArray(new Substance[0]);
+    }
+
+    /**
+     * Decides how often drugs of a substance are sold without prescription.
+     * @param atcCode The ATC code of the substance.
+     * @param random The random source of the catalog.
+     * @return The share of OTC drugs.
+     */
+    private static double otcShare(String atcCode, SplittableRandom random) {
+        var analgesicOrAntihistamine = atcCode.startsWith("M01A") || atcCode.startsWith("N02B") || atcCode.startsWith("R06");
+        return analgesicOrAntihistamine ? 0.7 : random.nextInt(5) == 0 ? 0.3 : 0;
+    }
+
+    /**
+     * Gets the controlled substance status shared by the drugs of a substance.
+     * @param atcCode The ATC code of the substance.
+     * @return The status of opioids and anxiolytics, otherwise null.
+     */
+    private static ControlledSubstanceStatus controlled(String atcCode) {
+        return atcCode.startsWith("N02A") || atcCode.startsWith("N05B") ? ControlledSubstanceStatus.C_IV : null;
+    }
+
+    /**
+     * Builds the cumulative Zipf distribution over ranks.
+     * @param size The number of ranks.
+     * @return The cumulative probability of each rank.
+     */
+    private static double[] zipf(int size) {
+        var weights = new double[size];
+        for (var rank = 0; rank < size; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+        }
+        return cumulative(weights);
+    }
+
+    /**
+     * Turns weights into a cumulative distribution.
+     * @param weights The weights.
+     * @return The cumulative probability of each position, ending at 1.
+     */
+    private static double[] cumulative(double[] weights) {
+        var total = Arrays.stream(weights).sum();
+        var distribution = new double[weights.length];
+        var sum = 0.0;
+        for (var i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            distribution[i] = sum / total;
+        }
+        distribution[weights.length - 1] = 1;
+        return distribution;
+    }
+
+    /**
+     * Picks a position from a cumulative distribution.
+     * @param distribution The cumulative distribution.
+     * @param random The random source.
+     * @return The position.
+     */
+    private static int pick(double[] distribution, SplittableRandom random) {
+        var position = Arrays.binarySearch(distribution, random.nextDouble());
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Gets the random source of one row, which depends only on the seed and the index.
+     * @param index The index of the row.
+     * @return The random source.
+     */
+    private SplittableRandom random(long index) {
+        var z = seed + index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    /**
+     * Joins random syllables into a word.
+     * @param random The random source.
+     * @param count The number of syllables.
+     * @return The word.
+     */
+    private static String syllables(SplittableRandom random, int count) {
+        var word = new StringBuilder();
+        for (var i = 0; i < count; i++) {
+            word.append(NAME_SYLLABLES[random.nextInt(NAME_SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+
+    /**
+     * Capitalizes a word.
+     * @param word The word.
+     * @return The word with an upper case first letter.
+     */
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    /**
+     * Cuts a text to a maximum length.
+     * @param text The text.
+     * @param length The maximum length.
+     * @return The text, or its first characters.
+     */
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length);
+    }
+}
\ No newline at end of file
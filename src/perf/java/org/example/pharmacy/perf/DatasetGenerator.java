@@ -0,0 +1,72 @@
+package org.example.pharmacy.perf;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a synthetic dataset into an existing pharmacy database from the command line.
+ * The schema must already exist, which it does once the application has been started against the
+ * database, and the catalog must be empty. Connection settings default to those in
+ * application.properties.
+ */
+public final class DatasetGenerator {
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Generates the dataset.
+     * @param args The options, each --name=value: drugs (such as 10k, 1m or 10m), users, seed,
+     *             as-of, batch-size, writers, url, username and password.
+     * @throws Exception if the database cannot be reached or a batch fails.
+     */
+    public static void main(String[] args) throws Exception {
+        var defaults = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        var values = new HashMap<String, String>(Map.of(
+                "drugs", "10k",
+                "users", "2000",
+                "seed", "42",
+                "as-of", LocalDate.now().toString(),
+                "batch-size", "1000",
+                "writers", "4",
+                "url", defaults.getProperty("spring.datasource.url"),
+                "username", defaults.getProperty("spring.datasource.username"),
+                "password", defaults.getProperty("spring.datasource.password")));
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown or malformed option " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        var options = new DatasetOptions(DatasetOptions.parseCount(values.get("drugs")),
+                Math.toIntExact(DatasetOptions.parseCount(values.get("users"))),
+                Long.parseLong(values.get("seed")),
+                LocalDate.parse(values.get("as-of")),
+                Integer.parseInt(values.get("batch-size")),
+                Integer.parseInt(values.get("writers")));
+
+        try (var dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl(values.get("url"));
+            dataSource.setUsername(values.get("username"));
+            dataSource.setPassword(values.get("password"));
+            dataSource.setMaximumPoolSize(Math.max(options.writers(), Runtime.getRuntime().availableProcessors()) + 1);
+
+            var jdbcTemplate = new JdbcTemplate(dataSource);
+            var existing = jdbcTemplate.queryForObject("select count(*) from pharmacy.drugs", Long.class);
+            if (existing != null && existing > 0) {
+                throw new IllegalStateException("The catalog already holds " + existing + " drugs; generate into an empty one");
+            }
+            new DatasetWriter(jdbcTemplate, new DataSourceTransactionManager(dataSource), new BCryptPasswordEncoder()).write(options);
+        }
+    }
+}
\ No newline at end of file
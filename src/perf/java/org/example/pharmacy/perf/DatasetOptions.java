@@ -0,0 +1,56 @@
+package org.example.pharmacy.perf;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * The shape of a generated dataset.
+ * Two datasets with the same options are identical row for row, whatever the batch size or the
+ * number of writers; only the BCrypt salts of the users differ.
+ * @param drugs The number of drugs.
+ * @param users The number of users.
+ * @param seed The seed every row is derived from.
+ * @param asOf The date expiration dates are placed around, so a share of the batches is already expired.
+ * @param batchSize The number of rows per insert batch and transaction.
+ * @param writers The number of threads writing batches.
+ */
+record DatasetOptions(long drugs, int users, long seed, LocalDate asOf, int batchSize, int writers) {
+
+    /**
+     * The largest catalog the generator can give unique MA numbers to.
+     */
+    static final long MAX_DRUGS = 26_000_000;
+
+    /**
+     * Checks the options.
+     * @throws IllegalArgumentException if an option is out of range.
+     */
+    DatasetOptions {
+        if (drugs < 0 || drugs > MAX_DRUGS) {
+            throw new IllegalArgumentException("The number of drugs must be between 0 and " + MAX_DRUGS);
+        }
+        if (users < 0 || users > 999_999) {
+            throw new IllegalArgumentException("The number of users must be between 0 and 999999");
+        }
+        if (batchSize < 1 || writers < 1) {
+            throw new IllegalArgumentException("The batch size and the number of writers must be positive");
+        }
+    }
+
+    /**
+     * Parses a row count such as 20000, 10k or 10m.
+     * @param count The count, optionally with a k (thousand) or m (million) suffix.
+     * @return The count.
+     * @throws NumberFormatException if the count is malformed.
+     */
+    static long parseCount(String count) {
+        var normalized = count.strip().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith("k")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 1)) * 1_000;
+        }
+        if (normalized.endsWith("m")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 1)) * 1_000_000;
+        }
+        return Long.parseLong(normalized);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package org.example.pharmacy.perf;
+
+import org.example.pharmacy.infrastructure.entity.CodedEnum;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes a generated dataset straight to the database with batched JDBC inserts.
+ * Drugs and their monographs are written together, one transaction per batch, by several threads
+ * at once. The drugs get a block of IDs above every ID in use or reserved by the drug ID generator,
+ * and the generator is raised past the block afterwards, so the application can keep creating
+ * drugs. Users get real BCrypt hashes, computed in parallel because each takes tens of
+ * milliseconds.
+ */
+final class DatasetWriter {
+    private static final Logger log = LoggerFactory.getLogger(DatasetWriter.class);
+
+    private static final String INSERT_DRUG = """
+            insert into pharmacy.drugs (id, ma, price, brand_name, manufacturer, active_ingredient, ndc, atc_code, drug_form,
+                route_of_administration, prescription_status, controlled_substance_status, batch_number, expiration_date,
+                available_copies, graphic_link)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+    private static final String INSERT_MONOGRAPH = """
+            insert into pharmacy.drug_monographs (drug_id, contraindications, side_effects, dosage, storage_conditions)
+            values (?, ?, ?, ?, ?)""";
+    private static final String INSERT_USER = "insert into users (username, password) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Creates a writer.
+     * @param jdbcTemplate The JDBC template of the target database.
+     * @param transactionManager The transaction manager used for each batch.
+     * @param passwordEncoder The encoder that hashes the users' passwords.
+     */
+    DatasetWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * Writes the drugs and the users of a dataset.
+     * @param options The shape of the dataset.
+     * @throws InterruptedException if interrupted while waiting for the writers.
+     * @throws IllegalStateException if a batch fails; batches already committed stay written.
+     */
+    void write(DatasetOptions options) throws InterruptedException {
+        var start = System.nanoTime();
+        writeDrugs(options);
+        var drugsWritten = System.nanoTime();
+        writeUsers(options);
+        log.info("Wrote {} drugs in {} ms and {} users in {} ms (seed {}, as of {})",
+                options.drugs(), (drugsWritten - start) / 1_000_000,
+                options.users(), (System.nanoTime() - drugsWritten) / 1_000_000,
+                options.seed(), options.asOf());
+    }
+
+    /**
+     * Writes the drugs and their monographs.
+     * @param options The shape of the dataset.
+     * @throws InterruptedException if interrupted while waiting for the writers.
+     */
+    private void writeDrugs(DatasetOptions options) throws InterruptedException {
+        if (options.drugs() == 0) {
+            return;
+        }
+        var generator = new CatalogGenerator(options.seed(), options.asOf());
+        var firstId = firstFreeDrugId();
+        var written = new AtomicLong();
+        var reported = new AtomicLong();
+        var step = Math.max(options.drugs() / 10, options.batchSize());
+
+        var tasks = new ArrayList<Runnable>();
+        for (var from = 0L; from < options.drugs(); from += options.batchSize()) {
+            var first = from;
+            var last = Math.min(options.drugs(), from + options.batchSize());
+            tasks.add(() -> {
+                writeDrugBatch(generator, firstId, first, last);
+                var total = written.addAndGet(last - first);
+                var milestone = total / step * step;
+                if (milestone > reported.get() && reported.getAndSet(milestone) < milestone) {
+                    log.info("Wrote {} of {} drugs", total, options.drugs());
+                }
+            });
+        }
+        runAll(tasks, options.writers(), "dataset-drug-writer-");
+
+        var floor = firstId + options.drugs() + DrugEntity.ID_ALLOCATION_SIZE;
+        jdbcTemplate.update("update pharmacy.id_generators set next_val = ? where sequence_name = 'drugs' and next_val < ?", floor, floor);
+    }
+
+    /**
+     * Writes one batch of drugs and their monographs in a transaction.
+     * @param generator The catalog generator.
+     * @param firstId The ID of the drug at index 0.
+     * @param from The index of the first drug of the batch.
+     * @param to The index after the last drug of the batch.
+     */
+    private void writeDrugBatch(CatalogGenerator generator, long firstId, long from, long to) {
+        var drugs = new ArrayList<DrugEntity>((int) (to - from));
+        var monographs = new ArrayList<DrugMonographEntity>((int) (to - from));
+        for (var index = from; index < to; index++) {
+            var drug = generator.drug(index);
+            drug.setId(firstId + index);
+            drugs.add(drug);
+            monographs.add(generator.monograph(index, drug));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_DRUG, drugs, drugs.size(), (statement, drug) -> {
+                statement.setLong(1, drug.getId());
+                statement.setString(2, drug.getMa());
+                statement.setDouble(3, drug.getPrice());
+                statement.setString(4, drug.getBrandName());
+                statement.setString(5, drug.getManufacturer());
+                statement.setString(6, drug.getActiveIngredient());
+                statement.setString(7, drug.getNdc());
+                statement.setString(8, drug.getAtcCode());
+                statement.setByte(9, drug.getDrugForm().getCode());
+                statement.setByte(10, drug.getRouteOfAdministration().getCode());
+                statement.setByte(11, drug.getPrescriptionStatus().getCode());
+                setCode(statement, 12, drug.getControlledSubstanceStatus());
+                statement.setString(13, drug.getBatchNumber());
+                statement.setDate(14, Date.valueOf(drug.getExpirationDate()));
+                statement.setInt(15, drug.getAvailableCopies());
+                statement.setString(16, drug.getGraphicLink());
+            });
+            jdbcTemplate.batchUpdate(INSERT_MONOGRAPH, monographs, monographs.size(), (statement, monograph) -> {
+                statement.setLong(1, monograph.getDrug().getId());
+                statement.setString(2, monograph.getContraindications());
+                statement.setString(3, monograph.getSideEffects());
+                statement.setString(4, monograph.getDosage());
+                statement.setString(5, monograph.getStorageConditions());
+            });
+        });
+    }
+
+    /**
+     * Writes the users, named user000001 and up, each with the password password-000001 and up.
+     * @param options The shape of the dataset.
+     * @throws InterruptedException if interrupted while waiting for the writers.
+     */
+    private void writeUsers(DatasetOptions options) throws InterruptedException {
+        var tasks = new ArrayList<Runnable>();
+        var batchSize = Math.min(options.batchSize(), 100);
+        for (var from = 1; from <= options.users(); from += batchSize) {
+            var first = from;
+            var last = Math.min(options.users(), from + batchSize - 1);
+            tasks.add(() -> {
+                var users = new ArrayList<String[]>();
+                for (var number = first; number <= last; number++) {
+                    users.add(new String[]{String.format("user%06d", number), passwordEncoder.encode(String.format("password-%06d", number))});
+                }
+                jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+                    statement.setString(1, user[0]);
+                    statement.setString(2, user[1]);
+                });
+            });
+        }
+        runAll(tasks, Math.max(options.writers(), Runtime.getRuntime().availableProcessors()), "dataset-user-writer-");
+    }
+
+    /**
+     * Finds the first drug ID that is neither in use nor reserved by the drug ID generator.
+     * @return The ID.
+     */
+    private long firstFreeDrugId() {
+        var maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from pharmacy.drugs", Long.class);
+        var reserved = jdbcTemplate.queryForObject("select coalesce(max(next_val), 0) from pharmacy.id_generators where sequence_name = 'drugs'", Long.class);
+        return Math.max(maxId, reserved) + 1;
+    }
+
+    /**
+     * Runs tasks on a pool of platform threads and waits for all of them.
+     * @param tasks The tasks.
+     * @param threads The number of threads.
+     * @param namePrefix The prefix of the thread names.
+     * @throws InterruptedException if interrupted while waiting.
+     * @throws IllegalStateException if a task fails; the remaining tasks are cancelled.
+     */
+    private static void runAll(List<Runnable> tasks, int threads, String namePrefix) throws InterruptedException {
+        var counter = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        })) {
+            var futures = new ArrayList<Future<?>>(tasks.size());
+            tasks.forEach(task -> futures.add(executor.submit(task)));
+            for (var future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    futures.forEach(pending -> pending.cancel(true));
+                    throw new IllegalStateException("Writing the dataset failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets a nullable coded enum parameter.
+     * @param statement The statement.
+     * @param index The index of the parameter.
+     * @param value The value, or null.
+     * @throws SQLException if the parameter cannot be set.
+     */
+    private static void setCode(PreparedStatement statement, int index, CodedEnum value) throws SQLException {
+        if (value != null) {
+            statement.setByte(index, value.getCode());
+        }
+        else {
+            statement.setNull(index, Types.TINYINT);
+        }
+    }
+}
\ No newline at end of file
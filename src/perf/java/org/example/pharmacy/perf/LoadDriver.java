@@ -0,0 +1,285 @@
+package org.example.pharmacy.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a weighted mix of requests from a fixed number of clients and records their latency.
+ * Each client runs in a closed loop and sends its next request once the previous one has
+ * completed and its think time has passed, so the offered load adapts to the server. The think
+ * time is not part of the latency. Latencies therefore describe the requests
+ * that were sent; they do not account for requests a slow server kept the clients from sending
+ * (coordinated omission), which is why throughput must be read together with them. Latencies and
+ * errors of the warmup are discarded.
+ */
+final class LoadDriver {
+
+    /**
+     * Largest latency the histograms can record, in microseconds.
+     */
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * What was measured for one operation.
+     * @param histogram The latencies of the successful requests, in microseconds.
+     * @param errors The number of failed requests by HTTP status; -1 for requests that got no response.
+     */
+    record Measurement(Histogram histogram, Map<Integer, Long> errors) {
+    }
+
+    /**
+     * What was measured in a run.
+     * @param operations The measurement of each operation in the mix.
+     * @param elapsed How long the measurement lasted.
+     */
+    record Result(Map<Operation, Measurement> operations, Duration elapsed) {
+    }
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Operation[] weighted;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> errors = new EnumMap<>(Operation.class);
+    private final AtomicLong createdDrugs = new AtomicLong();
+    private final String maPrefix;
+    private volatile boolean measuring;
+    private List<Long> drugIds;
+    private String token;
+
+    /**
+     * Creates a driver.
+     * @param options The options of the run.
+     * @param baseUrl The URL of the application under test.
+     */
+    LoadDriver(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        var slots = new ArrayList<Operation>();
+        options.mix().forEach((operation, weight) -> {
+            for (var i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+            recorders.put(operation, new Recorder(HIGHEST_LATENCY, 3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        });
+        this.weighted = slots.toArray(new Operation[0]);
+
+        var random = new SplittableRandom(options.seed());
+        this.maPrefix = "L" + (char) ('A' + random.nextInt(26));
+    }
+
+    /**
+     * Logs in, collects drug IDs, then runs the warmup and the measurement.
+     * @return The measurements.
+     * @throws IOException if the preparation requests fail.
+     * @throws InterruptedException if interrupted while waiting for the clients.
+     */
+    Result run() throws IOException, InterruptedException {
+        token = login();
+        drugIds = collectDrugIds();
+        if (drugIds.isEmpty()) {
+            throw new IllegalStateException("The catalog under test has no drugs");
+        }
+
+        var warmupEnd = System.nanoTime() + options.warmup().toNanos();
+        var end = warmupEnd + options.duration().toNanos();
+        long measureStart;
+        try (var clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < options.concurrency(); i++) {
+                var random = new SplittableRandom(options.seed() + i);
+                clients.submit(() -> loop(random, end));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+            recorders.values().forEach(Recorder::reset);
+            errors.values().forEach(Map::clear);
+            measureStart = System.nanoTime();
+            measuring = true;
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - measureStart);
+
+        var operations = new EnumMap<Operation, Measurement>(Operation.class);
+        recorders.forEach((operation, recorder) -> {
+            var byStatus = new TreeMap<Integer, Long>();
+            errors.get(operation).forEach((status, count) -> byStatus.put(status, count.sum()));
+            operations.put(operation, new Measurement(recorder.getIntervalHistogram(), byStatus));
+        });
+        return new Result(operations, elapsed);
+    }
+
+    /**
+     * Sends requests until the end of the run.
+     * @param random The random source of this client.
+     * @param end The end of the run, in System.nanoTime() units.
+     */
+    private void loop(SplittableRandom random, long end) {
+        while (System.nanoTime() < end) {
+            var operation = weighted[random.nextInt(weighted.length)];
+            var start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request(operation, random), HttpResponse.BodyHandlers.discarding()).statusCode();
+            }
+            catch (IOException e) {
+                status = -1;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            var latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+            if (measuring) {
+                if (status >= 200 && status < 400) {
+                    recorders.get(operation).recordValue(Math.min(latency, HIGHEST_LATENCY));
+                }
+                else {
+                    errors.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+                }
+            }
+
+            if (options.thinkTime().isPositive()) {
+                try {
+                    Thread.sleep(options.thinkTime());
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the request of an operation.
+     * @param operation The operation.
+     * @param random The random source of the client.
+     * @return The request.
+     * @throws IOException if the body cannot be serialized.
+     */
+    private HttpRequest request(Operation operation, SplittableRandom random) throws IOException {
+        return switch (operation) {
+            case LIST -> get("/api/drugs?size=20");
+            case GET -> get("/api/drugs/" + drugIds.get(random.nextInt(drugIds.size())));
+            case LOGIN -> post("/api/auth/login", Map.of("username", options.username(), "password", options.password())).build();
+            case CREATE -> post("/api/drugs", newDrug(random)).header("Authorization", "Bearer " + token).build();
+        };
+    }
+
+    /**
+     * Logs in as the load test user.
+     * @return The token.
+     * @throws IOException if the login fails.
+     * @throws InterruptedException if interrupted while waiting for the response.
+     */
+    private String login() throws IOException, InterruptedException {
+        var response = client.send(post("/api/auth/login", Map.of("username", options.username(), "password", options.password())).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Login as " + options.username() + " failed with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    /**
+     * Pages through the catalog until enough drug IDs are collected or the catalog ends.
+     * @return The drug IDs.
+     * @throws IOException if a page cannot be read.
+     * @throws InterruptedException if interrupted while waiting for a response.
+     */
+    private List<Long> collectDrugIds() throws IOException, InterruptedException {
+        var ids = new ArrayList<Long>();
+        String cursor = null;
+        do {
+            var path = "/api/drugs?size=100" + (cursor != null ? "&cursor=" + cursor : "");
+            var response = client.send(get(path), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Listing drugs failed with status " + response.statusCode());
+            }
+            var page = objectMapper.readTree(response.body());
+            page.path("items").forEach(item -> ids.add(item.path("id").asLong()));
+            cursor = page.path("nextCursor").isTextual() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null && ids.size() < options.drugIds());
+        return ids.size() > options.drugIds() ? ids.subList(0, options.drugIds()) : ids;
+    }
+
+    /**
+     * Generates a valid drug to create, with an MA number no other request of the run uses.
+     * Generated catalogs use MA numbers starting with D, so those of created drugs start with L.
+     * @param random The random source of the client.
+     * @return The body of the creation request.
+     */
+    private Map<String, Object> newDrug(SplittableRandom random) {
+        var number = createdDrugs.incrementAndGet() % 1_000_000;
+        var drug = new HashMap<String, Object>();
+        drug.put("ma", maPrefix + String.format("%06d", number));
+        drug.put("price", 1 + random.nextInt(9900) / 100.0);
+        drug.put("brandName", "Load Test " + number);
+        drug.put("manufacturer", "Perf Labs");
+        drug.put("activeIngredient", "Ibuprofen");
+        drug.put("ndc", String.format("9%03d-%04d-%02d", number / 1_000_000, number / 100 % 10_000, number % 100));
+        drug.put("atcCode", "M01AE01");
+        drug.put("drugForm", "tablet");
+        drug.put("routeOfAdministration", "oral");
+        drug.put("prescriptionStatus", "OTC");
+        drug.put("controlledSubstanceStatus", "C-V");
+        drug.put("dosage", "200 mg every 6 hours");
+        drug.put("batchNumber", "LT" + number);
+        drug.put("expirationDate", "2030-12-31");
+        drug.put("availableCopies", 1 + random.nextInt(100));
+        return drug;
+    }
+
+    /**
+     * Builds a GET request.
+     * @param path The path and query.
+     * @return The request.
+     */
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    /**
+     * Starts a POST request with a JSON body.
+     * @param path The path.
+     * @param body The body, serialized as JSON.
+     * @return The request builder.
+     * @throws IOException if the body cannot be serialized.
+     */
+    private HttpRequest.Builder post(String path, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+}
\ No newline at end of file
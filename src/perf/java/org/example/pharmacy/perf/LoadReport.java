@@ -0,0 +1,134 @@
+package org.example.pharmacy.perf;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the result of a load test run as a plain text report, one line per operation, followed by
+ * the full percentile distribution of each operation in HdrHistogram's .hgrm format next to it.
+ */
+final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestOptions options;
+    private final String target;
+    private final LoadDriver.Result result;
+
+    /**
+     * Creates a report.
+     * @param options The options of the run.
+     * @param target The URL the run was sent to, or a description of the in-process application.
+     * @param result The measurements.
+     */
+    LoadReport(LoadTestOptions options, String target, LoadDriver.Result result) {
+        this.options = options;
+        this.target = target;
+        this.result = result;
+    }
+
+    /**
+     * Writes the report and the percentile files, creating their directory if needed.
+     * @return The text of the report.
+     * @throws IOException if a file cannot be written.
+     */
+    String write() throws IOException {
+        var report = options.report().toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        var text = text();
+        Files.writeString(report, text);
+
+        var name = report.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        for (var entry : result.operations().entrySet()) {
+            var file = report.resolveSibling(name + "-" + entry.getKey().label() + ".hgrm");
+            try (var out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+                entry.getValue().histogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Formats the report.
+     * @return The text of the report.
+     */
+    private String text() {
+        var seconds = result.elapsed().toNanos() / 1e9;
+        var out = new StringBuilder();
+        out.append("target       ").append(target).append('\n');
+        out.append("concurrency  ").append(options.concurrency()).append('\n');
+        out.append("think time   ").append(options.thinkTime().toMillis()).append("ms\n");
+        out.append("warmup       ").append(options.warmup().toSeconds()).append("s\n");
+        out.append("duration     ").append(String.format(Locale.ROOT, "%.1fs", seconds)).append('\n');
+        out.append("mix          ").append(options.mix().entrySet().stream()
+                .map(entry -> entry.getKey().label() + ":" + entry.getValue())
+                .collect(Collectors.joining(","))).append('\n');
+        out.append("seed         ").append(options.seed()).append('\n');
+        out.append('\n');
+        out.append(String.format(Locale.ROOT, "%-8s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms"));
+
+        var total = new Histogram(3);
+        var totalErrors = 0L;
+        for (var entry : result.operations().entrySet()) {
+            var measurement = entry.getValue();
+            var errors = errorCount(measurement.errors());
+            total.add(measurement.histogram());
+            totalErrors += errors;
+            out.append(line(entry.getKey().label(), measurement.histogram(), errors, seconds));
+        }
+        out.append(line("total", total, totalErrors, seconds));
+
+        var byStatus = new TreeMap<String, Long>();
+        result.operations().forEach((operation, measurement) -> measurement.errors().forEach((status, count) ->
+                byStatus.put(operation.label() + " " + (status < 0 ? "no response" : status), count)));
+        if (!byStatus.isEmpty()) {
+            out.append('\n').append("errors\n");
+            byStatus.forEach((key, count) -> out.append(String.format(Locale.ROOT, "  %-20s %d%n", key, count)));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Formats the line of one operation.
+     * @param label The label of the operation.
+     * @param histogram The latencies of its successful requests, in microseconds.
+     * @param errors The number of its failed requests.
+     * @param seconds The length of the measurement in seconds.
+     * @return The line.
+     */
+    private static String line(String label, Histogram histogram, long errors, double seconds) {
+        var requests = histogram.getTotalCount() + errors;
+        return String.format(Locale.ROOT, "%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label, requests, errors, requests / seconds,
+                millis(histogram, 50), millis(histogram, 95), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Gets a percentile of a histogram in milliseconds.
+     * @param histogram The latencies in microseconds.
+     * @param percentile The percentile.
+     * @return The latency at the percentile, in milliseconds.
+     */
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * Sums the errors of an operation.
+     * @param errors The number of errors by status.
+     * @return The number of errors.
+     */
+    private static long errorCount(Map<Integer, Long> errors) {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package org.example.pharmacy.perf;
+
+import org.example.pharmacy.PharmacyApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+
+/**
+ * Runs a load test against the application and writes its report.
+ * Without --base-url, the application is started in-process with the perf profile on an embedded
+ * database seeded with a fixed catalog, so a run needs nothing but the JDK. Further profiles, such
+ * as virtual, can be added with --profiles.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    /**
+     * Runs the load test.
+     * @param args The options, each --name=value; see {@link LoadTestOptions}.
+     * @throws Exception if the application cannot be started or the run fails.
+     */
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        var baseUrl = options.baseUrl();
+        var target = baseUrl;
+        if (baseUrl == null) {
+            var profiles = new ArrayList<String>();
+            profiles.add("perf");
+            profiles.addAll(options.profiles());
+            context = new SpringApplicationBuilder(PharmacyApplication.class)
+                    .profiles(profiles.toArray(new String[0]))
+                    .run("--server.port=0");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            target = "embedded (profiles " + String.join(",", profiles) + ", " + context.getEnvironment().getProperty("perf.dataset.drugs") + " drugs)";
+        }
+
+        try {
+            var result = new LoadDriver(options, baseUrl).run();
+            System.out.print(new LoadReport(options, target, result).write());
+            System.out.println();
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+        }
+        finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package org.example.pharmacy.perf;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The options of a load test run, parsed from --name=value arguments.
+ * @param baseUrl The URL of the application under test, or null to start it in-process with the perf profile.
+ * @param profiles The Spring profiles the in-process application runs with besides perf.
+ * @param concurrency The number of clients sending requests in a closed loop.
+ * @param thinkTime How long each client waits after a response before sending its next request.
+ * @param warmup How long requests are sent before measuring starts.
+ * @param duration How long requests are measured.
+ * @param mix The relative weight of each operation.
+ * @param seed The seed of the clients' random choices.
+ * @param username The username of the load test user.
+ * @param password The password of the load test user.
+ * @param drugIds How many drug IDs to collect from the catalog for GET requests.
+ * @param report The file the report is written to.
+ */
+record LoadTestOptions(String baseUrl, List<String> profiles, int concurrency, Duration thinkTime, Duration warmup, Duration duration,
+                       Map<Operation, Integer> mix, long seed, String username, String password, int drugIds, Path report) {
+
+    /**
+     * Parses the options, using the default of every option that is not given.
+     * @param args The arguments, each --name=value.
+     * @return The options.
+     * @throws IllegalArgumentException if an argument is unknown or malformed, or profiles are given with a base URL.
+     */
+    static LoadTestOptions parse(String[] args) {
+        var values = new HashMap<String, String>(Map.ofEntries(
+                Map.entry("profiles", ""),
+                Map.entry("concurrency", "32"),
+                Map.entry("think-time", "0s"),
+                Map.entry("warmup", "10s"),
+                Map.entry("duration", "30s"),
+                Map.entry("mix", "list:40,get:40,login:5,create:15"),
+                Map.entry("seed", "42"),
+                Map.entry("username", "perf"),
+                Map.entry("password", "perf-password"),
+                Map.entry("drug-ids", "2000"),
+                Map.entry("report", "target/perf/report.txt")));
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            var name = arg.substring(2, separator);
+            if (!values.containsKey(name) && !name.equals("base-url")) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+
+        var profiles = values.get("profiles").isBlank()
+                ? List.<String>of()
+                : List.of(values.get("profiles").strip().split("\\s*,\\s*"));
+        if (values.get("base-url") != null && !profiles.isEmpty()) {
+            throw new IllegalArgumentException("--profiles applies only to the in-process application, not to --base-url");
+        }
+
+        return new LoadTestOptions(values.get("base-url"),
+                profiles,
+                Integer.parseInt(values.get("concurrency")),
+                DurationStyle.detectAndParse(values.get("think-time")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                parseMix(values.get("mix")),
+                Long.parseLong(values.get("seed")),
+                values.get("username"),
+                values.get("password"),
+                Integer.parseInt(values.get("drug-ids")),
+                Path.of(values.get("report")));
+    }
+
+    /**
+     * Parses an operation mix such as list:40,get:40,login:5,create:15.
+     * @param mix The mix.
+     * @return The weight of each operation with a positive weight, in operation order.
+     * @throws IllegalArgumentException if the mix is malformed or has no positive weight.
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got " + entry);
+            }
+            var weight = Integer.parseInt(parts[1].strip());
+            if (weight > 0) {
+                weights.put(Operation.fromLabel(parts[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+}
\ No newline at end of file
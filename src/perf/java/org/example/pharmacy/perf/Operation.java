@@ -0,0 +1,43 @@
+package org.example.pharmacy.perf;
+
+import java.util.Locale;
+
+/**
+ * The requests the load driver sends.
+ */
+enum Operation {
+    /**
+     * GET /api/drugs: the first page of the catalog.
+     */
+    LIST,
+    /**
+     * GET /api/drugs/{id}: a random seeded drug.
+     */
+    GET,
+    /**
+     * POST /api/auth/login: the load test user.
+     */
+    LOGIN,
+    /**
+     * POST /api/drugs: a new drug, authenticated with the load test user's token.
+     */
+    CREATE;
+
+    /**
+     * Gets the name of the operation in options and reports.
+     * @return The lowercase name.
+     */
+    String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds an operation by its name.
+     * @param label The name, in any case.
+     * @return The operation.
+     * @throws IllegalArgumentException if no operation has the name.
+     */
+    static Operation fromLabel(String label) {
+        return valueOf(label.strip().toUpperCase(Locale.ROOT));
+    }
+}
\ No newline at end of file
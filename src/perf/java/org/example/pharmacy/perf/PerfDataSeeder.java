@@ -0,0 +1,95 @@
+package org.example.pharmacy.perf;
+
+import org.example.pharmacy.infrastructure.entity.UserEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.infrastructure.repository.IUserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+/**
+ * Fills the embedded database of the perf profile with a generated dataset and the load test user.
+ * The dataset is derived from a fixed seed, so every run measures the same data. Runners finish
+ * before the application is ready, so the search index and the ATC tree are built from the seeded
+ * catalog. Nothing is seeded if the catalog already holds drugs.
+ */
+@Component
+@Profile("perf")
+public class PerfDataSeeder implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+
+    private final DrugRepository drugRepository;
+    private final IUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final DatasetWriter writer;
+    private final DatasetOptions options;
+    private final String username;
+    private final String password;
+
+    /**
+     * Constructs a PerfDataSeeder.
+     * @param drugRepository The drug repository.
+     * @param userRepository The user repository.
+     * @param passwordEncoder The password encoder used for the generated users and the load test user.
+     * @param jdbcTemplate The JDBC template the dataset is written with.
+     * @param transactionManager The transaction manager used for each batch.
+     * @param drugs The number of drugs to seed, such as 20000 or 1m.
+     * @param users The number of users to seed.
+     * @param seed The seed the dataset is generated from.
+     * @param asOf The date expiration dates are placed around; empty for today.
+     * @param batchSize The number of rows per insert batch.
+     * @param writers The number of threads writing batches.
+     * @param username The username of the load test user.
+     * @param password The password of the load test user.
+     */
+    @Autowired
+    public PerfDataSeeder(DrugRepository drugRepository, IUserRepository userRepository, PasswordEncoder passwordEncoder,
+                          JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          @Value("${perf.dataset.drugs}") String drugs,
+                          @Value("${perf.dataset.users}") int users,
+                          @Value("${perf.dataset.seed}") long seed,
+                          @Value("${perf.dataset.as-of:}") String asOf,
+                          @Value("${perf.dataset.batch-size}") int batchSize,
+                          @Value("${perf.dataset.writers}") int writers,
+                          @Value("${perf.user.username}") String username,
+                          @Value("${perf.user.password}") String password) {
+        this.drugRepository = drugRepository;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.writer = new DatasetWriter(jdbcTemplate, transactionManager, passwordEncoder);
+        this.options = new DatasetOptions(DatasetOptions.parseCount(drugs), users, seed,
+                asOf.isBlank() ? LocalDate.now() : LocalDate.parse(asOf), batchSize, writers);
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * Seeds the dataset and the load test user.
+     * @param args The application arguments; unused.
+     * @throws InterruptedException if interrupted while waiting for the writers.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (drugRepository.count() > 0) {
+            log.info("Catalog already holds drugs; skipping the perf seed");
+            return;
+        }
+
+        writer.write(options);
+
+        var user = new UserEntity();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode(password));
+        userRepository.save(user);
+    }
+}
\ No newline at end of file
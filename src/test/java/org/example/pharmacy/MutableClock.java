@@ -0,0 +1,59 @@
+package org.example.pharmacy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A clock that only moves when told to, for tests of behaviour that depends on the date.
+ * Clocks derived with {@link #withZone(ZoneId)} share the instant, so they move together.
+ */
+public final class MutableClock extends Clock {
+    private final AtomicReference<Instant> instant;
+    private final ZoneId zone;
+
+    /**
+     * Creates a clock.
+     * @param dateTime The local date and time the clock starts at.
+     * @param zone The time zone of the clock.
+     */
+    public MutableClock(LocalDateTime dateTime, ZoneId zone) {
+        this(new AtomicReference<>(dateTime.atZone(zone).toInstant()), zone);
+    }
+
+    /**
+     * Creates a clock reading a shared instant.
+     * @param instant The instant, shared with the clocks derived from this one.
+     * @param zone The time zone of the clock.
+     */
+    private MutableClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock, and every clock sharing its instant, forward.
+     * @param duration How far to move it.
+     */
+    public void advance(Duration duration) {
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new MutableClock(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+}
\ No newline at end of file
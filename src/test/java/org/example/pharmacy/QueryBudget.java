@@ -0,0 +1,58 @@
+package org.example.pharmacy;
+
+import org.example.pharmacy.infrastructure.statistics.QueryCounter;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asserts how many SQL statements an action issues, so that N+1 queries and extra round trips
+ * fail the build. The action must run on the calling thread, as MockMvc requests and direct
+ * service calls do.
+ */
+public final class QueryBudget {
+    private final QueryCounter queryCounter;
+
+    /**
+     * Creates a budget checker.
+     * @param queryCounter The counter of the statements Hibernate prepares.
+     */
+    public QueryBudget(QueryCounter queryCounter) {
+        this.queryCounter = queryCounter;
+    }
+
+    /**
+     * Runs an action and asserts that it issued exactly the given number of statements.
+     * @param statements The expected number of statements.
+     * @param action The action.
+     * @param <T> The type of the action's result.
+     * @return The result of the action.
+     * @throws Exception if the action failed.
+     */
+    public <T> T exactly(int statements, Callable<T> action) throws Exception {
+        try (var scope = queryCounter.open()) {
+            var result = action.call();
+            assertEquals(statements, scope.count(), () -> "Statements issued: " + scope.statements());
+            return result;
+        }
+    }
+
+    /**
+     * Runs an action and asserts that it issued at most the given number of statements.
+     * @param statements The largest number of statements allowed.
+     * @param action The action.
+     * @param <T> The type of the action's result.
+     * @return The result of the action.
+     * @throws Exception if the action failed.
+     */
+    public <T> T atMost(int statements, Callable<T> action) throws Exception {
+        try (var scope = queryCounter.open()) {
+            var result = action.call();
+            assertTrue(scope.count() <= statements,
+                    () -> "Expected at most " + statements + " statements, issued: " + scope.statements());
+            return result;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package org.example.pharmacy;
+
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+
+import java.time.LocalDate;
+
+/**
+ * Builds valid drugs for tests. Callers change only the fields their test is about.
+ */
+public final class TestDrugs {
+
+    private TestDrugs() {
+    }
+
+    /**
+     * Builds a request to create a drug in stock that expires far in the future, valid against
+     * every constraint declared on CreateDrugDto.
+     * @param ma The MA number of the drug; its digits are also used in its NDC.
+     * @return The CreateDrugDto.
+     */
+    public static CreateDrugDto createDto(String ma) {
+        var drug = new CreateDrugDto();
+        drug.setMa(ma);
+        drug.setBrandName("Test " + ma);
+        drug.setManufacturer("Test Labs");
+        drug.setActiveIngredient("Paracetamol");
+        drug.setNdc(ndc(ma));
+        drug.setAtcCode("N02BE01");
+        drug.setDrugForm("tablet");
+        drug.setRouteOfAdministration("oral");
+        drug.setPrescriptionStatus("OTC");
+        drug.setControlledSubstanceStatus("C-V");
+        drug.setDosage("500 mg");
+        drug.setBatchNumber("TB-" + ma);
+        drug.setPrice(4.99);
+        drug.setAvailableCopies(10);
+        drug.setExpirationDate("2099-01-01");
+        return drug;
+    }
+
+    /**
+     * Builds an unsaved drug in stock that expires far in the future.
+     * @param ma The MA number of the drug.
+     * @return The DrugEntity.
+     */
+    public static DrugEntity entity(String ma) {
+        var drug = new DrugEntity();
+        drug.setMa(ma);
+        drug.setBrandName("Test " + ma);
+        drug.setManufacturer("Test Labs");
+        drug.setActiveIngredient("Paracetamol");
+        drug.setNdc(ndc(ma));
+        drug.setAtcCode("N02BE01");
+        drug.setDrugForm(DrugForm.TABLET);
+        drug.setRouteOfAdministration(RouteOfAdministration.ORAL);
+        drug.setPrescriptionStatus(PrescriptionStatus.OTC);
+        drug.setControlledSubstanceStatus(ControlledSubstanceStatus.C_V);
+        drug.setBatchNumber("TB-" + ma);
+        drug.setPrice(4.99);
+        drug.setAvailableCopies(10);
+        drug.setExpirationDate(LocalDate.of(2099, 1, 1));
+        return drug;
+    }
+
+    /**
+     * Builds an NDC in the 1234-5678-90 format from the digits of an MA number.
+     * @param ma The MA number.
+     * @return The NDC.
+     */
+    private static String ndc(String ma) {
+        var digits = ma.substring(2);
+        return "00" + digits.substring(0, 2) + "-" + digits.substring(2) + "-00";
+    }
+}
\ No newline at end of file
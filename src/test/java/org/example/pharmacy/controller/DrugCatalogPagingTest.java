@@ -0,0 +1,180 @@
+package org.example.pharmacy.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.service.DrugService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the drug catalog page by page and checks that every drug is listed exactly once, in
+ * keyset order, whatever page size is used: drugs without an expiration date after all the others
+ * when sorting by date, and drugs sharing a sort value in ID order.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "test.database=catalog-paging")
+class DrugCatalogPagingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void nullExpirationDatesArePagedLast() throws Exception {
+        var ingredient = "Nullsorbate";
+        var undatedFirst = createDrug("NP000001", ingredient, null);
+        var late = createDrug("NP000002", ingredient, "2031-05-01");
+        var undatedSecond = createDrug("NP000003", ingredient, null);
+        var early = createDrug("NP000004", ingredient, "2030-01-01");
+        var middle = createDrug("NP000005", ingredient, "2030-06-15");
+        var undatedThird = createDrug("NP000006", ingredient, null);
+        var expected = List.of(early, middle, late, undatedFirst, undatedSecond, undatedThird);
+
+        for (var size = 1; size <= expected.size() + 1; size++) {
+            assertEquals(expected, ids(walk("expirationDate", ingredient, size)), "page size " + size);
+        }
+    }
+
+    @Test
+    void catalogWithOnlyNullExpirationDatesIsPagedById() throws Exception {
+        var ingredient = "Undatium";
+        var first = createDrug("NU000001", ingredient, null);
+        var second = createDrug("NU000002", ingredient, null);
+        var third = createDrug("NU000003", ingredient, null);
+
+        assertEquals(List.of(first, second, third), ids(walk("expirationDate", ingredient, 2)));
+    }
+
+    @Test
+    void unfilteredCatalogListsEveryDrugOnceWithNullExpirationDatesLast() throws Exception {
+        var undated = createDrug("NA000001", "Omnidatine", null);
+        var dated = createDrug("NA000002", "Omnidatine", "2029-02-28");
+
+        var drugs = walk("expirationDate", null, 3);
+
+        var ids = ids(drugs);
+        assertEquals(ids.size(), new HashSet<>(ids).size(), "a drug was listed twice");
+        assertTrue(ids.contains(undated));
+        assertTrue(ids.contains(dated));
+        var firstUndated = 0;
+        while (firstUndated < drugs.size() && !drugs.get(firstUndated).get("expirationDate").isNull()) {
+            firstUndated++;
+        }
+        for (var i = firstUndated; i < drugs.size(); i++) {
+            assertTrue(drugs.get(i).get("expirationDate").isNull(), "a dated drug was listed after an undated one");
+        }
+    }
+
+    @Test
+    void tiedSortValuesArePagedById() throws Exception {
+        var ingredient = "Tiedoxin";
+        var first = createDrug("TI000001", ingredient, 5.0, "Same");
+        var second = createDrug("TI000002", ingredient, 5.0, "Other");
+        var third = createDrug("TI000003", ingredient, 3.0, "Same");
+        var fourth = createDrug("TI000004", ingredient, 5.0, "Same");
+        var fifth = createDrug("TI000005", ingredient, 3.0, "Other");
+
+        for (var size = 1; size <= 6; size++) {
+            assertEquals(List.of(third, fifth, first, second, fourth), ids(walk("price", ingredient, size)), "price, page size " + size);
+            assertEquals(List.of(second, fifth, first, third, fourth), ids(walk("brandName", ingredient, size)), "brand name, page size " + size);
+        }
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/drugs").param("sort", "price").param("cursor", "eyJzIjoicHJpY2UiLCJpZCI6IngifQ"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Reads every page of the catalog, following the cursors.
+     * @param sort The sort key.
+     * @param ingredient The active ingredient to filter by, or null for the whole catalog.
+     * @param size The page size.
+     * @return The drug summaries in the order they were listed.
+     * @throws Exception if a request fails.
+     */
+    private List<JsonNode> walk(String sort, String ingredient, int size) throws Exception {
+        var drugs = new ArrayList<JsonNode>();
+        String cursor = null;
+        do {
+            var request = get("/api/drugs").param("sort", sort).param("size", Integer.toString(size));
+            if (ingredient != null) {
+                request.param("ingredient", ingredient);
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            var body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            var page = objectMapper.readTree(body);
+            var items = page.get("items");
+            assertTrue(items.size() <= size);
+            items.forEach(drugs::add);
+            cursor = page.get("nextCursor").textValue();
+        } while (cursor != null);
+        return drugs;
+    }
+
+    /**
+     * Gets the IDs of drug summaries.
+     * @param drugs The drug summaries.
+     * @return Their IDs, in the same order.
+     */
+    private static List<Long> ids(List<JsonNode> drugs) {
+        return drugs.stream().map(drug -> drug.get("id").asLong()).toList();
+    }
+
+    /**
+     * Creates a drug with its monograph.
+     * @param ma The MA number of the drug.
+     * @param activeIngredient The active ingredient of the drug.
+     * @param expirationDate The expiration date, or null for a drug without one.
+     * @return The ID of the drug.
+     */
+    private long createDrug(String ma, String activeIngredient, String expirationDate) {
+        var drug = TestDrugs.createDto(ma);
+        drug.setActiveIngredient(activeIngredient);
+        drug.setExpirationDate(expirationDate);
+        return drugService.create(drug).getId();
+    }
+
+    /**
+     * Creates a drug with its monograph.
+     * @param ma The MA number of the drug.
+     * @param activeIngredient The active ingredient of the drug.
+     * @param price The price of the drug.
+     * @param brandName The brand name of the drug.
+     * @return The ID of the drug.
+     */
+    private long createDrug(String ma, String activeIngredient, double price, String brandName) {
+        var drug = TestDrugs.createDto(ma);
+        drug.setActiveIngredient(activeIngredient);
+        drug.setPrice(price);
+        drug.setBrandName(brandName);
+        return drugService.create(drug).getId();
+    }
+}
\ No newline at end of file
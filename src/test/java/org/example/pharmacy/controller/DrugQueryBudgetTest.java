@@ -0,0 +1,110 @@
+package org.example.pharmacy.controller;
+
+import org.example.pharmacy.QueryBudget;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.controller.filters.QueryCountFilter;
+import org.example.pharmacy.infrastructure.repository.DrugMonographRepository;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.infrastructure.statistics.QueryCounter;
+import org.example.pharmacy.service.DrugService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements the drug endpoints and operations issue against an H2
+ * database, so that N+1 queries and extra round trips fail the build.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "test.database=query-budget")
+class DrugQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private DrugMonographRepository monographRepository;
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    private QueryBudget budget;
+
+    @BeforeEach
+    void createBudget() {
+        budget = new QueryBudget(queryCounter);
+    }
+
+    @Test
+    void getDrugIsOneStatementWhenColdAndNoneWhenCached() throws Exception {
+        var id = createDrug("QB000001");
+
+        budget.exactly(1, () -> mockMvc.perform(get("/api/drugs/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "1")));
+        budget.exactly(0, () -> mockMvc.perform(get("/api/drugs/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountFilter.HEADER, "0")));
+    }
+
+    @Test
+    void getMissingDrugIsOneStatement() throws Exception {
+        budget.exactly(1, () -> mockMvc.perform(get("/api/drugs/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound()));
+    }
+
+    @Test
+    void catalogPageIsOneStatement() throws Exception {
+        for (var i = 0; i < 5; i++) {
+            createDrug(String.format("QP%06d", i));
+        }
+
+        budget.exactly(1, () -> mockMvc.perform(get("/api/drugs").param("size", "3"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void deleteIsOneStatement() throws Exception {
+        var id = createDrug("QD000001");
+
+        budget.exactly(1, () -> {
+            drugService.delete(id);
+            return null;
+        });
+        assertFalse(drugRepository.existsById(id));
+        assertFalse(monographRepository.existsById(id));
+    }
+
+    @Test
+    void deleteOfMissingDrugIsOneStatement() throws Exception {
+        budget.exactly(1, () -> assertThrows(RuntimeException.class, () -> drugService.delete(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Creates a drug with its monograph.
+     * @param ma The MA number of the drug.
+     * @return The ID of the drug.
+     */
+    private long createDrug(String ma) {
+        return drugService.create(TestDrugs.createDto(ma)).getId();
+    }
+}
\ No newline at end of file
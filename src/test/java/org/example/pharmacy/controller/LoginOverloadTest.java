@@ -0,0 +1,141 @@
+package org.example.pharmacy.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.pharmacy.controller.dto.LoginRequestDto;
+import org.example.pharmacy.infrastructure.entity.UserEntity;
+import org.example.pharmacy.infrastructure.repository.IUserRepository;
+import org.example.pharmacy.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fills the password verification executor with logins whose hashes are held back, and checks
+ * that the next login is shed with 503 and a Retry-After header while the held logins succeed.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "test.database=login-overload",
+        "security.login.threads=1",
+        "security.login.queue-capacity=1",
+        "security.login.timeout=30s",
+        "security.login.retry-after=7s"
+})
+class LoginOverloadTest {
+    private static final CountDownLatch HASHING = new CountDownLatch(1);
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        @Primary
+        PasswordEncoder heldPasswordEncoder() {
+            var bcrypt = new BCryptPasswordEncoder(4);
+            return new PasswordEncoder() {
+                @Override
+                public String encode(CharSequence rawPassword) {
+                    return bcrypt.encode(rawPassword);
+                }
+
+                @Override
+                public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                    HASHING.countDown();
+                    try {
+                        RELEASE.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return bcrypt.matches(rawPassword, encodedPassword);
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private IUserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginBeyondTheQueueIsShedWithRetryAfter() throws Exception {
+        var user = new UserEntity();
+        user.setUsername("pharmacist");
+        user.setPassword(passwordEncoder.encode("secret"));
+        userRepository.save(user);
+
+        try (var clients = Executors.newFixedThreadPool(2)) {
+            var held = new ArrayList<Future<?>>();
+            for (var i = 0; i < 2; i++) {
+                held.add(clients.submit(() -> authService.login(login("pharmacist", "secret"))));
+            }
+            assertTrue(HASHING.await(10, TimeUnit.SECONDS), "no login reached the password encoder");
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"pharmacist\",\"password\":\"secret\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+
+            RELEASE.countDown();
+            for (var login : held) {
+                assertNotNull(login.get(10, TimeUnit.SECONDS), "a held login failed");
+            }
+        }
+        finally {
+            RELEASE.countDown();
+        }
+    }
+
+    /**
+     * Builds a login request.
+     * @param username The username.
+     * @param password The password.
+     * @return The LoginRequestDto.
+     */
+    private static LoginRequestDto login(String username, String password) {
+        var login = new LoginRequestDto();
+        login.setUsername(username);
+        login.setPassword(password);
+        return login;
+    }
+}
\ No newline at end of file
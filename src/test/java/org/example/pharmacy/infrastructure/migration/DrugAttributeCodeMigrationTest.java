@@ -0,0 +1,105 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the attribute code migration on a drugs table that still stores labels, in an H2 database
+ * in MySQL mode, and checks the code every label is mapped to.
+ */
+class DrugAttributeCodeMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacyTable() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create schema pharmacy");
+        jdbcTemplate.execute("""
+                create table pharmacy.drugs (id bigint primary key, drug_form varchar(255), route_of_administration varchar(255),
+                prescription_status varchar(255), controlled_substance_status varchar(255))""");
+    }
+
+    @Test
+    void labelsAreMappedToCodesIgnoringCaseAndWhitespace() {
+        insert(1, "tablet", "oral", "OTC", "C-I");
+        insert(2, " Capsule ", "INTRAVENOUS", "rx-only", "c-v");
+        insert(3, "LOZENGE", " otic", " Rx-Only ", "C-III ");
+        insert(4, null, null, null, null);
+
+        migration().migrate();
+
+        assertEquals(List.of(
+                List.of("1", "1", "1", "1"),
+                List.of("2", "6", "2", "5"),
+                List.of("16", "12", "2", "3"),
+                Arrays.asList(null, null, null, null)), codes());
+        for (var column : List.of("drug_form", "route_of_administration", "prescription_status", "controlled_substance_status")) {
+            assertFalse(DrugColumns.isText(jdbcTemplate, column), column + " was not converted");
+        }
+    }
+
+    @Test
+    void unknownLabelsFallBackToOtherOrNull() {
+        insert(1, "effervescent granules", "intrathecal", "pharmacy-only", "Schedule 9");
+
+        migration().migrate();
+
+        assertEquals(List.of(Arrays.asList("127", "127", null, null)), codes());
+    }
+
+    @Test
+    void rerunAfterAnInterruptionLeavesConvertedRowsAlone() {
+        insert(1, "12", "9", "2", "4");
+        insert(2, "drops", "inhalation", "Rx-only", "C-IV");
+
+        migration().migrate();
+        migration().migrate();
+
+        assertEquals(List.of(List.of("12", "9", "2", "4"), List.of("12", "9", "2", "4")), codes());
+    }
+
+    /**
+     * Creates the migration under test.
+     * @return The migration.
+     */
+    private DrugAttributeCodeMigration migration() {
+        return new DrugAttributeCodeMigration(jdbcTemplate, null);
+    }
+
+    /**
+     * Inserts a drug with text attributes.
+     * @param id The ID of the drug.
+     * @param drugForm The drug form label.
+     * @param route The route of administration label.
+     * @param prescription The prescription status label.
+     * @param controlled The controlled substance status label.
+     */
+    private void insert(long id, String drugForm, String route, String prescription, String controlled) {
+        jdbcTemplate.update("insert into pharmacy.drugs values (?, ?, ?, ?, ?)", id, drugForm, route, prescription, controlled);
+    }
+
+    /**
+     * Reads the attribute codes of every drug.
+     * @return The drug form, route, prescription and controlled substance codes of each drug, in ID order.
+     */
+    private List<List<String>> codes() {
+        var codes = new ArrayList<List<String>>();
+        jdbcTemplate.query("select * from pharmacy.drugs order by id", row -> {
+            codes.add(Arrays.asList(row.getString("drug_form"), row.getString("route_of_administration"),
+                    row.getString("prescription_status"), row.getString("controlled_substance_status")));
+        });
+        return codes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.example.pharmacy.infrastructure.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the monograph migration on a drugs table that still holds the monograph columns, in an H2
+ * database in MySQL mode, including a rerun after a copy that was interrupted part-way.
+ */
+class DrugMonographMigrationTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacyTables() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create schema pharmacy");
+        jdbcTemplate.execute("""
+                create table pharmacy.drugs (id bigint primary key, ma varchar(255), contraindications varchar(255),
+                side_effects varchar(255), dosage varchar(255), storage_conditions varchar(255))""");
+        jdbcTemplate.execute("""
+                create table pharmacy.drug_monographs (drug_id bigint primary key, contraindications varchar(255),
+                side_effects varchar(255), dosage varchar(255), storage_conditions varchar(255))""");
+        for (var id = 1; id <= 3; id++) {
+            jdbcTemplate.update("insert into pharmacy.drugs values (?, ?, ?, ?, ?, ?)",
+                    id, "MM00000" + id, "contraindications " + id, "side effects " + id, "dosage " + id, "storage " + id);
+        }
+    }
+
+    @Test
+    void monographsAreMovedAndTheColumnsDropped() {
+        new DrugMonographMigration(jdbcTemplate, null).migrate();
+
+        assertEquals(List.of(
+                "1|contraindications 1|side effects 1|dosage 1|storage 1",
+                "2|contraindications 2|side effects 2|dosage 2|storage 2",
+                "3|contraindications 3|side effects 3|dosage 3|storage 3"), monographs());
+        assertFalse(DrugColumns.exists(jdbcTemplate, "contraindications"));
+        assertFalse(DrugColumns.exists(jdbcTemplate, "storage_conditions"));
+    }
+
+    @Test
+    void rerunAfterAPartialCopyCopiesOnlyTheMissingMonographs() {
+        jdbcTemplate.update("insert into pharmacy.drug_monographs values (2, 'edited', 'edited', 'edited', 'edited')");
+
+        new DrugMonographMigration(jdbcTemplate, null).migrate();
+        new DrugMonographMigration(jdbcTemplate, null).migrate();
+
+        assertEquals(List.of(
+                "1|contraindications 1|side effects 1|dosage 1|storage 1",
+                "2|edited|edited|edited|edited",
+                "3|contraindications 3|side effects 3|dosage 3|storage 3"), monographs());
+        assertFalse(DrugColumns.exists(jdbcTemplate, "dosage"));
+    }
+
+    @Test
+    void rerunAfterSomeColumnsWereDroppedDropsTheRest() {
+        new DrugMonographMigration(jdbcTemplate, null).migrate();
+        jdbcTemplate.execute("alter table pharmacy.drugs add column dosage varchar(255)");
+        jdbcTemplate.execute("alter table pharmacy.drugs add column storage_conditions varchar(255)");
+
+        new DrugMonographMigration(jdbcTemplate, null).migrate();
+
+        assertEquals(3, monographs().size());
+        assertFalse(DrugColumns.exists(jdbcTemplate, "dosage"));
+        assertFalse(DrugColumns.exists(jdbcTemplate, "storage_conditions"));
+    }
+
+    /**
+     * Reads every monograph.
+     * @return The drug ID and texts of each monograph joined by '|', in drug ID order.
+     */
+    private List<String> monographs() {
+        return jdbcTemplate.query("select * from pharmacy.drug_monographs order by drug_id", (row, number) ->
+                String.join("|", row.getString("drug_id"), row.getString("contraindications"), row.getString("side_effects"),
+                        row.getString("dosage"), row.getString("storage_conditions")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the catalog ETag changes when the date moves past an expiration date, as
+ * availability in the listing does, and not otherwise.
+ */
+class CatalogVersionTest {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @Test
+    void eTagChangesWhenTheClockPassesAnExpirationDate() {
+        var expirationDate = LocalDate.of(2026, 3, 14);
+        var clock = new MutableClock(expirationDate.atTime(23, 59), ZONE);
+        var catalogVersion = new CatalogVersion(clock);
+
+        var onExpirationDay = catalogVersion.getETag();
+        assertTrue(DrugMapper.isAvailable(1, expirationDate, LocalDate.now(clock)));
+
+        clock.advance(Duration.ofMinutes(2));
+
+        assertFalse(DrugMapper.isAvailable(1, expirationDate, LocalDate.now(clock)));
+        assertNotEquals(onExpirationDay, catalogVersion.getETag());
+    }
+
+    @Test
+    void eTagIsStableWithinADay() {
+        var clock = new MutableClock(LocalDateTime.of(2026, 3, 14, 0, 1), ZONE);
+        var catalogVersion = new CatalogVersion(clock);
+
+        var morning = catalogVersion.getETag();
+        clock.advance(Duration.ofHours(23));
+
+        assertEquals(morning, catalogVersion.getETag());
+    }
+
+    @Test
+    void eTagChangesWhenTheCatalogChanges() {
+        var catalogVersion = new CatalogVersion(new MutableClock(LocalDateTime.of(2026, 3, 14, 12, 0), ZONE));
+
+        var before = catalogVersion.getETag();
+        catalogVersion.bump();
+
+        assertNotEquals(before, catalogVersion.getETag());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package org.example.pharmacy.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.example.pharmacy.controller.dto.DrugBatchItemResultDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugMonographRepository;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that a chunk which loses an MA number to a concurrent insert is reported FAILED without
+ * undoing or aborting the other chunks of the batch.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+class DrugBatchServiceTest {
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private DrugMonographRepository monographRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void deleteDrugs() {
+        monographRepository.deleteAll();
+        drugRepository.deleteAll();
+    }
+
+    @Test
+    void chunkWithDuplicateMaFailsWhileTheOthersAreCreated() {
+        drugRepository.save(TestDrugs.entity("BT000003"));
+        var events = new ArrayList<DrugCatalogChangedEvent>();
+        var catalogVersion = new CatalogVersion();
+        var before = catalogVersion.getETag();
+        var service = new DrugBatchService(missingConcurrentInserts(drugRepository), catalogVersion, entityManager,
+                transactionManager, Validation.buildDefaultValidatorFactory().getValidator(),
+                event -> events.add((DrugCatalogChangedEvent) event), 2, 10);
+        List<CreateDrugDto> drugs = Stream.of("BT000001", "BT000002", "BT000003", "BT000004", "BT000005")
+                .map(TestDrugs::createDto)
+                .toList();
+
+        var response = service.createAll(drugs);
+
+        var statuses = response.getItems().stream().map(DrugBatchItemResultDto::getStatus).toList();
+        assertEquals(List.of(DrugBatchItemResultDto.CREATED, DrugBatchItemResultDto.CREATED,
+                DrugBatchItemResultDto.FAILED, DrugBatchItemResultDto.FAILED, DrugBatchItemResultDto.CREATED), statuses);
+        assertEquals(3, response.getCreated());
+        var stored = drugRepository.findByMaIn(List.of("BT000001", "BT000002", "BT000004", "BT000005")).stream()
+                .map(DrugEntity::getMa)
+                .sorted()
+                .toList();
+        assertEquals(List.of("BT000001", "BT000002", "BT000005"), stored, "the failed chunk was not rolled back");
+        assertEquals(2, events.size());
+        assertNotEquals(before, catalogVersion.getETag());
+    }
+
+    /**
+     * Wraps a drug repository so that its MA check finds nothing, as when another request inserts
+     * one of the MA numbers between the check and the insert.
+     * @param repository The repository to delegate every other call to.
+     * @return The wrapped repository.
+     */
+    private static DrugRepository missingConcurrentInserts(DrugRepository repository) {
+        return (DrugRepository) Proxy.newProxyInstance(DrugRepository.class.getClassLoader(),
+                new Class<?>[] { DrugRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findExistingMas")) {
+                        return List.of();
+                    }
+                    try {
+                        return method.invoke(repository, args);
+                    }
+                    catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.controller.dto.GetDrugDto;
+import org.example.pharmacy.service.errors.DrugNotFoundError;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks how the drug cache treats loads that find a drug, find none, or fail.
+ */
+class DrugCacheTest {
+    private final DrugCache cache = new DrugCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @Test
+    void loadedDrugIsCached() {
+        var loads = new AtomicInteger();
+        var drug = new GetDrugDto(1, "AB123456", 9.99, "Cached", null, null, null, null, null, null, null, null, null, null, null, null, null, null, false, null);
+
+        assertSame(drug, cache.get(1, id -> {
+            loads.incrementAndGet();
+            return drug;
+        }));
+        assertSame(drug, cache.get(1, id -> {
+            loads.incrementAndGet();
+            return drug;
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void missingDrugIsNotFoundAndNotCached() {
+        var loads = new AtomicInteger();
+
+        assertThrows(DrugNotFoundError.class, () -> cache.get(2, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertThrows(DrugNotFoundError.class, () -> cache.get(2, id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadFailureIsPropagatedAndNotCached() {
+        var failure = new IllegalStateException("database unavailable");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cache.get(3, id -> {
+            throw failure;
+        })));
+        var drug = new GetDrugDto(3, "CD000003", 1.0, "Recovered", null, null, null, null, null, null, null, null, null, null, null, null, null, null, false, null);
+        assertSame(drug, cache.get(3, id -> drug));
+    }
+}
\ No newline at end of file
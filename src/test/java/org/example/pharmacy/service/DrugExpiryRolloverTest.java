@@ -0,0 +1,107 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.MutableClock;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Moves the clock past expiration dates and checks that each rollover publishes exactly the
+ * drugs that expired since the previous one.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+class DrugExpiryRolloverTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 14);
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    private final List<DrugCatalogChangedEvent> events = new ArrayList<>();
+    private MutableClock clock;
+    private DrugExpiryRollover rollover;
+
+    @BeforeEach
+    void createRollover() {
+        clock = new MutableClock(TODAY.atTime(12, 0), ZoneOffset.UTC);
+        rollover = new DrugExpiryRollover(drugRepository, event -> events.add((DrugCatalogChangedEvent) event), clock);
+    }
+
+    @AfterEach
+    void deleteDrugs() {
+        drugRepository.deleteAll();
+    }
+
+    @Test
+    void rolloverPublishesTheDrugsThatExpiredYesterday() {
+        createDrug("RO000001", TODAY.minusDays(1));
+        var expiring = createDrug("RO000002", TODAY);
+        createDrug("RO000003", TODAY.plusDays(1));
+        createDrug("RO000004", null);
+
+        rollover.rollOver();
+        assertTrue(events.isEmpty(), "nothing expires before midnight");
+
+        clock.advance(Duration.ofDays(1));
+        rollover.rollOver();
+        assertEquals(List.of(List.of(expiring)), publishedIds());
+
+        rollover.rollOver();
+        assertEquals(1, events.size(), "a second rollover on the same day publishes nothing");
+    }
+
+    @Test
+    void rolloverCoversMissedDays() {
+        var first = createDrug("RO000011", TODAY);
+        var second = createDrug("RO000012", TODAY.plusDays(2));
+        createDrug("RO000013", TODAY.plusDays(3));
+
+        clock.advance(Duration.ofDays(3));
+        rollover.rollOver();
+
+        assertEquals(List.of(List.of(first, second)), publishedIds());
+    }
+
+    /**
+     * Gets the IDs of the drugs in each published event.
+     * @return The IDs per event, in ID order.
+     */
+    private List<List<Long>> publishedIds() {
+        return events.stream()
+                .map(event -> event.saved().stream().map(DrugEntity::getId).sorted().toList())
+                .toList();
+    }
+
+    /**
+     * Creates a drug in stock.
+     * @param ma The MA number of the drug.
+     * @param expirationDate The expiration date, or null for a drug that does not expire.
+     * @return The ID of the drug.
+     */
+    private long createDrug(String ma, LocalDate expirationDate) {
+        var drug = TestDrugs.entity(ma);
+        drug.setExpirationDate(expirationDate);
+        return drugRepository.save(drug).getId();
+    }
+}
\ No newline at end of file
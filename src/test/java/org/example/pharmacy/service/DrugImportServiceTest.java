@@ -0,0 +1,192 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.controller.dto.CreateDrugDto;
+import org.example.pharmacy.controller.dto.DrugImportJobDto;
+import org.example.pharmacy.controller.dto.DrugImportRejectionDto;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugImportJobEntity;
+import org.example.pharmacy.infrastructure.repository.DrugImportJobRepository;
+import org.example.pharmacy.infrastructure.repository.DrugImportRejectionRepository;
+import org.example.pharmacy.infrastructure.repository.DrugMonographRepository;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs drug imports against an H2 database in chunks of two rows and checks the rows each job
+ * upserts, rejects and counts.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+class DrugImportServiceTest {
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private DrugMonographRepository monographRepository;
+
+    @Autowired
+    private DrugImportJobRepository jobRepository;
+
+    @Autowired
+    private DrugImportRejectionRepository rejectionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DrugImportService importService;
+
+    @BeforeEach
+    void createImportService() {
+        importService = new DrugImportService(drugRepository, monographRepository, jobRepository, rejectionRepository,
+                new DrugCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry()), new CatalogVersion(),
+                entityManager, transactionManager, Validation.buildDefaultValidatorFactory().getValidator(),
+                event -> { }, directory, 2);
+    }
+
+    @AfterEach
+    void deleteEverything() {
+        importService.shutdown();
+        rejectionRepository.deleteAll();
+        jobRepository.deleteAll();
+        monographRepository.deleteAll();
+        drugRepository.deleteAll();
+    }
+
+    @Test
+    void importUpsertsByMaAndRejectsRowsTheDatabaseRefuses() throws Exception {
+        var existing = TestDrugs.entity("IM000001");
+        existing.setBrandName("Old name");
+        drugRepository.save(existing);
+        var renamed = TestDrugs.createDto("IM000001");
+        renamed.setBrandName("New name");
+        var invalid = TestDrugs.createDto("IM000003");
+        invalid.setMa("bad");
+        var tooLong = TestDrugs.createDto("IM000004");
+        tooLong.setGraphicLink("https://images.example.org/" + "x".repeat(300) + ".png");
+
+        var submitted = importService.submit(NDJSON, ndjson(List.of(
+                renamed, TestDrugs.createDto("IM000002"), invalid, tooLong, TestDrugs.createDto("IM000005"))));
+        var job = awaitFinished(submitted.getId());
+
+        assertEquals(DrugImportService.COMPLETED, job.getStatus(), job.getError());
+        assertEquals(5, job.getCommittedRows());
+        assertEquals(2, job.getInsertedRows());
+        assertEquals(1, job.getUpdatedRows());
+        assertEquals(2, job.getRejectedRows());
+        assertEquals(List.of(3L, 4L), job.getRejections().stream().map(DrugImportRejectionDto::getRowNumber).toList());
+        assertTrue(job.getRejections().get(1).getErrors().startsWith("Row could not be stored"));
+        assertEquals(List.of("IM000001", "IM000002", "IM000005"), storedMas());
+        assertEquals("New name", drugRepository.findByMaIn(List.of("IM000001")).get(0).getBrandName());
+        assertFalse(Files.exists(Path.of(jobRepository.findById(job.getId()).orElseThrow().getFilePath())),
+                "the upload of a completed job was kept");
+    }
+
+    @Test
+    void resumedJobContinuesFromTheFirstUncommittedRow() throws Exception {
+        var file = directory.resolve("resumed.ndjson");
+        try (var rows = ndjson(List.of(TestDrugs.createDto("IR000001"), TestDrugs.createDto("IR000002"),
+                TestDrugs.createDto("IR000003")))) {
+            Files.copy(rows, file);
+        }
+        var failed = new DrugImportJobEntity();
+        failed.setId(UUID.randomUUID().toString());
+        failed.setStatus(DrugImportService.FAILED);
+        failed.setFormat(DrugImportReader.NDJSON);
+        failed.setFilePath(file.toString());
+        failed.setCreatedAt(Instant.now());
+        failed.setCommittedRows(2);
+        failed.setInsertedRows(2);
+        jobRepository.save(failed);
+
+        importService.resume(failed.getId());
+        var job = awaitFinished(failed.getId());
+
+        assertEquals(DrugImportService.COMPLETED, job.getStatus(), job.getError());
+        assertEquals(3, job.getCommittedRows());
+        assertEquals(3, job.getInsertedRows());
+        assertEquals(List.of("IR000003"), storedMas(), "rows committed before the failure were imported again");
+    }
+
+    /**
+     * Waits until a job has completed or failed.
+     * @param id The ID of the job.
+     * @return The finished job.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private DrugImportJobDto awaitFinished(String id) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        var job = importService.getById(id);
+        while (!DrugImportService.COMPLETED.equals(job.getStatus()) && !DrugImportService.FAILED.equals(job.getStatus())) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("drug import " + id + " did not finish; it is " + job.getStatus());
+            }
+            Thread.sleep(20);
+            job = importService.getById(id);
+        }
+        return job;
+    }
+
+    /**
+     * Gets the MA numbers of the stored drugs.
+     * @return The MA numbers, sorted.
+     */
+    private List<String> storedMas() {
+        return drugRepository.findAll().stream().map(DrugEntity::getMa).sorted().toList();
+    }
+
+    /**
+     * Writes drugs as an NDJSON upload.
+     * @param drugs The drugs, one per line.
+     * @return The upload.
+     * @throws IOException if a drug cannot be written as JSON.
+     */
+    private ByteArrayInputStream ndjson(List<CreateDrugDto> drugs) throws IOException {
+        var body = new StringBuilder();
+        for (var drug : drugs) {
+            body.append(objectMapper.writeValueAsString(drug)).append('\n');
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+package org.example.pharmacy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.pharmacy.infrastructure.entity.ControlledSubstanceStatus;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.entity.DrugForm;
+import org.example.pharmacy.infrastructure.entity.DrugMonographEntity;
+import org.example.pharmacy.infrastructure.entity.PrescriptionStatus;
+import org.example.pharmacy.infrastructure.entity.RouteOfAdministration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that the streaming catalog export writes the same bytes as Jackson serializing
+ * GetDrugDto, against a golden file. If GetDrugDto changes, the DTO half fails first; regenerate
+ * the file from it and bring DrugJsonWriter in line.
+ */
+class DrugJsonWriterTest {
+    private static final String GOLDEN_FILE = "/golden/drug-export.ndjson";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void streamingWriterMatchesGoldenFile() throws IOException {
+        var rows = rows();
+
+        var streamed = export(generator -> {
+            for (var row : rows) {
+                DrugJsonWriter.write(generator, row.drug(), row.monograph());
+            }
+        });
+
+        assertArrayEquals(golden(), streamed);
+    }
+
+    @Test
+    void getDrugDtoMatchesGoldenFile() throws IOException {
+        var rows = rows();
+        var writer = objectMapper.writer();
+
+        var serialized = export(generator -> {
+            for (var row : rows) {
+                writer.writeValue(generator, DrugMapper.toDto(row.drug(), row.monograph()));
+            }
+        });
+
+        assertArrayEquals(golden(), serialized);
+    }
+
+    /**
+     * Writes rows framed as DrugService.exportAll frames them: one object per line, each line
+     * ending with a newline.
+     * @param rows Writes the rows to the generator.
+     * @return The bytes written.
+     * @throws IOException if writing fails.
+     */
+    private byte[] export(RowWriter rows) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var generator = objectMapper.writer().withRootValueSeparator("\n").createGenerator(out)) {
+            rows.write(generator);
+            generator.writeRaw('\n');
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the golden file.
+     * @return Its bytes.
+     * @throws IOException if it cannot be read.
+     */
+    private static byte[] golden() throws IOException {
+        try (InputStream in = DrugJsonWriterTest.class.getResourceAsStream(GOLDEN_FILE)) {
+            assertNotNull(in, GOLDEN_FILE);
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Builds drugs that cover every field, missing values and strings that need escaping.
+     * Expiration dates are far from today, so availability does not depend on when the test runs.
+     * @return The drugs and their monographs.
+     */
+    private static List<Row> rows() {
+        var rows = new ArrayList<Row>();
+
+        var full = new DrugEntity();
+        full.setId(1);
+        full.setMa("AB123456");
+        full.setPrice(12.49);
+        full.setBrandName("Ibuprofen Forte");
+        full.setManufacturer("Polpharma S.A.");
+        full.setActiveIngredient("Ibuprofen");
+        full.setNdc("0123456789");
+        full.setAtcCode("M01AE01");
+        full.setDrugForm(DrugForm.TABLET);
+        full.setRouteOfAdministration(RouteOfAdministration.ORAL);
+        full.setPrescriptionStatus(PrescriptionStatus.RX_ONLY);
+        full.setControlledSubstanceStatus(ControlledSubstanceStatus.C_III);
+        full.setBatchNumber("B1-2026");
+        full.setExpirationDate(LocalDate.of(2999, 12, 31));
+        full.setAvailableCopies(5);
+        full.setGraphicLink("https://images.example.org/drugs/1.png");
+        var monograph = new DrugMonographEntity(full);
+        monograph.setContraindications("Hypersensitivity to ibuprofen. Last trimester of pregnancy.");
+        monograph.setSideEffects("Dyspepsia, nausea, headache.");
+        monograph.setDosage("200-400 mg every 4 to 6 hours.");
+        monograph.setStorageConditions("Store below 25°C.");
+        rows.add(new Row(full, monograph));
+
+        var bare = new DrugEntity();
+        bare.setId(2);
+        bare.setMa("CD000002");
+        rows.add(new Row(bare, null));
+
+        var escaped = new DrugEntity();
+        escaped.setId(9_007_199_254_740_993L);
+        escaped.setMa("EF999999");
+        escaped.setPrice(0.1 + 0.2);
+        escaped.setBrandName("\"Quoted\" \\ back\\slash </script>");
+        escaped.setManufacturer("Zażółć – Ünïcødé ™ 😀");
+        escaped.setActiveIngredient("tab\there\nnew line\r\u0001\u001f\u007f ");
+        escaped.setDrugForm(DrugForm.CAPSULE);
+        escaped.setExpirationDate(LocalDate.of(2000, 1, 1));
+        escaped.setAvailableCopies(100);
+        var escapedMonograph = new DrugMonographEntity(escaped);
+        escapedMonograph.setContraindications("");
+        escapedMonograph.setDosage("x".repeat(255));
+        rows.add(new Row(escaped, escapedMonograph));
+
+        var expensive = new DrugEntity();
+        expensive.setId(4);
+        expensive.setMa("GH000004");
+        expensive.setPrice(12_345_678.9);
+        expensive.setAvailableCopies(1);
+        rows.add(new Row(expensive, new DrugMonographEntity(expensive)));
+
+        return rows;
+    }
+
+    /**
+     * A drug and its monograph.
+     * @param drug The drug.
+     * @param monograph The monograph, or null.
+     */
+    private record Row(DrugEntity drug, DrugMonographEntity monograph) {
+    }
+
+    /**
+     * Writes rows to a generator.
+     */
+    @FunctionalInterface
+    private interface RowWriter {
+        /**
+         * Writes the rows.
+         * @param generator The generator.
+         * @throws IOException if writing fails.
+         */
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
\ No newline at end of file
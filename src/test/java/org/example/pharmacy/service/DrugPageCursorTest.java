@@ -0,0 +1,98 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.service.errors.InvalidPageRequestError;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that cursors decode to the position they were encoded from, and that a cursor that was
+ * altered or issued for another sort key is refused rather than followed.
+ */
+class DrugPageCursorTest {
+
+    @Test
+    void cursorsRoundTripForEverySortKey() {
+        assertRoundTrip(DrugSortKey.ID, Map.of("id", 42L));
+        assertRoundTrip(DrugSortKey.PRICE, Map.of("price", 12.49, "id", 42L));
+        assertRoundTrip(DrugSortKey.BRAND_NAME, Map.of("brandName", "Zażółć \"quoted\"", "id", 42L));
+        assertRoundTrip(DrugSortKey.EXPIRATION_DATE, Map.of("expirationDate", LocalDate.of(2030, 6, 15), "id", 42L));
+    }
+
+    @Test
+    void cursorPastTheKeyedDrugsKeepsTheNullSortValue() {
+        var keys = new HashMap<String, Object>();
+        keys.put("expirationDate", null);
+        keys.put("id", 7L);
+
+        var decoded = DrugPageCursor.decode(DrugSortKey.EXPIRATION_DATE,
+                DrugPageCursor.encode(DrugSortKey.EXPIRATION_DATE, ScrollPosition.forward(keys)));
+
+        assertEquals(keys, decoded.getKeys());
+        assertTrue(DrugPageCursor.isPastKeyedDrugs(DrugSortKey.EXPIRATION_DATE, decoded));
+        assertFalse(DrugPageCursor.isPastKeyedDrugs(DrugSortKey.EXPIRATION_DATE,
+                ScrollPosition.forward(Map.of("expirationDate", LocalDate.of(2030, 1, 1), "id", 7L))));
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstPage() {
+        assertTrue(DrugPageCursor.decode(DrugSortKey.PRICE, null).isInitial());
+        assertTrue(DrugPageCursor.decode(DrugSortKey.PRICE, "").isInitial());
+    }
+
+    @Test
+    void tamperedCursorsAreRefused() {
+        var price = DrugPageCursor.encode(DrugSortKey.PRICE, ScrollPosition.forward(Map.of("price", 12.49, "id", 42L)));
+
+        assertRefused(DrugSortKey.BRAND_NAME, price);
+        assertRefused(DrugSortKey.PRICE, price.substring(0, price.length() - 3));
+        assertRefused(DrugSortKey.PRICE, "not a cursor!");
+        assertRefused(DrugSortKey.PRICE, cursor("[1, 2]"));
+        assertRefused(DrugSortKey.PRICE, cursor("{\"s\":\"price\",\"id\":42}"));
+        assertRefused(DrugSortKey.PRICE, cursor("{\"s\":\"price\",\"id\":42,\"k\":\"cheap\"}"));
+        assertRefused(DrugSortKey.PRICE, cursor("{\"s\":\"price\",\"id\":42,\"k\":null}"));
+        assertRefused(DrugSortKey.PRICE, cursor("{\"s\":\"price\",\"id\":\"42\",\"k\":12.49}"));
+        assertRefused(DrugSortKey.BRAND_NAME, cursor("{\"s\":\"brandName\",\"id\":42,\"k\":17}"));
+        assertRefused(DrugSortKey.EXPIRATION_DATE, cursor("{\"s\":\"expirationDate\",\"id\":42,\"k\":\"2030-13-45\"}"));
+        assertRefused(DrugSortKey.ID, cursor("{\"s\":\"id\"}"));
+    }
+
+    /**
+     * Encodes a position, decodes the cursor and checks that the same keys come back.
+     * @param sortKey The sort key.
+     * @param keys The keys of the position.
+     */
+    private static void assertRoundTrip(DrugSortKey sortKey, Map<String, Object> keys) {
+        KeysetScrollPosition decoded = DrugPageCursor.decode(sortKey, DrugPageCursor.encode(sortKey, ScrollPosition.forward(keys)));
+        assertEquals(keys, decoded.getKeys(), sortKey.getProperty());
+    }
+
+    /**
+     * Checks that a cursor is refused as a bad page request.
+     * @param sortKey The sort key of the requested page.
+     * @param cursor The cursor.
+     */
+    private static void assertRefused(DrugSortKey sortKey, String cursor) {
+        assertThrows(InvalidPageRequestError.class, () -> DrugPageCursor.decode(sortKey, cursor), cursor);
+    }
+
+    /**
+     * Encodes a payload the way cursors are encoded.
+     * @param json The JSON payload.
+     * @return The cursor.
+     */
+    private static String cursor(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package org.example.pharmacy.service;
+
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Checks that creating a drug changes the catalog ETag only once the drug is committed.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "test.database=drug-service-create")
+class DrugServiceCreateTest {
+
+    @Autowired
+    private DrugService drugService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void eTagChangesAfterCommitNotBefore() {
+        var before = drugService.getCatalogETag();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            drugService.create(TestDrugs.createDto("TX000001"));
+            assertEquals(before, drugService.getCatalogETag(), "the ETag changed before the drug was committed");
+        });
+
+        assertNotEquals(before, drugService.getCatalogETag());
+    }
+
+    @Test
+    void rolledBackCreateLeavesTheETag() {
+        var before = drugService.getCatalogETag();
+
+        var id = new TransactionTemplate(transactionManager).execute(status -> {
+            var created = drugService.create(TestDrugs.createDto("TX000002")).getId();
+            status.setRollbackOnly();
+            return created;
+        });
+
+        assertEquals(before, drugService.getCatalogETag());
+        assertFalse(drugRepository.existsById(id));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.infrastructure.entity.DrugEntity;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.service.errors.InsufficientStockError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers the stock of a single drug from many threads against an H2 database and checks that
+ * every copy is sold at most once.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({DrugStockService.class, DrugCache.class, CatalogVersion.class, DrugStockServiceConcurrencyTest.Config.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "drugs.cache.maximum-size=100",
+        "drugs.cache.ttl=10m"
+})
+class DrugStockServiceConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private DrugStockService drugStockService;
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @AfterEach
+    void deleteDrugs() {
+        drugRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSalesNeverOversell() throws Exception {
+        var stock = 250;
+        var id = createDrug(stock);
+        var sold = new AtomicInteger();
+        var refused = new AtomicInteger();
+        Set<Integer> levels = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(thread -> {
+            for (var i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                try {
+                    var level = drugStockService.adjust(id, -1);
+                    assertTrue(level.getAvailableCopies() >= 0);
+                    levels.add(level.getAvailableCopies());
+                    sold.incrementAndGet();
+                }
+                catch (InsufficientStockError e) {
+                    refused.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(stock, sold.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - stock, refused.get());
+        assertEquals(IntStream.range(0, stock).boxed().collect(Collectors.toSet()), levels);
+        assertEquals(0, drugRepository.findStockById(id).orElseThrow().getAvailableCopies());
+    }
+
+    @Test
+    void concurrentSalesAndDeliveriesKeepTheBalance() throws Exception {
+        var stock = 20;
+        var id = createDrug(stock);
+        var applied = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            var random = new Random(thread);
+            for (var i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                var delta = random.nextBoolean() ? -(1 + random.nextInt(3)) : 1 + random.nextInt(2);
+                try {
+                    drugStockService.adjust(id, delta);
+                    applied.addAndGet(delta);
+                }
+                catch (InsufficientStockError e) {
+                    // The sale was refused and left the stock unchanged.
+                }
+            }
+        });
+
+        var level = drugRepository.findStockById(id).orElseThrow().getAvailableCopies();
+        assertTrue(level >= 0);
+        assertEquals(stock + applied.get(), level);
+    }
+
+    /**
+     * Saves a drug with the given stock.
+     * @param availableCopies The number of copies in stock.
+     * @return The ID of the drug.
+     */
+    private long createDrug(int availableCopies) {
+        var drug = new DrugEntity();
+        drug.setMa("AB123456");
+        drug.setBrandName("Hot SKU");
+        drug.setPrice(9.99);
+        drug.setAvailableCopies(availableCopies);
+        return drugRepository.saveAndFlush(drug).getId();
+    }
+
+    /**
+     * Runs a task on every thread at once and waits for all of them.
+     * @param task The task, given the number of its thread.
+     * @throws Exception if any task failed.
+     */
+    private void runConcurrently(ThreadTask task) throws Exception {
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var t = 0; t < THREADS; t++) {
+                var thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * A task run by one of the concurrent threads.
+     */
+    @FunctionalInterface
+    private interface ThreadTask {
+        /**
+         * Runs the task.
+         * @param thread The number of the thread.
+         * @throws Exception if the task failed.
+         */
+        void run(int thread) throws Exception;
+    }
+}
\ No newline at end of file
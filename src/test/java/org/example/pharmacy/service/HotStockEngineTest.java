@@ -0,0 +1,230 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.TestDrugs;
+import org.example.pharmacy.controller.dto.StockLevelDto;
+import org.example.pharmacy.infrastructure.repository.DrugRepository;
+import org.example.pharmacy.infrastructure.repository.StockJournalCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot stock engine against an H2 database and a journal in a temporary directory, and
+ * checks that acknowledged adjustments reach the database exactly once, across restarts, failed
+ * writes and catalog changes.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+class HotStockEngineTest {
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    @Autowired
+    private DrugRepository drugRepository;
+
+    @Autowired
+    private StockJournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path journalDirectory;
+
+    private final List<HotStockEngine> engines = new ArrayList<>();
+
+    @AfterEach
+    void stopEnginesAndDeleteDrugs() throws Exception {
+        for (var engine : engines) {
+            engine.shutdown();
+        }
+        checkpointRepository.deleteAll();
+        drugRepository.deleteAll();
+    }
+
+    @Test
+    void replayAfterAnUncleanStopAppliesAcknowledgedAdjustments() throws IOException {
+        var id = createDrug("HS000001", 10);
+        var crashed = engine(Set.of(id), 0, NEVER, false);
+        crashed.adjust(id, -3, notInDatabase());
+        crashed.adjust(id, -2, notInDatabase());
+        crashed.adjust(id, 4, notInDatabase());
+        assertEquals(10, copies(id), "the adjustments were written before a flush");
+
+        var restarted = engine(Set.of(id), 0, NEVER, true);
+
+        assertEquals(9, copies(id));
+        assertEquals(8, restarted.adjust(id, -1, notInDatabase()).getAvailableCopies());
+    }
+
+    @Test
+    void replayDoesNotReapplySegmentsCoveredByTheCheckpoint() throws Exception {
+        var id = createDrug("HS000002", 10);
+        var first = engine(Set.of(id), 0, NEVER, false);
+        first.adjust(id, -4, notInDatabase());
+        first.shutdown();
+        assertEquals(6, copies(id));
+        var leftOver = new StockJournal(journalDirectory);
+        leftOver.open(1);
+        leftOver.append(id, -4);
+        leftOver.close();
+
+        engine(Set.of(id), 0, NEVER, true);
+
+        assertEquals(6, copies(id), "a segment the checkpoint covers was replayed");
+        assertEquals(List.of(3L), leftOver.segments().stream().map(StockJournal.Segment::number).toList());
+    }
+
+    @Test
+    void failedJournalAppendRollsTheCounterBack() throws Exception {
+        var id = createDrug("HS000003", 1);
+        var engine = engine(Set.of(id), 0, NEVER, false);
+        engine.shutdown();
+
+        assertThrows(UncheckedIOException.class, () -> engine.adjust(id, -1, notInDatabase()));
+
+        assertEquals(Boolean.TRUE, engine.isAvailable(id), "the failed sale was kept in the counter");
+        assertEquals(1, copies(id));
+    }
+
+    @Test
+    void drugsAreHotAboveTheHeatThresholdUntilDeleted() {
+        var hot = createDrug("HS000004", 10);
+        var cold = createDrug("HS000005", 10);
+        var engine = engine(Set.of(), 20, Duration.ofMillis(50), true);
+        for (var i = 0; i < 60; i++) {
+            engine.adjust(hot, 0, inDatabase(hot));
+        }
+        for (var i = 0; i < 5; i++) {
+            engine.adjust(cold, 0, inDatabase(cold));
+        }
+
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (engine.isAvailable(hot) == null && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        assertNotNull(engine.isAvailable(hot), "a drug above the heat threshold was not promoted");
+        assertNull(engine.isAvailable(cold), "a drug below the heat threshold was promoted");
+        assertEquals(9, engine.adjust(hot, -1, notInDatabase()).getAvailableCopies());
+
+        engine.onCatalogChanged(DrugCatalogChangedEvent.deleted(hot));
+
+        assertNull(engine.isAvailable(hot));
+        assertEquals(10, engine.adjust(hot, -1, inDatabase(hot)).getAvailableCopies());
+    }
+
+    @Test
+    void catalogChangeToTheStockOfAHotDrugRebasesItsCounter() {
+        var id = createDrug("HS000006", 10);
+        var engine = engine(Set.of(id), 0, NEVER, true);
+        engine.adjust(id, -2, notInDatabase());
+
+        jdbcTemplate.update("update pharmacy.drugs set available_copies = 20 where id = ?", id);
+        engine.onCatalogChanged(DrugCatalogChangedEvent.saved(drugRepository.findAllById(List.of(id))));
+
+        assertEquals(17, engine.adjust(id, -1, notInDatabase()).getAvailableCopies(),
+                "the counter did not move to the new stock with the unflushed adjustment on top");
+
+        engine.onCatalogChanged(DrugCatalogChangedEvent.saved(drugRepository.findAllById(List.of(id))));
+
+        assertEquals(16, engine.adjust(id, -1, notInDatabase()).getAvailableCopies(),
+                "an unchanged stock rebased the counter");
+    }
+
+    /**
+     * Creates and starts an engine journaling to the temporary directory.
+     * @param hotDrugs The IDs of the drugs that are hot from the start.
+     * @param heatThreshold The adjustments per second at which a drug becomes hot; 0 to disable.
+     * @param flushInterval The time between flushes.
+     * @param shutDown Whether to shut the engine down after the test; an engine that is not shut
+     *                 down stands for a process that stopped without flushing.
+     * @return The started engine.
+     */
+    private HotStockEngine engine(Set<Long> hotDrugs, int heatThreshold, Duration flushInterval, boolean shutDown) {
+        try {
+            var engine = new HotStockEngine(drugRepository, checkpointRepository, jdbcTemplate,
+                    new DrugCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry()), new CatalogVersion(),
+                    event -> { }, transactionManager, hotDrugs, heatThreshold, 4, flushInterval,
+                    journalDirectory.toString());
+            engine.start();
+            if (shutDown) {
+                engines.add(engine);
+            }
+            return engine;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stands in for the database adjustment of a drug the engine should hold in memory.
+     * @return A supplier that fails the test when called.
+     */
+    private static Supplier<StockLevelDto> notInDatabase() {
+        return () -> {
+            throw new AssertionError("a hot drug was adjusted through the database");
+        };
+    }
+
+    /**
+     * Stands in for the database adjustment of a cold drug by reading its stock unchanged.
+     * @param id The ID of the drug.
+     * @return A supplier of the stored stock of the drug.
+     */
+    private Supplier<StockLevelDto> inDatabase(long id) {
+        return () -> new StockLevelDto(id, copies(id), true);
+    }
+
+    /**
+     * Reads the stored stock of a drug.
+     * @param id The ID of the drug.
+     * @return The number of copies in the drugs table.
+     */
+    private int copies(long id) {
+        return jdbcTemplate.queryForObject("select available_copies from pharmacy.drugs where id = ?", Integer.class, id);
+    }
+
+    /**
+     * Creates a drug.
+     * @param ma The MA number of the drug.
+     * @param copies The number of copies in stock.
+     * @return The ID of the drug.
+     */
+    private long createDrug(String ma, int copies) {
+        var drug = TestDrugs.entity(ma);
+        drug.setAvailableCopies(copies);
+        return drugRepository.save(drug).getId();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package org.example.pharmacy.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.pharmacy.infrastructure.entity.UserEntity;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the cache of verified tokens only ever answers for the exact token that was
+ * verified, and only until that token expires.
+ */
+class JwtServiceTest {
+    private static final String SECRET = "test-secret-of-at-least-32-bytes!";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void repeatedTokenIsServedFromTheCache() {
+        var jwtService = new JwtService(60_000, SECRET, 100, meterRegistry);
+        var token = jwtService.createToken(user("alice"));
+
+        assertEquals(Optional.of("alice"), jwtService.verify(token));
+        assertEquals(Optional.of("alice"), jwtService.verify(token));
+
+        assertEquals(1, verifications("parsed"));
+        assertEquals(1, verifications("cached"));
+    }
+
+    @Test
+    void expiredTokenIsNotServedFromTheCache() throws InterruptedException {
+        var jwtService = new JwtService(2_000, SECRET, 100, meterRegistry);
+        var token = jwtService.createToken(user("alice"));
+        assertEquals(Optional.of("alice"), jwtService.verify(token));
+
+        Thread.sleep(2_100);
+
+        assertEquals(Optional.empty(), jwtService.verify(token));
+        assertEquals(0, verifications("cached"));
+        assertEquals(1, verifications("rejected"));
+    }
+
+    @Test
+    void tamperedTokenIsNotServedFromTheCache() {
+        var jwtService = new JwtService(60_000, SECRET, 100, meterRegistry);
+        var token = jwtService.createToken(user("alice"));
+        assertEquals(Optional.of("alice"), jwtService.verify(token));
+
+        var parts = token.split("\\.");
+        var payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8).replace("alice", "admin");
+        var tampered = parts[0] + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        assertEquals(Optional.empty(), jwtService.verify(tampered));
+        assertEquals(Optional.empty(), jwtService.verify(tampered));
+        assertEquals(0, verifications("cached"));
+        assertEquals(2, verifications("rejected"));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        var other = new JwtService(60_000, "another-secret-of-at-least-32-bytes", 100, new SimpleMeterRegistry());
+        var jwtService = new JwtService(60_000, SECRET, 100, meterRegistry);
+
+        assertEquals(Optional.empty(), jwtService.verify(other.createToken(user("alice"))));
+        assertEquals(1, verifications("rejected"));
+    }
+
+    /**
+     * Counts the token verifications with an outcome.
+     * @param result The outcome: cached, parsed or rejected.
+     * @return The number of verifications.
+     */
+    private long verifications(String result) {
+        return meterRegistry.get("auth.token.verify").tag("result", result).timer().count();
+    }
+
+    /**
+     * Builds a user.
+     * @param username The username.
+     * @return The UserEntity.
+     */
+    private static UserEntity user(String username) {
+        var user = new UserEntity();
+        user.setId(1L);
+        user.setUsername(username);
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package org.example.pharmacy.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks what the stock journal leaves on disk for a later replay: every acknowledged adjustment,
+ * and nothing of an adjustment whose record could not be written.
+ */
+class StockJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void acknowledgedRecordsSurviveAnUncleanStop() throws IOException {
+        var journal = new StockJournal(directory);
+        journal.open(1);
+        journal.append(7, -3);
+        journal.append(8, 5);
+        journal.append(7, -2);
+        journal.append(9, 4);
+        journal.append(9, -4);
+        Files.write(directory.resolve("stock-1.journal"), new byte[5], StandardOpenOption.APPEND);
+
+        var segments = new StockJournal(directory).segments();
+
+        assertEquals(1, segments.size());
+        assertEquals(1, segments.get(0).number());
+        assertEquals(Map.of(7L, -5L, 8L, 5L), StockJournal.read(segments.get(0)), "a torn record was read or a record was lost");
+        journal.close();
+    }
+
+    @Test
+    void failedAppendLeavesNoTrace() throws IOException {
+        var journal = new StockJournal(directory);
+        journal.open(1);
+        journal.append(7, -1);
+        journal.close();
+
+        assertThrows(UncheckedIOException.class, () -> journal.append(7, -1));
+
+        assertEquals(-1, journal.pending(7));
+        assertEquals(Map.of(7L, -1L), StockJournal.read(journal.segments().get(0)));
+    }
+
+    @Test
+    void restoredDeltasAreSealedAgainWithTheNextSegment() throws IOException {
+        var journal = new StockJournal(directory);
+        journal.open(1);
+        journal.append(7, -2);
+        var first = journal.seal();
+        journal.restore(first);
+        journal.append(7, -1);
+        journal.append(8, 3);
+
+        var second = journal.seal();
+
+        assertEquals(new StockJournal.Sealed(1, Map.of(7L, -2L)), first);
+        assertEquals(new StockJournal.Sealed(2, Map.of(7L, -3L, 8L, 3L)), second);
+        assertNull(journal.seal(), "a segment without adjustments was sealed");
+        assertEquals(List.of(1L, 2L, 3L), journal.segments().stream().map(StockJournal.Segment::number).toList());
+        journal.close();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package org.example.pharmacy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Removes copies from a striped counter on many threads at once and checks that the stock never
+ * goes below zero and that every copy is removed once.
+ */
+class StripedStockCounterTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 200;
+
+    @Test
+    void concurrentRemovalsStopAtZero() throws Exception {
+        var counter = new StripedStockCounter(8);
+        counter.reset(1000);
+
+        var removed = removeConcurrently(counter, 1);
+
+        assertEquals(1000, removed);
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryRemove(1));
+    }
+
+    @Test
+    void removalsLargerThanAnyStripeDrainTheStripes() throws Exception {
+        var counter = new StripedStockCounter(8);
+        counter.reset(1000);
+
+        var removed = removeConcurrently(counter, 3);
+
+        assertEquals(333, removed);
+        assertEquals(1, counter.sum());
+    }
+
+    /**
+     * Removes copies from a counter on several threads until none of them can.
+     * @param counter The counter.
+     * @param copies The number of copies each removal takes.
+     * @return The number of removals that succeeded.
+     * @throws Exception if a thread fails.
+     */
+    private static int removeConcurrently(StripedStockCounter counter, long copies) throws Exception {
+        var removed = new AtomicInteger();
+        var start = new CountDownLatch(1);
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (counter.tryRemove(copies)) {
+                            removed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        return removed.get();
+    }
+}
\ No newline at end of file